@@ -0,0 +1,38 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+final class BenchmarkPages {
+
+    private BenchmarkPages() {
+    }
+
+    static String getWallpapersPage(ObjectMapper objectMapper, int wallpapers, int commentsPerWallpaper)
+            throws IOException {
+        ObjectNode page;
+        try (InputStream template = BenchmarkPages.class.getResourceAsStream(
+                "/getWallpapersSuccessFullyPopulated.json")) {
+            page = (ObjectNode) objectMapper.readTree(template);
+        }
+        ObjectNode dbCore = (ObjectNode) page.get("db_core");
+        ObjectNode wallpaperTemplate = (ObjectNode) dbCore.get("wallpapers").elements().next();
+        ArrayNode commentTemplates = (ArrayNode) wallpaperTemplate.get("comments").get("comments");
+        ObjectNode wallpaperMap = dbCore.putObject("wallpapers");
+        ArrayNode wallpaperIds = page.putArray("wallpapers");
+        for (int id = 1; id <= wallpapers; id++) {
+            ObjectNode wallpaper = wallpaperTemplate.deepCopy().put("id", id);
+            ArrayNode comments = ((ObjectNode) wallpaper.get("comments")).putArray("comments");
+            for (int comment = 0; comment < commentsPerWallpaper; comment++) {
+                comments.add(commentTemplates.get(comment % commentTemplates.size()).deepCopy());
+            }
+            wallpaperMap.set(String.valueOf(id), wallpaper);
+            wallpaperIds.add(id);
+        }
+        return objectMapper.writeValueAsString(page);
+    }
+}
@@ -0,0 +1,67 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DeserialisationBenchmark {
+
+    @Param({"50"})
+    public int wallpapers;
+
+    @Param({"25"})
+    public int commentsPerWallpaper;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ObjectReader reader;
+    private ObjectReader blackbirdReader;
+    private byte[] page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        page = BenchmarkPages.getWallpapersPage(objectMapper, wallpapers, commentsPerWallpaper)
+                .getBytes(StandardCharsets.UTF_8);
+        reader = objectMapper.readerFor(GetWallpapersResponse.class);
+        blackbirdReader = new ObjectMapper()
+                .registerModule(new BlackbirdModule())
+                .readerFor(GetWallpapersResponse.class);
+    }
+
+    @Benchmark
+    public GetWallpapersResponse objectMapper() throws IOException {
+        return objectMapper.readValue(page, GetWallpapersResponse.class);
+    }
+
+    @Benchmark
+    public GetWallpapersResponse objectReader() throws IOException {
+        return reader.readValue(page);
+    }
+
+    @Benchmark
+    public GetWallpapersResponse blackbirdObjectReader() throws IOException {
+        return blackbirdReader.readValue(page);
+    }
+}
@@ -0,0 +1,118 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.WallpaperType;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okForContentType;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    @Param({"COMMON_POOL", "VIRTUAL_THREADS"})
+    public String mode;
+
+    @Param({"64", "512"})
+    public int concurrentDownloads;
+
+    private WireMockServer wireMockServer;
+    private DigitalBlasphemyClient client;
+    private Path directory;
+    private DownloadWallpaperRequest downloadWallpaperRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        wireMockServer = new WireMockServer(options().dynamicPort().containerThreads(256).disableRequestJournal());
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlMatching("/v2/core/download/wallpaper/.*"))
+                .willReturn(okForContentType("application/json", """
+                        {
+                          "db_core": {
+                            "timestamp": 1,
+                            "endpoints": {
+                              "api": "%1$s/v2/core",
+                              "image": "%1$s",
+                              "thumb": "%1$s",
+                              "web": "%1$s"
+                            },
+                            "request": {
+                              "params": {
+                                "type": "single",
+                                "width": 1920,
+                                "height": 1080,
+                                "wallpaper_id": 1
+                              }
+                            }
+                          },
+                          "download": {
+                            "expiration": 4102444800,
+                            "url": "%1$s/wallpaper.jpg"
+                          }
+                        }
+                        """.formatted(wireMockServer.baseUrl()))));
+        wireMockServer.stubFor(get(urlMatching("/wallpaper.jpg"))
+                .willReturn(okForContentType("image/jpeg", "x".repeat(256 * 1024)).withFixedDelay(10)));
+
+        DigitalBlasphemyClient.Builder builder = DigitalBlasphemyClient.builder()
+                .apiKey("apiKey")
+                .baseUrl(wireMockServer.baseUrl());
+        if ("VIRTUAL_THREADS".equals(mode)) {
+            builder.virtualThreads();
+        }
+        client = builder.build();
+        directory = Files.createTempDirectory("execution-mode-benchmark");
+        downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                .type(WallpaperType.SINGLE)
+                .width(1920)
+                .height(1080)
+                .wallpaperId(1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        wireMockServer.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void downloadWallpapers() {
+        CompletableFuture.allOf(IntStream.range(0, concurrentDownloads)
+                        .mapToObj(index -> client.downloadWallpaper(
+                                directory.resolve(index + ".jpg"), downloadWallpaperRequest))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+    }
+}
@@ -0,0 +1,89 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okForContentType;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonDecodingBenchmark {
+
+    @Param({"50"})
+    public int wallpapers;
+
+    @Param({"25"})
+    public int commentsPerWallpaper;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private WireMockServer wireMockServer;
+    private HttpClient client;
+    private HttpRequest request;
+    private ObjectReader objectReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        wireMockServer = new WireMockServer(options().dynamicPort().disableRequestJournal());
+        wireMockServer.start();
+        wireMockServer.stubFor(get("/v2/core/wallpapers")
+                .willReturn(okForContentType("application/json",
+                        BenchmarkPages.getWallpapersPage(objectMapper, wallpapers, commentsPerWallpaper))));
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create(wireMockServer.baseUrl() + "/v2/core/wallpapers")).build();
+        objectReader = objectMapper.readerFor(GetWallpapersResponse.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Benchmark
+    public GetWallpapersResponse byteArray() {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApplyAsync(response -> {
+                    try {
+                        return objectMapper.readValue(response.body(), GetWallpapersResponse.class);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .join();
+    }
+
+    @Benchmark
+    public GetWallpapersResponse streaming() {
+        return client.sendAsync(request, new JsonBodyHandler<GetWallpapersResponse>(objectReader))
+                .thenApplyAsync(response -> response.body().get())
+                .join();
+    }
+}
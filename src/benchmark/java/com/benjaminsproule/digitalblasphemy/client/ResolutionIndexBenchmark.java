@@ -0,0 +1,112 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResolutionIndexBenchmark {
+
+    private static final int[][] SINGLE = {
+            {1280, 720}, {1366, 768}, {1600, 900}, {1920, 1080}, {2560, 1440}, {3840, 2160},
+            {1680, 1050}, {1920, 1200}, {2560, 1600}, {2560, 1080}, {3440, 1440}
+    };
+    private static final int[][] DUAL = {{2560, 1024}, {3840, 1080}, {3840, 1200}, {5120, 1440}};
+    private static final int[][] TRIPLE = {{3840, 1024}, {5760, 1080}, {5760, 1200}, {7680, 1440}};
+    private static final int[][] MOBILE = {{1080, 1920}, {1125, 2436}, {1170, 2532}, {1440, 3200}};
+
+    @Param({"10000"})
+    public int wallpapers;
+
+    private List<Wallpaper> catalogue;
+    private ResolutionIndex index;
+    private int wallpaperId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        catalogue = IntStream.rangeClosed(1, wallpapers)
+                .mapToObj(id -> new Wallpaper(id, null, null, null, null, "Wallpaper " + id, null, null, null,
+                        new Wallpaper.Resolutions(resolutions(SINGLE, random), resolutions(DUAL, random),
+                                resolutions(TRIPLE, random), resolutions(MOBILE, random)),
+                        null, null, null))
+                .toList();
+        index = ResolutionIndex.of(catalogue);
+        wallpaperId = wallpapers / 2;
+    }
+
+    @Benchmark
+    public Wallpaper.Resolutions.Resolution linearBestFor5120x1440() {
+        Wallpaper wallpaper = catalogue.get(wallpaperId - 1);
+        Wallpaper.Resolutions.Resolution best = null;
+        long bestArea = Long.MAX_VALUE;
+        for (Wallpaper.Resolutions.Resolution resolution : resolutions(wallpaper.resolutions()).toList()) {
+            int width = Integer.parseInt(resolution.width());
+            int height = Integer.parseInt(resolution.height());
+            if ((long) width * 1440 == (long) height * 5120 && width >= 5120 && (long) width * height < bestArea) {
+                best = resolution;
+                bestArea = (long) width * height;
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    public ResolutionIndex.Match indexedBestFor5120x1440() {
+        return index.best(wallpaperId, 5120, 1440);
+    }
+
+    @Benchmark
+    public int linearAtLeast3840x2160() {
+        int matched = 0;
+        for (Wallpaper wallpaper : catalogue) {
+            if (resolutions(wallpaper.resolutions()).anyMatch(resolution ->
+                    Integer.parseInt(resolution.width()) >= 3840 && Integer.parseInt(resolution.height()) >= 2160)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int indexedAtLeast3840x2160() {
+        return index.atLeast(3840, 2160).cardinality();
+    }
+
+    private static Stream<Wallpaper.Resolutions.Resolution> resolutions(Wallpaper.Resolutions resolutions) {
+        return Stream.of(resolutions.single(), resolutions.dual(), resolutions.triple(), resolutions.mobile())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream);
+    }
+
+    private static List<Wallpaper.Resolutions.Resolution> resolutions(int[][] sizes, Random random) {
+        return Stream.of(sizes)
+                .filter(size -> random.nextInt(4) != 0)
+                .map(size -> new Wallpaper.Resolutions.Resolution(size[0] + "x" + size[1],
+                        String.valueOf(size[0]), String.valueOf(size[1]),
+                        "/single/%dx%d/image.jpg".formatted(size[0], size[1])))
+                .toList();
+    }
+}
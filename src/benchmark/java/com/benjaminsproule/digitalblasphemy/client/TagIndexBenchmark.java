@@ -0,0 +1,110 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TagIndexBenchmark {
+
+    @Param({"10000"})
+    public int wallpapers;
+
+    @Param({"300"})
+    public int tags;
+
+    @Param({"8"})
+    public int tagsPerWallpaper;
+
+    private List<Set<Integer>> wallpaperTags;
+    private TagIndex index;
+    private List<Integer> commonTags;
+    private List<Integer> rareTags;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Wallpaper> catalogue = IntStream.rangeClosed(1, wallpapers)
+                .mapToObj(wallpaperId -> wallpaper(wallpaperId, random))
+                .toList();
+        wallpaperTags = catalogue.stream()
+                .map(wallpaper -> wallpaper.tags().values().stream()
+                        .map(tag -> (int) tag.id())
+                        .collect(Collectors.toUnmodifiableSet()))
+                .toList();
+        index = TagIndex.of(catalogue, wallpaper -> List.of(wallpaper.id() % 20));
+        commonTags = List.of(0, 1);
+        rareTags = List.of(tags - 1, tags - 2);
+    }
+
+    @Benchmark
+    public int setContainsAllCommonTags() {
+        return count(commonTags);
+    }
+
+    @Benchmark
+    public int bitmapAllCommonTags() {
+        return index.allTags(commonTags).cardinality();
+    }
+
+    @Benchmark
+    public int setContainsAllRareTags() {
+        return count(rareTags);
+    }
+
+    @Benchmark
+    public int bitmapAllRareTags() {
+        return index.allTags(rareTags).cardinality();
+    }
+
+    @Benchmark
+    public int bitmapAnyTagInGalleryExcludingTag() {
+        return index.anyTag(commonTags)
+                .and(index.gallery(3))
+                .andNot(index.tag(2))
+                .cardinality();
+    }
+
+    private int count(List<Integer> filterTags) {
+        int matched = 0;
+        for (Set<Integer> tagIds : wallpaperTags) {
+            if (tagIds.containsAll(filterTags)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private Wallpaper wallpaper(int wallpaperId, Random random) {
+        Map<String, Wallpaper.Tag> tagMap = random.ints(tagsPerWallpaper, 0, tags)
+                .map(tag -> (int) (Math.pow((double) tag / tags, 3) * tags))
+                .boxed()
+                .distinct()
+                .collect(Collectors.toMap(String::valueOf, tag -> new Wallpaper.Tag(tag, "Tag " + tag)));
+        return new Wallpaper(wallpaperId, null, null, null, null, "Wallpaper " + wallpaperId,
+                null, null, null, null, null, tagMap, null);
+    }
+}
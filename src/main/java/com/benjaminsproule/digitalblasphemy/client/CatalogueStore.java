@@ -0,0 +1,534 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+public final class CatalogueStore implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogueStore.class);
+    private static final ObjectReader READER = DigitalBlasphemyClient.OBJECT_MAPPER.readerFor(Wallpaper.class);
+    private static final ObjectWriter WRITER = DigitalBlasphemyClient.OBJECT_MAPPER.writerFor(Wallpaper.class);
+    private static final String LOG_FILE = "catalogue.log";
+    private static final String INDEX_FILE = "catalogue.idx";
+    private static final int LOG_MAGIC = 0x44424354;
+    private static final int INDEX_MAGIC = 0x44424349;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 20;
+    private static final int INDEX_ENTRY_SIZE = 24;
+    private static final int TOMBSTONE = -1;
+
+    private final Path logFile;
+    private final Path indexFile;
+    private final Path compactingFile;
+    private final Executor executor;
+    @Nullable
+    private final ExecutorService ownedExecutor;
+    private final double compactionRatio;
+    private final long compactionMinimumSize;
+    private FileChannel log;
+    private long generation;
+    private Map<Integer, Entry> index = new HashMap<>();
+    private long logEnd;
+    private long liveBytes;
+    private long compactionCount;
+    private CompletableFuture<Void> compaction;
+    private boolean closed;
+
+    private CatalogueStore(Builder builder) throws IOException {
+        Files.createDirectories(builder.directory);
+        this.logFile = builder.directory.resolve(LOG_FILE);
+        this.indexFile = builder.directory.resolve(INDEX_FILE);
+        this.compactingFile = builder.directory.resolve(LOG_FILE + ".compacting");
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "catalogue-store-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = ownedExecutor;
+        }
+        this.compactionRatio = builder.compactionRatio;
+        this.compactionMinimumSize = builder.compactionMinimumSize;
+        try {
+            this.log = FileChannel.open(logFile, CREATE, READ, WRITE);
+            open();
+        } catch (IOException | RuntimeException e) {
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+            throw e;
+        }
+    }
+
+    public static CatalogueStore.Builder builder() {
+        return new CatalogueStore.Builder();
+    }
+
+    @Nullable
+    public Wallpaper get(int wallpaperId) throws IOException {
+        byte[] payload;
+        synchronized (this) {
+            checkOpen();
+            Entry entry = index.get(wallpaperId);
+            if (entry == null) {
+                return null;
+            }
+            payload = readPayload(log, entry);
+        }
+        return READER.readValue(payload);
+    }
+
+    @NonNull
+    public List<Wallpaper> getAll() throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        synchronized (this) {
+            checkOpen();
+            for (Entry entry : byOffset(index)) {
+                payloads.add(readPayload(log, entry));
+            }
+        }
+        List<Wallpaper> wallpapers = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads) {
+            wallpapers.add(READER.readValue(payload));
+        }
+        return wallpapers;
+    }
+
+    public synchronized boolean contains(int wallpaperId) {
+        return index.containsKey(wallpaperId);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long latestTimestamp() {
+        return index.values().stream().mapToLong(Entry::timestamp).max().orElse(0);
+    }
+
+    public void put(@NonNull Wallpaper wallpaper) throws IOException {
+        putAll(List.of(wallpaper));
+    }
+
+    public void putAll(@NonNull Collection<Wallpaper> wallpapers) throws IOException {
+        if (wallpapers.isEmpty()) {
+            return;
+        }
+        List<ByteBuffer> records = new ArrayList<>(wallpapers.size());
+        for (Wallpaper wallpaper : wallpapers) {
+            long timestamp = wallpaper.timestamp() == null ? 0 : wallpaper.timestamp();
+            records.add(record(wallpaper.id(), timestamp, WRITER.writeValueAsBytes(wallpaper)));
+        }
+        synchronized (this) {
+            checkOpen();
+            long position = logEnd;
+            List<Entry> entries = new ArrayList<>(records.size());
+            for (ByteBuffer record : records) {
+                entries.add(new Entry(record.getInt(0), position, record.getInt(4), record.getLong(8)));
+                position += record.remaining();
+            }
+            writeFully(log, records, logEnd);
+            logEnd = position;
+            entries.forEach(this::apply);
+            compactIfNeeded();
+        }
+    }
+
+    public synchronized boolean remove(int wallpaperId) throws IOException {
+        checkOpen();
+        if (!index.containsKey(wallpaperId)) {
+            return false;
+        }
+        ByteBuffer tombstone = record(wallpaperId, 0, null);
+        long position = logEnd;
+        writeFully(log, List.of(tombstone), position);
+        logEnd += tombstone.remaining();
+        apply(new Entry(wallpaperId, position, TOMBSTONE, 0));
+        compactIfNeeded();
+        return true;
+    }
+
+    public synchronized void flush() throws IOException {
+        checkOpen();
+        log.force(false);
+        writeIndex();
+    }
+
+    @NonNull
+    public synchronized CompletableFuture<Void> compact() {
+        checkOpen();
+        CompletableFuture<Void> running = compaction;
+        if (running == null) {
+            running = CompletableFuture.runAsync(() -> {
+                try {
+                    rewrite();
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            compaction = running;
+            running.whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    LOGGER.warn("Catalogue compaction failed", throwable);
+                }
+                synchronized (this) {
+                    compaction = null;
+                }
+            });
+        }
+        return running;
+    }
+
+    @NonNull
+    public synchronized Stats stats() {
+        return new Stats(index.size(), liveBytes, logEnd, compactionCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        CompletableFuture<Void> running;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = compaction;
+        }
+        try {
+            if (running != null) {
+                running.exceptionally(ignored -> null).join();
+            }
+            synchronized (this) {
+                log.force(false);
+                writeIndex();
+                log.close();
+            }
+        } finally {
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        if (log.size() < FILE_HEADER_SIZE) {
+            // Seeded randomly so an index copied from another store never matches, then incremented by each
+            // compaction so the generation only moves forwards.
+            generation = ThreadLocalRandom.current().nextLong(Integer.MAX_VALUE);
+            writeFully(log, List.of(fileHeader(LOG_MAGIC, generation)), 0);
+            log.truncate(FILE_HEADER_SIZE);
+            logEnd = FILE_HEADER_SIZE;
+            return;
+        }
+        generation = checkFileHeader(log, LOG_MAGIC, logFile);
+        long replayFrom = readIndex();
+        long end = replay(log, replayFrom, index);
+        if (end < log.size()) {
+            LOGGER.warn("Truncating {} bytes of incomplete records from {}", log.size() - end, logFile);
+            log.truncate(end);
+        }
+        logEnd = end;
+        liveBytes = index.values().stream().mapToLong(Entry::size).sum();
+        LOGGER.debug("Opened catalogue with {} wallpapers", index.size());
+    }
+
+    private long readIndex() throws IOException {
+        if (!Files.exists(indexFile)) {
+            return FILE_HEADER_SIZE;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, READ)) {
+            long indexedGeneration = checkFileHeader(channel, INDEX_MAGIC, indexFile);
+            ByteBuffer header = readFully(channel, FILE_HEADER_SIZE, 12);
+            long indexedEnd = header.getLong();
+            int count = header.getInt();
+            if (indexedGeneration != generation || indexedEnd > log.size()) {
+                LOGGER.warn("Ignoring {} as it does not match {}", indexFile, logFile);
+                return FILE_HEADER_SIZE;
+            }
+            ByteBuffer entries = readFully(channel, FILE_HEADER_SIZE + 12, (long) count * INDEX_ENTRY_SIZE);
+            Map<Integer, Entry> indexed = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                Entry entry = new Entry(entries.getInt(), entries.getLong(), entries.getInt(), entries.getLong());
+                indexed.put(entry.wallpaperId(), entry);
+            }
+            index = indexed;
+            return indexedEnd;
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable {}", indexFile, e);
+            index = new HashMap<>();
+            return FILE_HEADER_SIZE;
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_HEADER_SIZE + 12 + index.size() * INDEX_ENTRY_SIZE);
+        buffer.put(fileHeader(INDEX_MAGIC, generation)).putLong(logEnd).putInt(index.size());
+        index.values().forEach(entry -> buffer.putInt(entry.wallpaperId())
+                .putLong(entry.offset())
+                .putInt(entry.length())
+                .putLong(entry.timestamp()));
+        buffer.flip();
+        Path temporaryFile = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            writeFully(channel, List.of(buffer), 0);
+            channel.force(false);
+        }
+        Files.move(temporaryFile, indexFile, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private void rewrite() throws IOException {
+        List<Entry> snapshot;
+        long snapshotEnd;
+        FileChannel source;
+        long compactedGeneration;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            snapshot = byOffset(index);
+            snapshotEnd = logEnd;
+            source = log;
+            compactedGeneration = generation + 1;
+        }
+        LOGGER.debug("Compacting catalogue of {} wallpapers", snapshot.size());
+        FileChannel target = FileChannel.open(compactingFile, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+        try {
+            writeFully(target, List.of(fileHeader(LOG_MAGIC, compactedGeneration)), 0);
+            Map<Integer, Entry> compacted = new HashMap<>(snapshot.size() * 2);
+            long position = FILE_HEADER_SIZE;
+            for (Entry entry : snapshot) {
+                transferFully(source, entry.offset(), entry.size(), target, position);
+                compacted.put(entry.wallpaperId(), new Entry(entry.wallpaperId(), position, entry.length(),
+                        entry.timestamp()));
+                position += entry.size();
+            }
+            synchronized (this) {
+                transferFully(log, snapshotEnd, logEnd - snapshotEnd, target, position);
+                long end = replay(target, position, compacted);
+                target.force(false);
+                Files.move(compactingFile, logFile, REPLACE_EXISTING, ATOMIC_MOVE);
+                log.close();
+                log = target;
+                generation = compactedGeneration;
+                index = compacted;
+                logEnd = end;
+                liveBytes = index.values().stream().mapToLong(Entry::size).sum();
+                compactionCount++;
+                writeIndex();
+                LOGGER.debug("Compacted catalogue to {} bytes", logEnd);
+            }
+        } catch (IOException | RuntimeException e) {
+            target.close();
+            Files.deleteIfExists(compactingFile);
+            throw e;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (logEnd >= compactionMinimumSize && logEnd - liveBytes > logEnd * compactionRatio) {
+            compact();
+        }
+    }
+
+    private void apply(Entry entry) {
+        Entry previous = entry.length() == TOMBSTONE
+                ? index.remove(entry.wallpaperId())
+                : index.put(entry.wallpaperId(), entry);
+        if (previous != null) {
+            liveBytes -= previous.size();
+        }
+        if (entry.length() != TOMBSTONE) {
+            liveBytes += entry.size();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Catalogue store is closed.");
+        }
+    }
+
+    private static long replay(FileChannel channel, long position, Map<Integer, Entry> index) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (position + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            channel.read(header, position);
+            if (header.hasRemaining()) {
+                break;
+            }
+            header.flip();
+            Entry entry = new Entry(header.getInt(), position, header.getInt(), header.getLong());
+            int checksum = header.getInt();
+            if (entry.length() < TOMBSTONE || position + entry.size() > size) {
+                break;
+            }
+            if (entry.length() == TOMBSTONE) {
+                index.remove(entry.wallpaperId());
+            } else if (checksum(readPayload(channel, entry)) != checksum) {
+                LOGGER.warn("Skipping corrupt record for wallpaper {} at offset {}", entry.wallpaperId(), position);
+            } else {
+                index.put(entry.wallpaperId(), entry);
+            }
+            position += entry.size();
+        }
+        return position;
+    }
+
+    private static byte[] readPayload(FileChannel channel, Entry entry) throws IOException {
+        return readFully(channel, entry.offset() + RECORD_HEADER_SIZE, entry.length()).array();
+    }
+
+    private static ByteBuffer record(int wallpaperId, long timestamp, @Nullable byte[] payload) {
+        int length = payload == null ? TOMBSTONE : payload.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + Math.max(0, length));
+        record.putInt(wallpaperId).putInt(length).putLong(timestamp).putInt(payload == null ? 0 : checksum(payload));
+        if (payload != null) {
+            record.put(payload);
+        }
+        return record.flip();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer fileHeader(int magic, long generation) {
+        return ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(magic).putInt(VERSION).putLong(generation).flip();
+    }
+
+    private static long checkFileHeader(FileChannel channel, int magic, Path file) throws IOException {
+        ByteBuffer header = readFully(channel, 0, FILE_HEADER_SIZE);
+        if (header.getInt() != magic || header.getInt() != VERSION) {
+            throw new IOException("%s is not a version %d catalogue file".formatted(file, VERSION));
+        }
+        return header.getLong();
+    }
+
+    private static List<Entry> byOffset(Map<Integer, Entry> index) {
+        return index.values().stream().sorted(Comparator.comparingLong(Entry::offset)).toList();
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(length));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("EOF reached while reading");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, List<ByteBuffer> buffers, long position) throws IOException {
+        for (ByteBuffer buffer : buffers) {
+            ByteBuffer duplicate = buffer.duplicate();
+            while (duplicate.hasRemaining()) {
+                position += channel.write(duplicate, position);
+            }
+        }
+    }
+
+    private static void transferFully(FileChannel source, long position, long count, FileChannel target,
+                                      long targetPosition) throws IOException {
+        target.position(targetPosition);
+        long transferred = 0;
+        while (transferred < count) {
+            long written = source.transferTo(position + transferred, count - transferred, target);
+            if (written <= 0) {
+                throw new EOFException("EOF reached while reading");
+            }
+            transferred += written;
+        }
+    }
+
+    public record Stats(long size, long liveBytes, long logBytes, long compactionCount) {
+    }
+
+    private record Entry(int wallpaperId, long offset, int length, long timestamp) {
+        private long size() {
+            return RECORD_HEADER_SIZE + Math.max(0, length);
+        }
+    }
+
+    public static class Builder {
+        private Path directory;
+        private Executor executor;
+        private double compactionRatio = 0.5;
+        private long compactionMinimumSize = 1024 * 1024;
+
+        private Builder() {
+        }
+
+        public CatalogueStore.Builder directory(@NonNull Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public CatalogueStore.Builder executor(@NonNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public CatalogueStore.Builder compactionRatio(double compactionRatio) {
+            if (compactionRatio <= 0 || compactionRatio >= 1) {
+                throw new IllegalArgumentException("Compaction ratio must be between 0 and 1.");
+            }
+            this.compactionRatio = compactionRatio;
+            return this;
+        }
+
+        public CatalogueStore.Builder compactionMinimumSize(long compactionMinimumSize) {
+            if (compactionMinimumSize < 0) {
+                throw new IllegalArgumentException("Compaction minimum size must not be negative.");
+            }
+            this.compactionMinimumSize = compactionMinimumSize;
+            return this;
+        }
+
+        public CatalogueStore build() throws IOException {
+            if (this.directory == null) {
+                throw new IllegalStateException("Directory must be provided.");
+            }
+            return new CatalogueStore(this);
+        }
+    }
+}
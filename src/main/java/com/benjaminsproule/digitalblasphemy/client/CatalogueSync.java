@@ -0,0 +1,333 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersOrderBy;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.Operator;
+import com.benjaminsproule.digitalblasphemy.client.model.Order;
+import com.benjaminsproule.digitalblasphemy.client.model.ResponseException;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import com.benjaminsproule.digitalblasphemy.client.model.WallpaperType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.benjaminsproule.digitalblasphemy.client.Futures.compose;
+
+public final class CatalogueSync {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogueSync.class);
+    private static final int PAGE_SIZE = 50;
+    private static final long DATE_FILTER_MARGIN_SECONDS = Duration.ofDays(1).toSeconds();
+    private static final int FIRST_YEAR = 1997;
+
+    private final DigitalBlasphemyClient client;
+    private final DownloadManager downloadManager;
+    private final CatalogueStore store;
+    private final Path directory;
+    private final Set<WallpaperType> types;
+    private final boolean showWatermark;
+    private final int concurrency;
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+    private Checkpoint checkpoint;
+
+    private CatalogueSync(Builder builder) {
+        this.client = builder.client;
+        this.downloadManager = builder.downloadManager != null
+                ? builder.downloadManager
+                : DownloadManager.builder().client(builder.client).build();
+        this.store = builder.store;
+        this.directory = builder.directory.toAbsolutePath().normalize();
+        this.types = builder.types;
+        this.showWatermark = builder.showWatermark;
+        this.concurrency = builder.concurrency;
+        if (builder.checkpoint != null) {
+            this.checkpoint = builder.checkpoint;
+        } else if (builder.store != null) {
+            this.checkpoint = new Checkpoint(builder.store.latestTimestamp(), 0);
+        } else {
+            this.checkpoint = Checkpoint.NONE;
+        }
+    }
+
+    public static CatalogueSync.Builder builder() {
+        return new CatalogueSync.Builder();
+    }
+
+    @NonNull
+    public synchronized Checkpoint checkpoint() {
+        return checkpoint;
+    }
+
+    @NonNull
+    public CompletableFuture<Result> sync() {
+        return inFlightRequests.execute(this, () -> {
+            Checkpoint since = checkpoint();
+            LOGGER.debug("Sync catalogue since {}", since);
+            return compose(client.getAllWallpaperPages(listRequest(since), concurrency),
+                    pages -> mirror(since, pages), client.executor());
+        });
+    }
+
+    private CompletableFuture<Result> mirror(Checkpoint since, List<GetWallpapersResponse> pages) {
+        Map<Integer, Wallpaper> changed = new LinkedHashMap<>();
+        pages.stream()
+                .flatMap(DigitalBlasphemyClient::wallpapers)
+                .filter(wallpaper -> wallpaper.timestamp() == null
+                        || wallpaper.timestamp() > since.wallpaperTimestamp())
+                .forEach(wallpaper -> changed.put(wallpaper.id(), wallpaper));
+
+        Map<Path, Wallpaper> missing = new LinkedHashMap<>();
+        Map<Path, CompletableFuture<Void>> downloads = new LinkedHashMap<>();
+        changed.values().forEach(wallpaper -> missingResolutions(wallpaper).forEach((filename, request) -> {
+            createDirectories(filename.getParent());
+            missing.put(filename, wallpaper);
+            downloads.put(filename, downloadManager.submit(filename, request, DownloadManager.Priority.BACKGROUND));
+        }));
+        LOGGER.debug("Found {} changed wallpapers with {} missing files", changed.size(), missing.size());
+        return CompletableFuture.allOf(downloads.values().stream()
+                        .map(download -> download.handle((ignored, throwable) -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenApplyAsync(ignored -> {
+                    List<Path> downloaded = new ArrayList<>();
+                    Map<Path, Throwable> failed = new LinkedHashMap<>();
+                    long retryFrom = Long.MAX_VALUE;
+                    for (Map.Entry<Path, CompletableFuture<Void>> download : downloads.entrySet()) {
+                        Throwable throwable = download.getValue().handle((value, failure) -> failure).join();
+                        if (throwable == null) {
+                            downloaded.add(download.getKey());
+                            continue;
+                        }
+                        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                        failed.put(download.getKey(), cause);
+                        Long timestamp = missing.get(download.getKey()).timestamp();
+                        if (isPermanent(cause)) {
+                            LOGGER.warn("Skipping {} after a permanent failure", download.getKey(), cause);
+                        } else if (timestamp != null) {
+                            LOGGER.debug("Retrying {} on the next sync", download.getKey(), cause);
+                            retryFrom = Math.min(retryFrom, timestamp);
+                        }
+                    }
+                    Checkpoint next = next(since, changed.values(), pages, retryFrom);
+                    store(changed.values().stream()
+                            .filter(wallpaper -> wallpaper.timestamp() == null
+                                    || wallpaper.timestamp() <= next.wallpaperTimestamp())
+                            .toList());
+                    advance(next);
+                    return new Result(List.copyOf(changed.values()), List.copyOf(downloaded), Map.copyOf(failed),
+                            next);
+                }, client.executor());
+    }
+
+    private static Checkpoint next(Checkpoint since,
+                                   Collection<Wallpaper> changed,
+                                   List<GetWallpapersResponse> pages,
+                                   long retryFrom) {
+        if (retryFrom != Long.MAX_VALUE) {
+            return new Checkpoint(Math.max(since.wallpaperTimestamp(), retryFrom - 1), since.catalogueTimestamp());
+        }
+        return new Checkpoint(
+                Math.max(since.wallpaperTimestamp(), changed.stream()
+                        .map(Wallpaper::timestamp)
+                        .filter(Objects::nonNull)
+                        .mapToLong(Long::longValue)
+                        .max()
+                        .orElse(0)),
+                Math.max(since.catalogueTimestamp(), pages.stream()
+                        .mapToLong(page -> page.dbCore().timestamp())
+                        .max()
+                        .orElse(0)));
+    }
+
+    private static boolean isPermanent(Throwable throwable) {
+        return throwable instanceof ResponseException && !RetryPolicy.isRetryable(throwable);
+    }
+
+    private Map<Path, DownloadWallpaperRequest> missingResolutions(Wallpaper wallpaper) {
+        Map<Path, DownloadWallpaperRequest> missing = new LinkedHashMap<>();
+        Wallpaper.Resolutions resolutions = wallpaper.resolutions();
+        if (resolutions == null) {
+            return missing;
+        }
+        for (WallpaperType type : types) {
+            List<Wallpaper.Resolutions.Resolution> resolutionsOfType = switch (type) {
+                case SINGLE -> resolutions.single();
+                case DUAL -> resolutions.dual();
+                case TRIPLE -> resolutions.triple();
+                case MOBILE -> resolutions.mobile();
+            };
+            if (resolutionsOfType == null) {
+                continue;
+            }
+            for (Wallpaper.Resolutions.Resolution resolution : resolutionsOfType) {
+                Path filename = filename(resolution);
+                if (filename == null || Files.exists(filename)) {
+                    continue;
+                }
+                missing.put(filename, DownloadWallpaperRequest.builder()
+                        .type(type)
+                        .width(Integer.parseInt(resolution.width()))
+                        .height(Integer.parseInt(resolution.height()))
+                        .wallpaperId(wallpaper.id())
+                        .showWatermark(showWatermark)
+                        .build());
+            }
+        }
+        return missing;
+    }
+
+    @Nullable
+    private Path filename(Wallpaper.Resolutions.Resolution resolution) {
+        Path filename = directory.resolve(resolution.image().replaceFirst("^/+", "")).normalize();
+        if (!filename.startsWith(directory) || filename.equals(directory)) {
+            LOGGER.warn("Skipping image outside of the mirror directory: {}", resolution.image());
+            return null;
+        }
+        return filename;
+    }
+
+    private void store(Collection<Wallpaper> wallpapers) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.putAll(wallpapers);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void createDirectories(@NonNull Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private synchronized void advance(Checkpoint next) {
+        checkpoint = new Checkpoint(
+                Math.max(checkpoint.wallpaperTimestamp(), next.wallpaperTimestamp()),
+                Math.max(checkpoint.catalogueTimestamp(), next.catalogueTimestamp()));
+    }
+
+    private static GetWallpapersRequest listRequest(Checkpoint since) {
+        GetWallpapersRequest.Builder builder = GetWallpapersRequest.builder()
+                .limit(PAGE_SIZE)
+                .orderBy(GetWallpapersOrderBy.DATE)
+                .order(Order.ASCENDING)
+                .showResolutions(true);
+        if (since.wallpaperTimestamp() > 0) {
+            LocalDate from = Instant.ofEpochSecond(since.wallpaperTimestamp() - DATE_FILTER_MARGIN_SECONDS)
+                    .atZone(ZoneOffset.UTC)
+                    .toLocalDate();
+            if (from.getYear() >= FIRST_YEAR) {
+                builder.filterDateYear(from.getYear())
+                        .filterDateMonth(from.getMonthValue())
+                        .filterDateDay(from.getDayOfMonth())
+                        .filterDateOperator(Operator.GREATER_THAN_OR_EQUAL);
+            }
+        }
+        return builder.build();
+    }
+
+    public record Checkpoint(long wallpaperTimestamp, long catalogueTimestamp) {
+        public static final Checkpoint NONE = new Checkpoint(0, 0);
+    }
+
+    public record Result(List<Wallpaper> wallpapers,
+                         List<Path> downloaded,
+                         Map<Path, Throwable> failed,
+                         Checkpoint checkpoint) {
+    }
+
+    public static class Builder {
+        private DigitalBlasphemyClient client;
+        private DownloadManager downloadManager;
+        private CatalogueStore store;
+        private Path directory;
+        private Set<WallpaperType> types = EnumSet.of(WallpaperType.SINGLE);
+        private boolean showWatermark = true;
+        private int concurrency = 2;
+        private Checkpoint checkpoint;
+
+        private Builder() {
+        }
+
+        public CatalogueSync.Builder client(@NonNull DigitalBlasphemyClient client) {
+            this.client = client;
+            return this;
+        }
+
+        public CatalogueSync.Builder downloadManager(@NonNull DownloadManager downloadManager) {
+            this.downloadManager = downloadManager;
+            return this;
+        }
+
+        public CatalogueSync.Builder store(@NonNull CatalogueStore store) {
+            this.store = store;
+            return this;
+        }
+
+        public CatalogueSync.Builder directory(@NonNull Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public CatalogueSync.Builder types(@NonNull Set<WallpaperType> types) {
+            if (types.isEmpty()) {
+                throw new IllegalArgumentException("Types must not be empty.");
+            }
+            this.types = EnumSet.copyOf(types);
+            return this;
+        }
+
+        public CatalogueSync.Builder showWatermark(boolean showWatermark) {
+            this.showWatermark = showWatermark;
+            return this;
+        }
+
+        public CatalogueSync.Builder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("Concurrency must be greater than 0.");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public CatalogueSync.Builder checkpoint(@NonNull Checkpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        public CatalogueSync build() {
+            if (this.client == null) {
+                throw new IllegalStateException("Client must be provided.");
+            }
+            if (this.directory == null) {
+                throw new IllegalStateException("Directory must be provided.");
+            }
+            return new CatalogueSync(this);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.ResponseException;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int halfOpenRequests;
+    private final Listener listener;
+    private final Clock clock;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    private CircuitBreaker(Builder builder) {
+        this.failureThreshold = builder.failureThreshold;
+        this.openDuration = builder.openDuration;
+        this.halfOpenRequests = builder.halfOpenRequests;
+        this.listener = builder.listener;
+        this.clock = builder.clock;
+    }
+
+    public static CircuitBreaker.Builder builder() {
+        return new CircuitBreaker.Builder();
+    }
+
+    @NonNull
+    public State state(@NonNull String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit == null) {
+            return State.CLOSED;
+        }
+        State state;
+        synchronized (circuit) {
+            state = circuit.state;
+        }
+        return state;
+    }
+
+    boolean isOpen(@NonNull String host) {
+        Circuit circuit = circuits.get(host);
+        if (circuit == null) {
+            return false;
+        }
+        boolean open;
+        synchronized (circuit) {
+            open = circuit.state == State.OPEN && clock.instant().isBefore(circuit.openUntil);
+        }
+        return open;
+    }
+
+    @Nullable
+    Permit tryAcquire(@NonNull String host) {
+        Circuit circuit = circuits.computeIfAbsent(host, ignored -> new Circuit());
+        State from;
+        State to;
+        Permit permit;
+        synchronized (circuit) {
+            from = circuit.state;
+            if (circuit.state == State.OPEN && !clock.instant().isBefore(circuit.openUntil)) {
+                circuit.state = State.HALF_OPEN;
+                circuit.generation++;
+                circuit.trialRequests = 0;
+                circuit.trialSuccesses = 0;
+            }
+            permit = switch (circuit.state) {
+                case CLOSED -> new Permit(host, false, circuit.generation);
+                case OPEN -> null;
+                case HALF_OPEN -> {
+                    if (circuit.trialRequests >= halfOpenRequests) {
+                        yield null;
+                    }
+                    circuit.trialRequests++;
+                    yield new Permit(host, true, circuit.generation);
+                }
+            };
+            to = circuit.state;
+        }
+        transition(host, from, to);
+        return permit;
+    }
+
+    void onComplete(@NonNull Permit permit, @Nullable Throwable throwable) {
+        String host = permit.host();
+        Circuit circuit = circuits.get(host);
+        State from;
+        State to;
+        synchronized (circuit) {
+            from = circuit.state;
+            if (isFailure(throwable)) {
+                circuit.consecutiveFailures++;
+                if (circuit.state == State.HALF_OPEN || circuit.consecutiveFailures == failureThreshold) {
+                    circuit.state = State.OPEN;
+                    circuit.openUntil = clock.instant().plus(openDuration);
+                }
+            } else {
+                circuit.consecutiveFailures = 0;
+                if (circuit.state == State.HALF_OPEN && ++circuit.trialSuccesses == halfOpenRequests) {
+                    circuit.state = State.CLOSED;
+                }
+            }
+            to = circuit.state;
+        }
+        transition(host, from, to);
+    }
+
+    void onCancel(@NonNull Permit permit) {
+        if (!permit.trial()) {
+            return;
+        }
+        Circuit circuit = circuits.get(permit.host());
+        synchronized (circuit) {
+            if (circuit.state == State.HALF_OPEN && circuit.generation == permit.generation()) {
+                circuit.trialRequests--;
+            }
+        }
+    }
+
+    private void transition(String host, State from, State to) {
+        if (from != to) {
+            LOGGER.debug("Circuit for {} changed from {} to {}", host, from, to);
+            listener.onStateChange(host, from, to);
+        }
+    }
+
+    static boolean isFailure(@Nullable Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (cause instanceof ResponseException responseException) {
+            return responseException.getStatusCode() >= 500;
+        }
+        return cause instanceof IOException && !(cause instanceof FileSystemException);
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onStateChange(@NonNull String host, @NonNull State from, @NonNull State to);
+    }
+
+    record Permit(@NonNull String host, boolean trial, long generation) {
+    }
+
+    private static class Circuit {
+        private State state = State.CLOSED;
+        private long generation;
+        private int consecutiveFailures;
+        private int trialRequests;
+        private int trialSuccesses;
+        private Instant openUntil;
+    }
+
+    public static class Builder {
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenRequests = 1;
+        private Listener listener = (host, from, to) -> {
+        };
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public CircuitBreaker.Builder failureThreshold(int failureThreshold) {
+            if (failureThreshold < 1) {
+                throw new IllegalArgumentException("Failure threshold must be greater than 0.");
+            }
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        public CircuitBreaker.Builder openDuration(@NonNull Duration openDuration) {
+            if (openDuration.isNegative() || openDuration.isZero()) {
+                throw new IllegalArgumentException("Open duration must be greater than 0.");
+            }
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public CircuitBreaker.Builder halfOpenRequests(int halfOpenRequests) {
+            if (halfOpenRequests < 1) {
+                throw new IllegalArgumentException("Half open requests must be greater than 0.");
+            }
+            this.halfOpenRequests = halfOpenRequests;
+            return this;
+        }
+
+        public CircuitBreaker.Builder listener(@NonNull Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        CircuitBreaker.Builder clock(@NonNull Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
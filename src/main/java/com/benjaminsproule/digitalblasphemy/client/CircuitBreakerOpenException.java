@@ -0,0 +1,14 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+    private final String host;
+
+    public CircuitBreakerOpenException(String host) {
+        super("Circuit breaker is open for " + host + ".");
+        this.host = host;
+    }
+
+    public String getHost() {
+        return host;
+    }
+}
@@ -3,35 +3,95 @@ package com.benjaminsproule.digitalblasphemy.client;
 import com.benjaminsproule.digitalblasphemy.client.model.*;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import static com.benjaminsproule.digitalblasphemy.client.Futures.cancelling;
+import static com.benjaminsproule.digitalblasphemy.client.Futures.complete;
+import static com.benjaminsproule.digitalblasphemy.client.Futures.compose;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Collections.emptyList;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toUnmodifiableMap;
 
-public class DigitalBlasphemyClient {
+public class DigitalBlasphemyClient implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DigitalBlasphemyClient.class);
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int DEFAULT_PREFETCH_PAGES = 2;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+    private static final Pattern UNSATISFIED_CONTENT_RANGE = Pattern.compile("bytes \\*/(\\d+)");
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final HttpClient client = HttpClient.newHttpClient();
+    private final Map<Class<?>, ObjectReader> objectReaders;
+    private final HttpClient client;
+    private final boolean ownsClient;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Duration requestTimeout;
+    private final Clock clock;
+    private final WallpaperCache wallpaperCache;
+    private final DownloadUrlCache downloadUrlCache;
+    private final RateLimiter rateLimiter;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+    private final Set<String> fileHosts = ConcurrentHashMap.newKeySet();
 
     private final String apiKey;
     private final URI accountInformationPath;
@@ -40,15 +100,55 @@ public class DigitalBlasphemyClient {
     private final URI downloadWallpaperPath;
 
     public DigitalBlasphemyClient(String apiKey) {
-        this(apiKey, "https://api.digitalblasphemy.com");
+        this(uncheckedApiKey(apiKey));
     }
 
-    DigitalBlasphemyClient(String apiKey, String baseUrl) {
-        this.apiKey = apiKey;
-        this.accountInformationPath = URI.create(baseUrl + "/v2/core/account");
-        this.wallpapersPath = URI.create(baseUrl + "/v2/core/wallpapers");
-        this.wallpaperPath = URI.create(baseUrl + "/v2/core/wallpaper/");
-        this.downloadWallpaperPath = URI.create(baseUrl + "/v2/core/download/wallpaper/");
+    private DigitalBlasphemyClient(Builder builder) {
+        this.apiKey = builder.apiKey;
+        this.objectReaders = Stream.of(
+                GetAccountInformationResponse.class,
+                GetWallpapersResponse.class,
+                GetWallpaperResponse.class,
+                DownloadWallpaperResponse.class,
+                ResponseError.class
+        ).collect(toUnmodifiableMap(identity(), builder.objectMapper::readerFor));
+        this.client = builder.httpClient != null ? builder.httpClient : builder.httpClientBuilder.build();
+        this.ownsClient = builder.httpClient == null;
+        this.executor = builder.executor;
+        this.ownedExecutor = builder.ownedExecutor;
+        this.requestTimeout = builder.requestTimeout;
+        this.clock = builder.clock;
+        this.wallpaperCache = builder.wallpaperCache;
+        this.downloadUrlCache = builder.downloadUrlCache;
+        this.rateLimiter = builder.rateLimiter;
+        this.retryPolicy = builder.retryPolicy;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.accountInformationPath = URI.create(builder.baseUrl + "/v2/core/account");
+        this.wallpapersPath = URI.create(builder.baseUrl + "/v2/core/wallpapers");
+        this.wallpaperPath = URI.create(builder.baseUrl + "/v2/core/wallpaper/");
+        this.downloadWallpaperPath = URI.create(builder.baseUrl + "/v2/core/download/wallpaper/");
+    }
+
+    public static DigitalBlasphemyClient.Builder builder() {
+        return new DigitalBlasphemyClient.Builder();
+    }
+
+    private static DigitalBlasphemyClient.Builder uncheckedApiKey(String apiKey) {
+        DigitalBlasphemyClient.Builder builder = builder();
+        builder.apiKey = apiKey;
+        return builder;
+    }
+
+    @Override
+    public void close() {
+        LOGGER.debug("Closing client");
+        if (ownsClient) {
+            client.close();
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
     }
 
     @NonNull
@@ -57,15 +157,104 @@ public class DigitalBlasphemyClient {
         HttpRequest.Builder request = HttpRequest.newBuilder()
                 .uri(accountInformationPath)
                 .GET();
-        return executeRequest(request, GetAccountInformationResponse.class);
+        return executeHedgedRequest(request, GetAccountInformationResponse.class);
+    }
+
+    @NonNull
+    public CompletableFuture<GetAccountInformationResponse> getAccountInformation(@NonNull Duration timeout) {
+        return withTimeout(timeout, this::getAccountInformation);
+    }
+
+    @NonNull
+    public GetAccountInformationResponse getAccountInformationSync() throws IOException, InterruptedException {
+        LOGGER.debug("Get account information");
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(accountInformationPath)
+                .GET();
+        return executeRequestSync(request, GetAccountInformationResponse.class);
     }
 
     public CompletableFuture<GetWallpapersResponse> getWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest) {
         LOGGER.debug("Get wallpapers: {}", getWallpapersRequest);
+        URI uri = getWallpapersUrl(getWallpapersRequest);
+        return inFlightRequests.execute(uri, () -> {
+            CompletableFuture<GetWallpapersResponse> response =
+                    executeHedgedRequest(HttpRequest.newBuilder().uri(uri).GET(), GetWallpapersResponse.class);
+            return cancelling(response.thenApplyAsync(getWallpapersResponse ->
+                    cacheWallpapers(getWallpapersRequest, getWallpapersResponse), executor), response);
+        });
+    }
+
+    public CompletableFuture<GetWallpapersResponse> getWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest,
+                                                                  @NonNull Duration timeout) {
+        return withTimeout(timeout, () -> getWallpapers(getWallpapersRequest));
+    }
+
+    public GetWallpapersResponse getWallpapersSync(@NonNull GetWallpapersRequest getWallpapersRequest)
+            throws IOException, InterruptedException {
+        LOGGER.debug("Get wallpapers: {}", getWallpapersRequest);
         HttpRequest.Builder request = HttpRequest.newBuilder()
                 .uri(getWallpapersUrl(getWallpapersRequest))
                 .GET();
-        return executeRequest(request, GetWallpapersResponse.class);
+        return cacheWallpapers(getWallpapersRequest, executeRequestSync(request, GetWallpapersResponse.class));
+    }
+
+    @NonNull
+    public CompletableFuture<List<Wallpaper>> getAllWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest,
+                                                               int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be greater than 0.");
+        }
+        LOGGER.debug("Get all wallpapers: {}", getWallpapersRequest);
+        return getAllWallpaperPages(getWallpapersRequest, concurrency)
+                .thenApplyAsync(pages -> pages.stream()
+                        .flatMap(DigitalBlasphemyClient::wallpapers)
+                        .toList(), executor);
+    }
+
+    @NonNull
+    CompletableFuture<List<GetWallpapersResponse>> getAllWallpaperPages(
+            @NonNull GetWallpapersRequest getWallpapersRequest,
+            int concurrency) {
+        return getWallpapers(getWallpapersRequest)
+                .thenComposeAsync(firstPage -> {
+                    List<GetWallpapersRequest> pageRequests = IntStream
+                            .rangeClosed(getWallpapersRequest.getPage() + 1, firstPage.dbCore().totalPages())
+                            .mapToObj(page -> getWallpapersRequest.toBuilder().page(page).build())
+                            .toList();
+                    LOGGER.debug("Fetching {} more pages of wallpapers", pageRequests.size());
+                    return new FanOut<>(pageRequests, this::getWallpapers, executor).execute(concurrency)
+                            .thenApplyAsync(pages -> Stream.concat(Stream.of(firstPage), pages.stream())
+                                    .toList(), executor);
+                }, executor);
+    }
+
+    @NonNull
+    public Stream<Wallpaper> streamWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest) {
+        return streamWallpapers(getWallpapersRequest, DEFAULT_PREFETCH_PAGES);
+    }
+
+    @NonNull
+    public Stream<Wallpaper> streamWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest, int prefetchPages) {
+        WallpaperIterator wallpaperIterator = new WallpaperIterator();
+        publishWallpapers(getWallpapersRequest, prefetchPages).subscribe(wallpaperIterator);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(wallpaperIterator, ORDERED | NONNULL), false)
+                .onClose(wallpaperIterator::close);
+    }
+
+    @NonNull
+    public Flow.Publisher<Wallpaper> publishWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest) {
+        return publishWallpapers(getWallpapersRequest, DEFAULT_PREFETCH_PAGES);
+    }
+
+    @NonNull
+    public Flow.Publisher<Wallpaper> publishWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest,
+                                                       int prefetchPages) {
+        if (prefetchPages < 1) {
+            throw new IllegalArgumentException("Prefetch pages must be greater than 0.");
+        }
+        LOGGER.debug("Publish wallpapers: {}", getWallpapersRequest);
+        return new WallpaperPublisher(this::getWallpapers, getWallpapersRequest, prefetchPages);
     }
 
     @NonNull
@@ -114,16 +303,130 @@ public class DigitalBlasphemyClient {
         return createUri(wallpapersPath, emptyList(), queryParams);
     }
 
+    @NonNull
+    static Stream<Wallpaper> wallpapers(@NonNull GetWallpapersResponse getWallpapersResponse) {
+        return getWallpapersResponse.wallpapers().stream()
+                .map(id -> getWallpapersResponse.dbCore().wallpapers().get(String.valueOf(id)))
+                .filter(Objects::nonNull);
+    }
+
     @Nullable
     public CompletableFuture<Wallpaper> getWallpaper(@NonNull GetWallpaperRequest getWallpaperRequest)
             throws ResponseException {
         LOGGER.debug("Get wallpaper: {}", getWallpaperRequest);
+        Wallpaper cachedWallpaper = cachedWallpaper(getWallpaperRequest);
+        if (cachedWallpaper != null) {
+            return CompletableFuture.completedFuture(cachedWallpaper);
+        }
+        return fetchWallpaper(getWallpaperRequest);
+    }
+
+    @Nullable
+    public CompletableFuture<Wallpaper> getWallpaper(@NonNull GetWallpaperRequest getWallpaperRequest,
+                                                     @NonNull Duration timeout) {
+        return withTimeout(timeout, () -> getWallpaper(getWallpaperRequest));
+    }
+
+    @NonNull
+    public CompletableFuture<GetWallpapersByIdResponse> getWallpapers(@NonNull Collection<Integer> wallpaperIds,
+                                                                      int concurrency) {
+        return getWallpapers(wallpaperIds,
+                wallpaperId -> GetWallpaperRequest.builder().wallpaperId(wallpaperId).build(), concurrency);
+    }
+
+    @NonNull
+    public CompletableFuture<GetWallpapersByIdResponse> getWallpapers(
+            @NonNull Collection<Integer> wallpaperIds,
+            @NonNull IntFunction<GetWallpaperRequest> getWallpaperRequest,
+            int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be greater than 0.");
+        }
+        LOGGER.debug("Get wallpapers by ID: {}", wallpaperIds);
+        Map<Integer, Wallpaper> wallpapers = new ConcurrentHashMap<>();
+        Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        Map<Integer, GetWallpaperRequest> uncachedRequests = new LinkedHashMap<>();
+        for (int wallpaperId : new LinkedHashSet<>(wallpaperIds)) {
+            GetWallpaperRequest request = getWallpaperRequest.apply(wallpaperId);
+            Wallpaper cachedWallpaper = cachedWallpaper(request);
+            if (cachedWallpaper != null) {
+                wallpapers.put(wallpaperId, cachedWallpaper);
+            } else {
+                uncachedRequests.put(wallpaperId, request);
+            }
+        }
+        return new FanOut<Integer, Void>(new ArrayList<>(uncachedRequests.keySet()), wallpaperId -> {
+            CompletableFuture<Wallpaper> wallpaper;
+            try {
+                wallpaper = fetchWallpaper(uncachedRequests.get(wallpaperId));
+            } catch (RuntimeException e) {
+                wallpaper = CompletableFuture.failedFuture(e);
+            }
+            return wallpaper.handle((value, throwable) -> {
+                if (throwable != null) {
+                    failures.put(wallpaperId,
+                            throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                } else if (value != null) {
+                    wallpapers.put(wallpaperId, value);
+                }
+                return null;
+            });
+        }, executor)
+                .execute(concurrency)
+                .thenApplyAsync(ignored ->
+                        new GetWallpapersByIdResponse(Map.copyOf(wallpapers), Map.copyOf(failures)), executor);
+    }
+
+    @NonNull
+    private CompletableFuture<Wallpaper> fetchWallpaper(@NonNull GetWallpaperRequest getWallpaperRequest) {
+        URI uri = getWallpaperUrl(getWallpaperRequest);
+        return inFlightRequests.execute(uri, () -> {
+            CompletableFuture<GetWallpaperResponse> response =
+                    executeHedgedRequest(HttpRequest.newBuilder().uri(uri).GET(), GetWallpaperResponse.class);
+            return cancelling(response.thenApplyAsync(getWallpaperResponse ->
+                    cacheWallpaper(getWallpaperRequest, getWallpaperResponse.wallpaper()), executor), response);
+        });
+    }
+
+    @Nullable
+    public Wallpaper getWallpaperSync(@NonNull GetWallpaperRequest getWallpaperRequest)
+            throws IOException, InterruptedException {
+        LOGGER.debug("Get wallpaper: {}", getWallpaperRequest);
+        Wallpaper cachedWallpaper = cachedWallpaper(getWallpaperRequest);
+        if (cachedWallpaper != null) {
+            return cachedWallpaper;
+        }
         HttpRequest.Builder request = HttpRequest.newBuilder()
                 .uri(getWallpaperUrl(getWallpaperRequest))
                 .GET();
+        return cacheWallpaper(getWallpaperRequest, executeRequestSync(request, GetWallpaperResponse.class).wallpaper());
+    }
 
-        return executeRequest(request, GetWallpaperResponse.class)
-                .thenApplyAsync(GetWallpaperResponse::wallpaper);
+    @Nullable
+    private Wallpaper cachedWallpaper(@NonNull GetWallpaperRequest getWallpaperRequest) {
+        if (wallpaperCache == null) {
+            return null;
+        }
+        Wallpaper cachedWallpaper = wallpaperCache.get(getWallpaperRequest);
+        LOGGER.debug("Wallpaper cache {}: {}", cachedWallpaper == null ? "miss" : "hit", getWallpaperRequest);
+        return cachedWallpaper;
+    }
+
+    @Nullable
+    private Wallpaper cacheWallpaper(@NonNull GetWallpaperRequest getWallpaperRequest, @Nullable Wallpaper wallpaper) {
+        if (wallpaperCache != null && wallpaper != null) {
+            wallpaperCache.put(getWallpaperRequest, wallpaper);
+        }
+        return wallpaper;
+    }
+
+    @NonNull
+    private GetWallpapersResponse cacheWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest,
+                                                  @NonNull GetWallpapersResponse getWallpapersResponse) {
+        if (wallpaperCache != null) {
+            wallpaperCache.putAll(getWallpapersRequest, getWallpapersResponse);
+        }
+        return getWallpapersResponse;
     }
 
     @NonNull
@@ -173,59 +476,631 @@ public class DigitalBlasphemyClient {
 
     public CompletableFuture<Void> downloadWallpaper(Path filename, DownloadWallpaperRequest downloadWallpaperRequest) {
         LOGGER.debug("Download wallpaper: {}", downloadWallpaperRequest);
-        HttpRequest.Builder request = HttpRequest.newBuilder()
-                .uri(downloadUrl(downloadWallpaperRequest))
-                .GET();
-        LOGGER.debug("Get wallpaper download URL");
-        return executeRequest(request, DownloadWallpaperResponse.class)
-                .thenComposeAsync(downloadWallpaperResponse -> {
-                    LOGGER.debug("Downloading wallpaper from {}", downloadWallpaperResponse.download().url());
-                    HttpRequest.Builder fileRequest = HttpRequest.newBuilder()
-                            .uri(URI.create(downloadWallpaperResponse.download().url()))
-                            .GET();
-                    return executeRequest(fileRequest)
-                            .thenAcceptAsync(body -> {
-                                LOGGER.debug("Writing response to {}", filename);
-                                try {
-                                    Files.write(filename, body);
-                                } catch (IOException e) {
-                                    throw new RuntimeException(e);
+        Map.Entry<Path, URI> key = Map.entry(filename.toAbsolutePath().normalize(),
+                downloadUrl(downloadWallpaperRequest));
+        return inFlightRequests.execute(key, () -> compose(getDownload(downloadWallpaperRequest),
+                download -> downloadFile(filename, downloadWallpaperRequest, download), executor));
+    }
+
+    public CompletableFuture<Void> downloadWallpaper(Path filename,
+                                                     DownloadWallpaperRequest downloadWallpaperRequest,
+                                                     @NonNull Duration timeout) {
+        return withTimeout(timeout, () -> downloadWallpaper(filename, downloadWallpaperRequest));
+    }
+
+    public void downloadWallpaperSync(Path filename, DownloadWallpaperRequest downloadWallpaperRequest)
+            throws IOException, InterruptedException {
+        LOGGER.debug("Download wallpaper: {}", downloadWallpaperRequest);
+        checkFileHosts();
+        DownloadWallpaperResponse.Download download = cachedDownload(downloadWallpaperRequest);
+        if (download == null) {
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .uri(downloadUrl(downloadWallpaperRequest))
+                    .GET();
+            download = resolveDownload(downloadWallpaperRequest,
+                    executeRequestSync(request, DownloadWallpaperResponse.class).download());
+        }
+        Path temporaryFile = temporaryFile(filename);
+        try {
+            Path file = sendRequestSync(fileRequest(download), body -> {
+                Files.copy(body, temporaryFile);
+                return temporaryFile;
+            });
+            Files.move(file, filename, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException | ResponseException e) {
+            deleteFile(temporaryFile);
+            invalidateDownload(downloadWallpaperRequest);
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Void> downloadWallpaperResumable(Path filename,
+                                                              DownloadWallpaperRequest downloadWallpaperRequest,
+                                                              int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be greater than 0.");
+        }
+        LOGGER.debug("Resumable download wallpaper: {}", downloadWallpaperRequest);
+        Path partFile = filename.resolveSibling(filename.getFileName() + ".part");
+        return getDownload(downloadWallpaperRequest)
+                .thenComposeAsync(download ->
+                        resumeDownload(partFile, downloadWallpaperRequest, download, maxAttempts), executor)
+                .thenAcceptAsync(file -> moveFile(file, filename), executor);
+    }
+
+    public CompletableFuture<Void> downloadWallpaperSegmented(Path filename,
+                                                              DownloadWallpaperRequest downloadWallpaperRequest,
+                                                              int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("Segments must be greater than 0.");
+        }
+        LOGGER.debug("Segmented download wallpaper: {}", downloadWallpaperRequest);
+        return getDownload(downloadWallpaperRequest)
+                .thenComposeAsync(download -> {
+                    Path temporaryFile = temporaryFile(filename);
+                    HttpRequest.Builder probeRequest = fileRequest(download).header("Range", "bytes=0-0");
+                    return sendRequest(probeRequest, responseInfo -> responseInfo.statusCode() == 206
+                            ? HttpResponse.BodySubscribers.replacing(temporaryFile)
+                            : HttpResponse.BodySubscribers.ofFile(temporaryFile))
+                            .thenComposeAsync(response -> {
+                                if (response.statusCode() != 206) {
+                                    LOGGER.debug("Ranges are not supported, downloaded {} in a single stream",
+                                            filename);
+                                    return CompletableFuture.completedFuture(response.body());
+                                }
+                                ContentRange contentRange = contentRange(response.headers());
+                                if (contentRange == null || contentRange.start() != 0 || contentRange.length() < 1) {
+                                    LOGGER.debug("Content length is unknown, downloading {} in a single stream",
+                                            filename);
+                                    return executeRequest(fileRequest(download),
+                                            HttpResponse.BodyHandlers.ofFile(temporaryFile));
+                                }
+                                return downloadSegments(download, temporaryFile, contentRange.length(), segments);
+                            }, executor)
+                            .thenAcceptAsync(file -> moveFile(file, filename), executor)
+                            .whenComplete((ignored, throwable) -> {
+                                if (throwable != null) {
+                                    deleteFile(temporaryFile);
                                 }
                             });
-                });
+                }, executor);
     }
 
-    private <R> CompletableFuture<R> executeRequest(HttpRequest.Builder requestBuilder, Class<R> clazz) {
-        return executeRequest(requestBuilder)
-                .thenApplyAsync(body -> {
-                    try {
-                        return objectMapper.readValue(body, clazz);
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
+    private CompletableFuture<Path> downloadSegments(DownloadWallpaperResponse.Download download,
+                                                     Path file,
+                                                     long contentLength,
+                                                     int segments) {
+        try (FileChannel channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(1), contentLength - 1);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long segmentLength = (contentLength + segments - 1) / segments;
+        LOGGER.debug("Downloading {} bytes to {} in segments of {} bytes", contentLength, file, segmentLength);
+        CompletableFuture<Path> result = new CompletableFuture<>();
+        List<CompletableFuture<Void>> segmentDownloads = new ArrayList<>();
+        for (long start = 0; start < contentLength; start += segmentLength) {
+            long position = start;
+            HttpRequest.Builder segmentRequest = fileRequest(download)
+                    .header("Range", "bytes=" + start + "-" + (Math.min(start + segmentLength, contentLength) - 1));
+            CompletableFuture<Void> segmentDownload = executeRequest(segmentRequest, responseInfo ->
+                    new FileChannelBodySubscriber(() -> {
+                        checkContentRange(responseInfo, position);
+                        return FileChannel.open(file, WRITE);
+                    }, position));
+            cancelling(result, segmentDownload);
+            segmentDownloads.add(segmentDownload);
+        }
+        AtomicInteger remaining = new AtomicInteger(segmentDownloads.size());
+        for (CompletableFuture<Void> segmentDownload : segmentDownloads) {
+            segmentDownload.whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    complete(result, null, throwable);
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.complete(file);
+                }
+            });
+        }
+        return result;
     }
 
-    private CompletableFuture<byte[]> executeRequest(HttpRequest.Builder requestBuilder) {
-        HttpRequest request = requestBuilder
-                .header("Authorization", "Bearer " + apiKey)
-                .build();
-        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
-                .thenApplyAsync(response -> {
-                    if (response.statusCode() == 200) {
-                        return response.body();
+    private static void checkContentRange(HttpResponse.ResponseInfo responseInfo, long position) throws IOException {
+        ContentRange contentRange = contentRange(responseInfo.headers());
+        if (responseInfo.statusCode() != 206 || contentRange == null || contentRange.start() != position) {
+            throw new IOException("Expected a partial response starting at byte %d but received %d with %s"
+                    .formatted(position, responseInfo.statusCode(),
+                            responseInfo.headers().firstValue("Content-Range").orElse("no Content-Range")));
+        }
+    }
+
+    @Nullable
+    private static ContentRange contentRange(HttpHeaders headers) {
+        Matcher matcher = headers.firstValue("Content-Range")
+                .map(CONTENT_RANGE::matcher)
+                .filter(Matcher::matches)
+                .orElse(null);
+        if (matcher == null) {
+            return null;
+        }
+        try {
+            long length = matcher.group(3).equals("*") ? -1 : Long.parseLong(matcher.group(3));
+            return new ContentRange(Long.parseLong(matcher.group(1)), length);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private CompletableFuture<Path> resumeDownload(Path partFile,
+                                                   DownloadWallpaperRequest downloadWallpaperRequest,
+                                                   DownloadWallpaperResponse.Download download,
+                                                   int attemptsRemaining) {
+        long offset = partFile.toFile().length();
+        HttpRequest.Builder fileRequest = fileRequest(download);
+        if (offset > 0) {
+            LOGGER.debug("Resuming download to {} from byte {}", partFile, offset);
+            fileRequest.header("Range", "bytes=" + offset + "-");
+        }
+        return sendOnce(request(fileRequest),
+                statusCode -> isSuccessful(statusCode) || statusCode == 416 && offset > 0,
+                responseInfo -> resumeSubscriber(partFile, offset, responseInfo))
+                .thenApplyAsync(response -> isComplete(partFile, offset, response), executor)
+                .handleAsync((complete, throwable) -> {
+                    if (throwable == null) {
+                        return complete
+                                ? CompletableFuture.completedFuture(partFile)
+                                : resumeDownload(partFile, downloadWallpaperRequest, download, attemptsRemaining);
+                    }
+                    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                    if (!RetryPolicy.isRetryable(cause)) {
+                        if (cause instanceof ResponseException) {
+                            deleteFile(partFile);
+                        }
+                        return CompletableFuture.<Path>failedFuture(cause);
                     }
-                    String body = new String(response.body(), StandardCharsets.UTF_8);
-                    if (response.statusCode() == 404) {
-                        throw new ResponseException(404, "Not Found", List.of(body));
+                    if (attemptsRemaining <= 1) {
+                        return CompletableFuture.<Path>failedFuture(cause);
                     }
+                    LOGGER.debug("Download to {} failed, {} attempts remaining", partFile, attemptsRemaining - 1);
+                    CompletableFuture<DownloadWallpaperResponse.Download> nextDownload = isExpired(download)
+                            ? getDownload(downloadWallpaperRequest)
+                            : CompletableFuture.completedFuture(download);
+                    return nextDownload.thenComposeAsync(next ->
+                            resumeDownload(partFile, downloadWallpaperRequest, next, attemptsRemaining - 1), executor);
+                }, executor)
+                .thenCompose(identity());
+    }
+
+    private static HttpResponse.BodySubscriber<Long> resumeSubscriber(Path partFile,
+                                                                      long offset,
+                                                                      HttpResponse.ResponseInfo responseInfo) {
+        return switch (responseInfo.statusCode()) {
+            case 206 -> {
+                ContentRange contentRange = contentRange(responseInfo.headers());
+                yield HttpResponse.BodySubscribers.mapping(new FileChannelBodySubscriber(() -> {
+                    checkContentRange(responseInfo, offset);
+                    return FileChannel.open(partFile, CREATE, WRITE);
+                }, offset), ignored -> contentRange == null ? -1 : contentRange.length());
+            }
+            case 416 -> HttpResponse.BodySubscribers.replacing(unsatisfiedRangeLength(responseInfo.headers()));
+            default -> HttpResponse.BodySubscribers.mapping(new FileChannelBodySubscriber(
+                    () -> FileChannel.open(partFile, CREATE, WRITE, TRUNCATE_EXISTING), 0), ignored -> -1L);
+        };
+    }
+
+    private static boolean isComplete(Path partFile, long offset, HttpResponse<Long> response) {
+        long length = response.body();
+        if (response.statusCode() == 416) {
+            if (length == offset) {
+                LOGGER.debug("Part file {} already holds all {} bytes", partFile, length);
+                return true;
+            }
+            LOGGER.debug("Part file {} has {} bytes but the resource has {}, restarting", partFile, offset, length);
+            deleteFile(partFile);
+            return false;
+        }
+        long partLength = partFile.toFile().length();
+        if (length >= 0 && partLength != length) {
+            throw new CompletionException(new IOException("Expected %s to hold %d bytes but it holds %d"
+                    .formatted(partFile, length, partLength)));
+        }
+        return true;
+    }
+
+    private static long unsatisfiedRangeLength(HttpHeaders headers) {
+        return headers.firstValue("Content-Range")
+                .map(UNSATISFIED_CONTENT_RANGE::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> {
                     try {
-                        ResponseError responseError = objectMapper.readValue(body, ResponseError.class);
-                        throw new ResponseException(responseError);
-                    } catch (JsonProcessingException exception) {
-                        throw new ResponseException(0, "Unable to parse the body as JSON ErrorResponse. [" + body + "]");
+                        return Long.parseLong(matcher.group(1));
+                    } catch (NumberFormatException e) {
+                        return -1L;
                     }
-                });
+                })
+                .orElse(-1L);
+    }
+
+    CompletableFuture<DownloadWallpaperResponse.Download> getDownload(
+            DownloadWallpaperRequest downloadWallpaperRequest) {
+        URI uri = downloadUrl(downloadWallpaperRequest);
+        LOGGER.debug("Get wallpaper download URL");
+        DownloadWallpaperResponse.Download cachedDownload = cachedDownload(downloadWallpaperRequest);
+        if (cachedDownload != null) {
+            return CompletableFuture.completedFuture(cachedDownload);
+        }
+        return inFlightRequests.execute(uri, () -> {
+            checkFileHosts();
+            CompletableFuture<DownloadWallpaperResponse> response =
+                    executeRequest(HttpRequest.newBuilder().uri(uri).GET(), DownloadWallpaperResponse.class);
+            return cancelling(response.thenApplyAsync(downloadWallpaperResponse ->
+                    resolveDownload(downloadWallpaperRequest, downloadWallpaperResponse.download()), executor), response);
+        });
+    }
+
+    CompletableFuture<Void> downloadFile(Path filename,
+                                         DownloadWallpaperRequest downloadWallpaperRequest,
+                                         DownloadWallpaperResponse.Download download) {
+        Path temporaryFile = temporaryFile(filename);
+        CompletableFuture<Path> file =
+                executeRequest(fileRequest(download), HttpResponse.BodyHandlers.ofFile(temporaryFile));
+        CompletableFuture<Void> result = file.thenAcceptAsync(path -> moveFile(path, filename), executor);
+        result.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                deleteFile(temporaryFile);
+                invalidateDownload(downloadWallpaperRequest);
+            }
+        });
+        return cancelling(result, file);
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    @Nullable
+    private DownloadWallpaperResponse.Download cachedDownload(
+            @NonNull DownloadWallpaperRequest downloadWallpaperRequest) {
+        if (downloadUrlCache == null) {
+            return null;
+        }
+        DownloadWallpaperResponse.Download cachedDownload = downloadUrlCache.get(downloadWallpaperRequest);
+        LOGGER.debug("Download URL cache {}: {}", cachedDownload == null ? "miss" : "hit", downloadWallpaperRequest);
+        return cachedDownload;
+    }
+
+    @NonNull
+    private DownloadWallpaperResponse.Download resolveDownload(
+            @NonNull DownloadWallpaperRequest downloadWallpaperRequest,
+            @NonNull DownloadWallpaperResponse.Download download) {
+        fileHosts.add(URI.create(download.url()).getAuthority());
+        return cacheDownload(downloadWallpaperRequest, download);
+    }
+
+    @NonNull
+    private DownloadWallpaperResponse.Download cacheDownload(
+            @NonNull DownloadWallpaperRequest downloadWallpaperRequest,
+            @NonNull DownloadWallpaperResponse.Download download) {
+        if (downloadUrlCache != null) {
+            downloadUrlCache.put(downloadWallpaperRequest, download);
+        }
+        return download;
+    }
+
+    private void invalidateDownload(@NonNull DownloadWallpaperRequest downloadWallpaperRequest) {
+        if (downloadUrlCache != null) {
+            downloadUrlCache.invalidate(downloadWallpaperRequest);
+        }
+    }
+
+    @NonNull
+    private static <T> CompletableFuture<T> withTimeout(@NonNull Duration timeout,
+                                                        @NonNull Supplier<CompletableFuture<T>> call) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be greater than 0.");
+        }
+        return call.get().orTimeout(timeout.toNanos(), NANOSECONDS);
+    }
+
+    private void checkFileHosts() {
+        if (circuitBreaker == null) {
+            return;
+        }
+        String openHost = null;
+        for (String host : fileHosts) {
+            if (!circuitBreaker.isOpen(host)) {
+                return;
+            }
+            openHost = host;
+        }
+        if (openHost != null) {
+            throw new CircuitBreakerOpenException(openHost);
+        }
+    }
+
+    private boolean isExpired(DownloadWallpaperResponse.Download download) {
+        return download.expiration() <= clock.instant().getEpochSecond();
+    }
+
+    @NonNull
+    private HttpRequest.Builder fileRequest(DownloadWallpaperResponse.Download download) {
+        LOGGER.debug("Downloading wallpaper from {}", download.url());
+        return HttpRequest.newBuilder()
+                .uri(URI.create(download.url()))
+                .GET();
+    }
+
+    @NonNull
+    private static Path temporaryFile(@NonNull Path filename) {
+        return filename.resolveSibling(filename.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    }
+
+    private static void moveFile(@NonNull Path source, @NonNull Path target) {
+        LOGGER.debug("Moving {} to {}", source, target);
+        try {
+            Files.move(source, target, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void deleteFile(@NonNull Path file) {
+        boolean deleted = file.toFile().delete();
+        LOGGER.debug("Deleted file {}: {}", file, deleted);
+    }
+
+    private <R> CompletableFuture<R> executeHedgedRequest(HttpRequest.Builder requestBuilder, Class<R> clazz) {
+        if (hedgingPolicy == null) {
+            return executeRequest(requestBuilder, clazz);
+        }
+        hedgingPolicy.onRequest();
+        CompletableFuture<R> result = new CompletableFuture<>();
+        List<CompletableFuture<R>> attempts = new ArrayList<>(2);
+        BiConsumer<R, Throwable> completeResult = (value, throwable) -> {
+            synchronized (attempts) {
+                if (throwable == null) {
+                    result.complete(value);
+                } else if (attempts.stream().allMatch(CompletableFuture::isDone)) {
+                    result.completeExceptionally(throwable);
+                }
+            }
+        };
+        result.whenComplete((value, throwable) -> {
+            synchronized (attempts) {
+                attempts.forEach(attempt -> attempt.cancel(true));
+            }
+        });
+        CompletableFuture<R> primary = executeTimedRequest(requestBuilder, clazz);
+        synchronized (attempts) {
+            attempts.add(primary);
+        }
+        primary.whenComplete(completeResult);
+        Duration hedgeDelay = hedgingPolicy.hedgeDelay();
+        CompletableFuture.delayedExecutor(hedgeDelay.toNanos(), NANOSECONDS, executor).execute(() -> {
+            CompletableFuture<R> hedge;
+            synchronized (attempts) {
+                if (result.isDone() || !hedgingPolicy.tryHedge()) {
+                    return;
+                }
+                LOGGER.debug("No response after {}, sending hedged request", hedgeDelay);
+                hedge = executeTimedRequest(requestBuilder, clazz);
+                attempts.add(hedge);
+            }
+            hedge.whenComplete(completeResult);
+        });
+        return result;
+    }
+
+    private <R> CompletableFuture<R> executeTimedRequest(HttpRequest.Builder requestBuilder, Class<R> clazz) {
+        long start = System.nanoTime();
+        CompletableFuture<R> response = executeRequest(requestBuilder, clazz);
+        response.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                hedgingPolicy.recordLatency(System.nanoTime() - start);
+            }
+        });
+        return response;
+    }
+
+    private <R> CompletableFuture<R> executeRequest(HttpRequest.Builder requestBuilder, Class<R> clazz) {
+        CompletableFuture<JsonBodyHandler.JsonBody<R>> response =
+                executeRequest(requestBuilder, new JsonBodyHandler<R>(objectReaders.get(clazz)));
+        CompletableFuture<R> result = cancelling(response.thenApplyAsync(Supplier::get, executor), response);
+        result.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                response.thenAccept(JsonBodyHandler.JsonBody::abort);
+            }
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<T> executeRequest(HttpRequest.Builder requestBuilder,
+                                                    HttpResponse.BodyHandler<T> bodyHandler) {
+        CompletableFuture<HttpResponse<T>> response = sendRequest(requestBuilder, bodyHandler);
+        return cancelling(response.thenApplyAsync(HttpResponse::body, executor), response);
+    }
+
+    private <R> R executeRequestSync(HttpRequest.Builder requestBuilder, Class<R> clazz)
+            throws IOException, InterruptedException {
+        return sendRequestSync(requestBuilder, body -> objectReaders.get(clazz).readValue(body));
+    }
+
+    private <T> T sendRequestSync(HttpRequest.Builder requestBuilder, BodyReader<T> bodyReader)
+            throws IOException, InterruptedException {
+        HttpRequest request = request(requestBuilder);
+        if (retryPolicy != null) {
+            retryPolicy.onRequest();
+        }
+        try (InputStream body = sendWithRetriesSync(request).body()) {
+            return bodyReader.read(body);
+        }
+    }
+
+    private HttpResponse<InputStream> sendWithRetriesSync(HttpRequest request)
+            throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return sendOnceSync(request);
+            } catch (IOException | ResponseException e) {
+                Duration retryDelay = retryPolicy == null ? null : retryPolicy.retryDelay(attempt, e);
+                if (retryDelay == null) {
+                    throw e;
+                }
+                LOGGER.debug("Attempt {} of {} failed, retrying in {}", attempt, request.uri(), retryDelay, e);
+                NANOSECONDS.sleep(retryDelay.toNanos());
+            }
+        }
+    }
+
+    private HttpResponse<InputStream> sendOnceSync(HttpRequest request) throws IOException, InterruptedException {
+        String host = request.uri().getAuthority();
+        if (circuitBreaker == null) {
+            return exchangeSync(request);
+        }
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire(host);
+        if (permit == null) {
+            throw new CircuitBreakerOpenException(host);
+        }
+        try {
+            HttpResponse<InputStream> response = exchangeSync(request);
+            circuitBreaker.onComplete(permit, null);
+            return response;
+        } catch (IOException | ResponseException e) {
+            circuitBreaker.onComplete(permit, e);
+            throw e;
+        } catch (InterruptedException | RuntimeException e) {
+            circuitBreaker.onCancel(permit);
+            throw e;
+        }
+    }
+
+    private HttpResponse<InputStream> exchangeSync(HttpRequest request) throws IOException, InterruptedException {
+        if (rateLimiter != null) {
+            NANOSECONDS.sleep(rateLimiter.reserve());
+        }
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        recordResponse(response.statusCode(), response.headers());
+        if (response.statusCode() != 200) {
+            byte[] responseBody;
+            try (InputStream body = response.body()) {
+                responseBody = body.readAllBytes();
+            }
+            throw responseException(response.statusCode(), responseBody);
+        }
+        return response;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendRequest(HttpRequest.Builder requestBuilder,
+                                                               HttpResponse.BodyHandler<T> bodyHandler) {
+        HttpRequest request = request(requestBuilder);
+        if (retryPolicy == null) {
+            return sendOnce(request, bodyHandler);
+        }
+        retryPolicy.onRequest();
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        sendWithRetries(request, bodyHandler, 1, result);
+        return result;
+    }
+
+    private <T> void sendWithRetries(HttpRequest request,
+                                     HttpResponse.BodyHandler<T> bodyHandler,
+                                     int attempt,
+                                     CompletableFuture<HttpResponse<T>> result) {
+        CompletableFuture<HttpResponse<T>> response = sendOnce(request, bodyHandler);
+        cancelling(result, response);
+        response.whenCompleteAsync((value, throwable) -> {
+            Duration retryDelay = throwable == null ? null : retryPolicy.retryDelay(attempt, throwable);
+            if (retryDelay == null) {
+                complete(result, value, throwable);
+                return;
+            }
+            LOGGER.debug("Attempt {} of {} failed, retrying in {}", attempt, request.uri(), retryDelay, throwable);
+            CompletableFuture<Void> nextAttempt = CompletableFuture.runAsync(
+                    () -> sendWithRetries(request, bodyHandler, attempt + 1, result),
+                    CompletableFuture.delayedExecutor(retryDelay.toNanos(), NANOSECONDS, executor));
+            cancelling(result, nextAttempt);
+        }, executor);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendOnce(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> bodyHandler) {
+        return sendOnce(request, DigitalBlasphemyClient::isSuccessful, bodyHandler);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendOnce(HttpRequest request,
+                                                            IntPredicate handledStatus,
+                                                            HttpResponse.BodyHandler<T> bodyHandler) {
+        String host = request.uri().getAuthority();
+        if (circuitBreaker == null) {
+            return exchange(request, handledStatus, bodyHandler);
+        }
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire(host);
+        if (permit == null) {
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException(host));
+        }
+        CompletableFuture<HttpResponse<T>> response = exchange(request, handledStatus, bodyHandler);
+        response.whenComplete((value, throwable) -> {
+            if (response.isCancelled()) {
+                circuitBreaker.onCancel(permit);
+            } else {
+                circuitBreaker.onComplete(permit, throwable);
+            }
+        });
+        return response;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> exchange(HttpRequest request,
+                                                            IntPredicate handledStatus,
+                                                            HttpResponse.BodyHandler<T> bodyHandler) {
+        CompletableFuture<Void> permit = rateLimiter == null
+                ? CompletableFuture.completedFuture(null)
+                : rateLimiter.acquire(executor);
+        return compose(permit, ignored -> client.sendAsync(request, responseInfo -> {
+            recordResponse(responseInfo.statusCode(), responseInfo.headers());
+            if (handledStatus.test(responseInfo.statusCode())) {
+                return bodyHandler.apply(responseInfo);
+            }
+            return HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofByteArray(),
+                    body -> {
+                        throw responseException(responseInfo.statusCode(), body);
+                    }
+            );
+        }), executor);
+    }
+
+    private static boolean isSuccessful(int statusCode) {
+        return statusCode == 200 || statusCode == 206;
+    }
+
+    private void recordResponse(int statusCode, HttpHeaders headers) {
+        if (rateLimiter != null) {
+            rateLimiter.onResponse(statusCode, headers.firstValue("Retry-After"));
+        }
+    }
+
+    @NonNull
+    private HttpRequest request(HttpRequest.Builder requestBuilder) {
+        if (requestTimeout != null) {
+            requestBuilder.timeout(requestTimeout);
+        }
+        return requestBuilder
+                .header("Authorization", "Bearer " + apiKey)
+                .build();
+    }
+
+    @NonNull
+    private ResponseException responseException(int statusCode, byte[] responseBody) {
+        String body = new String(responseBody, StandardCharsets.UTF_8);
+        if (statusCode == 404) {
+            return new ResponseException(404, "Not Found", List.of(body));
+        }
+        try {
+            ResponseError responseError = objectReaders.get(ResponseError.class).readValue(body);
+            return new ResponseException(statusCode, responseError);
+        } catch (JsonProcessingException exception) {
+            return new ResponseException(statusCode, 0,
+                    "Unable to parse the body as JSON ErrorResponse. [" + body + "]", null);
+        }
     }
 
     @NonNull
@@ -257,4 +1132,142 @@ public class DigitalBlasphemyClient {
 
         return URI.create(baseUri.getScheme() + "://" + baseUri.getAuthority() + path + query);
     }
+
+    private record ContentRange(long start, long length) {
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    public static class Builder {
+        private final HttpClient.Builder httpClientBuilder = HttpClient.newBuilder();
+        private boolean httpClientConfigured;
+        private String apiKey;
+        private String baseUrl = "https://api.digitalblasphemy.com";
+        private HttpClient httpClient;
+        private Executor executor = ForkJoinPool.commonPool();
+        private ExecutorService ownedExecutor;
+        private Duration requestTimeout;
+        private ObjectMapper objectMapper = OBJECT_MAPPER;
+        private Clock clock = Clock.systemUTC();
+        private WallpaperCache wallpaperCache;
+        private DownloadUrlCache downloadUrlCache;
+        private RateLimiter rateLimiter;
+        private RetryPolicy retryPolicy;
+        private CircuitBreaker circuitBreaker;
+        private HedgingPolicy hedgingPolicy;
+
+        private Builder() {
+        }
+
+        public DigitalBlasphemyClient.Builder apiKey(@NonNull String apiKey) {
+            if (apiKey.isBlank()) {
+                throw new IllegalArgumentException("API key must not be an empty or blank string.");
+            }
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        DigitalBlasphemyClient.Builder baseUrl(@NonNull String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder httpClient(@NonNull HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder version(@NonNull HttpClient.Version version) {
+            this.httpClientBuilder.version(version);
+            this.httpClientConfigured = true;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder connectTimeout(@NonNull Duration connectTimeout) {
+            this.httpClientBuilder.connectTimeout(connectTimeout);
+            this.httpClientConfigured = true;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder httpExecutor(@NonNull Executor httpExecutor) {
+            this.httpClientBuilder.executor(httpExecutor);
+            this.httpClientConfigured = true;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder executor(@NonNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder virtualThreads() {
+            if (this.ownedExecutor != null) {
+                this.ownedExecutor.shutdown();
+            }
+            this.ownedExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("digital-blasphemy-", 0).factory());
+            return executor(ownedExecutor).httpExecutor(ownedExecutor);
+        }
+
+        public DigitalBlasphemyClient.Builder requestTimeout(@NonNull Duration requestTimeout) {
+            if (requestTimeout.isNegative() || requestTimeout.isZero()) {
+                throw new IllegalArgumentException("Request timeout must be greater than 0.");
+            }
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder objectMapper(@NonNull ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder wallpaperCache(@NonNull WallpaperCache wallpaperCache) {
+            this.wallpaperCache = wallpaperCache;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder downloadUrlCache(@NonNull DownloadUrlCache downloadUrlCache) {
+            this.downloadUrlCache = downloadUrlCache;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder rateLimiter(@NonNull RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder retryPolicy(@NonNull RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder circuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public DigitalBlasphemyClient.Builder hedgingPolicy(@NonNull HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        DigitalBlasphemyClient.Builder clock(@NonNull Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public DigitalBlasphemyClient build() {
+            if (this.apiKey == null) {
+                throw new IllegalStateException("API key must be provided.");
+            }
+            if (this.httpClient != null && this.httpClientConfigured) {
+                throw new IllegalStateException("HTTP client settings cannot be combined with a provided HTTP client.");
+            }
+            return new DigitalBlasphemyClient(this);
+        }
+    }
 }
@@ -0,0 +1,265 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperResponse;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import static com.benjaminsproule.digitalblasphemy.client.Futures.cancelling;
+import static com.benjaminsproule.digitalblasphemy.client.Futures.complete;
+
+public final class DownloadManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadManager.class);
+    private static final Comparator<Job> JOB_ORDER = Comparator.<Job, Priority>comparing(job -> job.priority)
+            .thenComparingLong(job -> job.sequence);
+
+    private final DigitalBlasphemyClient client;
+    private final int maxConcurrentDownloads;
+    private final int maxConcurrentDownloadsPerHost;
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+    private final Queue<Job> queued = new PriorityQueue<>(JOB_ORDER);
+    private final Map<String, Host> hosts = new HashMap<>();
+    private final Map<Path, Job> pending = new HashMap<>();
+    private long sequence;
+    private int running;
+    private long completed;
+    private long failed;
+
+    private DownloadManager(Builder builder) {
+        this.client = builder.client;
+        this.maxConcurrentDownloads = builder.maxConcurrentDownloads;
+        this.maxConcurrentDownloadsPerHost = builder.maxConcurrentDownloadsPerHost;
+    }
+
+    public static DownloadManager.Builder builder() {
+        return new DownloadManager.Builder();
+    }
+
+    @NonNull
+    public CompletableFuture<Void> submit(@NonNull Path filename,
+                                          @NonNull DownloadWallpaperRequest downloadWallpaperRequest,
+                                          @NonNull Priority priority) {
+        Path target = filename.toAbsolutePath().normalize();
+        CompletableFuture<Void> result = inFlightRequests.execute(target,
+                () -> enqueue(new Job(target, downloadWallpaperRequest, priority)));
+        promote(target, priority);
+        return result;
+    }
+
+    @NonNull
+    public synchronized Progress progress() {
+        int waiting = hosts.values().stream().mapToInt(host -> host.waiting.size()).sum();
+        return new Progress(queued.size() + waiting, running, completed, failed);
+    }
+
+    synchronized int activeHosts() {
+        return hosts.size();
+    }
+
+    private synchronized CompletableFuture<Void> enqueue(Job job) {
+        LOGGER.debug("Queueing {} download of {}", job.priority, job.filename);
+        job.sequence = sequence++;
+        queued.add(job);
+        pending.put(job.filename, job);
+        job.result.whenComplete((ignored, throwable) -> dequeue(job));
+        dispatch();
+        return job.result;
+    }
+
+    private synchronized void promote(Path filename, Priority priority) {
+        Job job = pending.get(filename);
+        if (job == null || priority.compareTo(job.priority) >= 0) {
+            return;
+        }
+        Queue<Job> queue = job.host != null ? job.host.waiting : queued;
+        if (queue.remove(job)) {
+            LOGGER.debug("Promoting download of {} to {}", filename, priority);
+            job.priority = priority;
+            queue.add(job);
+        }
+    }
+
+    private synchronized void dequeue(Job job) {
+        pending.remove(job.filename, job);
+        if (queued.remove(job) || job.host != null && job.host.waiting.remove(job)) {
+            LOGGER.debug("Cancelled queued download of {}", job.filename);
+            failed++;
+            release(job.host);
+        }
+    }
+
+    private synchronized void resolved(Job job, DownloadWallpaperResponse.Download download) {
+        if (job.result.isDone()) {
+            LOGGER.debug("Cancelled download of {}", job.filename);
+            running--;
+            failed++;
+            dispatch();
+            return;
+        }
+        String host = URI.create(download.url()).getAuthority();
+        job.download = download;
+        job.host = hosts.computeIfAbsent(host, Host::new);
+        if (job.host.running < maxConcurrentDownloadsPerHost) {
+            start(job);
+            return;
+        }
+        LOGGER.debug("Waiting for a download slot on {} for {}", host, job.filename);
+        running--;
+        job.host.waiting.add(job);
+        dispatch();
+    }
+
+    private synchronized void finish(Job job, Throwable throwable) {
+        running--;
+        if (job.host != null) {
+            job.host.running--;
+            release(job.host);
+        }
+        if (throwable == null) {
+            completed++;
+        } else {
+            LOGGER.debug("Download of {} failed", job.filename, throwable);
+            failed++;
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (running < maxConcurrentDownloads) {
+            Host host = readyHost();
+            Job next = queued.peek();
+            if (host != null && (next == null || JOB_ORDER.compare(host.waiting.peek(), next) <= 0)) {
+                start(host.waiting.remove());
+            } else if (next != null) {
+                resolve(queued.remove());
+            } else {
+                return;
+            }
+            running++;
+        }
+    }
+
+    private void release(Host host) {
+        if (host != null && host.running == 0 && host.waiting.isEmpty()) {
+            hosts.remove(host.name, host);
+        }
+    }
+
+    private Host readyHost() {
+        Host ready = null;
+        for (Host host : hosts.values()) {
+            if (host.running < maxConcurrentDownloadsPerHost && !host.waiting.isEmpty()
+                    && (ready == null || JOB_ORDER.compare(host.waiting.peek(), ready.waiting.peek()) < 0)) {
+                ready = host;
+            }
+        }
+        return ready;
+    }
+
+    private void resolve(Job job) {
+        LOGGER.debug("Resolving download of {}", job.filename);
+        CompletableFuture<DownloadWallpaperResponse.Download> download = client.getDownload(job.request);
+        cancelling(job.result, download);
+        download.whenCompleteAsync((resolved, throwable) -> {
+            if (throwable == null) {
+                resolved(job, resolved);
+                return;
+            }
+            finish(job, throwable);
+            complete(job.result, null, throwable);
+        }, client.executor());
+    }
+
+    private void start(Job job) {
+        job.host.running++;
+        LOGGER.debug("Starting download of {}", job.filename);
+        CompletableFuture<Void> file = client.downloadFile(job.filename, job.request, job.download);
+        cancelling(job.result, file);
+        file.whenCompleteAsync((value, throwable) -> {
+            finish(job, throwable);
+            complete(job.result, value, throwable);
+        }, client.executor());
+    }
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    public record Progress(int queued, int running, long completed, long failed) {
+    }
+
+    private static final class Job {
+        private final Path filename;
+        private final DownloadWallpaperRequest request;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private Priority priority;
+        private long sequence;
+        private DownloadWallpaperResponse.Download download;
+        private Host host;
+
+        private Job(Path filename, DownloadWallpaperRequest request, Priority priority) {
+            this.filename = filename;
+            this.request = request;
+            this.priority = priority;
+        }
+    }
+
+    private static final class Host {
+        private final String name;
+        private final Queue<Job> waiting = new PriorityQueue<>(JOB_ORDER);
+        private int running;
+
+        private Host(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Builder {
+        private DigitalBlasphemyClient client;
+        private int maxConcurrentDownloads = 4;
+        private int maxConcurrentDownloadsPerHost = 2;
+
+        private Builder() {
+        }
+
+        public DownloadManager.Builder client(@NonNull DigitalBlasphemyClient client) {
+            this.client = client;
+            return this;
+        }
+
+        public DownloadManager.Builder maxConcurrentDownloads(int maxConcurrentDownloads) {
+            if (maxConcurrentDownloads < 1) {
+                throw new IllegalArgumentException("Max concurrent downloads must be greater than 0.");
+            }
+            this.maxConcurrentDownloads = maxConcurrentDownloads;
+            return this;
+        }
+
+        public DownloadManager.Builder maxConcurrentDownloadsPerHost(int maxConcurrentDownloadsPerHost) {
+            if (maxConcurrentDownloadsPerHost < 1) {
+                throw new IllegalArgumentException("Max concurrent downloads per host must be greater than 0.");
+            }
+            this.maxConcurrentDownloadsPerHost = maxConcurrentDownloadsPerHost;
+            return this;
+        }
+
+        public DownloadManager build() {
+            if (this.client == null) {
+                throw new IllegalStateException("Client must be provided.");
+            }
+            return new DownloadManager(this);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.WallpaperType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public final class DownloadUrlCache {
+
+    private final long maximumSize;
+    private final long expiryMarginMillis;
+    private final Clock clock;
+    private final LinkedHashMap<Key, DownloadWallpaperResponse.Download> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    private DownloadUrlCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.expiryMarginMillis = builder.expiryMargin.toMillis();
+        this.clock = builder.clock;
+    }
+
+    public static DownloadUrlCache.Builder builder() {
+        return new DownloadUrlCache.Builder();
+    }
+
+    @NonNull
+    public synchronized Stats stats() {
+        return new Stats(hitCount, missCount, evictionCount, entries.size());
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    @Nullable
+    synchronized DownloadWallpaperResponse.Download get(@NonNull DownloadWallpaperRequest downloadWallpaperRequest) {
+        Key key = Key.of(downloadWallpaperRequest);
+        DownloadWallpaperResponse.Download download = entries.get(key);
+        if (download == null) {
+            missCount++;
+            return null;
+        }
+        if (clock.millis() >= download.expiration() * 1000 - expiryMarginMillis) {
+            entries.remove(key);
+            evictionCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return download;
+    }
+
+    synchronized void put(@NonNull DownloadWallpaperRequest downloadWallpaperRequest,
+                          @NonNull DownloadWallpaperResponse.Download download) {
+        entries.put(Key.of(downloadWallpaperRequest), download);
+        Iterator<DownloadWallpaperResponse.Download> eldest = entries.values().iterator();
+        while (entries.size() > maximumSize) {
+            eldest.next();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    synchronized void invalidate(@NonNull DownloadWallpaperRequest downloadWallpaperRequest) {
+        entries.remove(Key.of(downloadWallpaperRequest));
+    }
+
+    public record Stats(long hitCount, long missCount, long evictionCount, long size) {
+    }
+
+    private record Key(WallpaperType type, int width, int height, int wallpaperId, boolean showWatermark) {
+        private static Key of(DownloadWallpaperRequest downloadWallpaperRequest) {
+            return new Key(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId(),
+                    downloadWallpaperRequest.isShowWatermark()
+            );
+        }
+    }
+
+    public static class Builder {
+        private long maximumSize = 1000;
+        private Duration expiryMargin = Duration.ofSeconds(30);
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public DownloadUrlCache.Builder maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("Maximum size must be greater than 0.");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public DownloadUrlCache.Builder expiryMargin(@NonNull Duration expiryMargin) {
+            if (expiryMargin.isNegative()) {
+                throw new IllegalArgumentException("Expiry margin must not be negative.");
+            }
+            this.expiryMargin = expiryMargin;
+            return this;
+        }
+
+        DownloadUrlCache.Builder clock(@NonNull Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public DownloadUrlCache build() {
+            return new DownloadUrlCache(this);
+        }
+    }
+}
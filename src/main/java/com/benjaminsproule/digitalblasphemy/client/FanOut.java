@@ -0,0 +1,72 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.benjaminsproule.digitalblasphemy.client.Futures.cancelling;
+
+final class FanOut<K, V> {
+
+    private final List<K> keys;
+    private final Function<K, CompletableFuture<V>> request;
+    private final Executor executor;
+    private final Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<V> results;
+    private final AtomicInteger remaining;
+    private final CompletableFuture<List<V>> result = new CompletableFuture<>();
+
+    FanOut(@NonNull List<K> keys, @NonNull Function<K, CompletableFuture<V>> request, @NonNull Executor executor) {
+        this.keys = keys;
+        this.request = request;
+        this.executor = executor;
+        this.results = new AtomicReferenceArray<>(keys.size());
+        this.remaining = new AtomicInteger(keys.size());
+        IntStream.range(0, keys.size()).forEach(pending::add);
+    }
+
+    @NonNull
+    CompletableFuture<List<V>> execute(int concurrency) {
+        if (keys.isEmpty()) {
+            result.complete(List.of());
+        }
+        for (int worker = 0; worker < concurrency; worker++) {
+            next();
+        }
+        return result;
+    }
+
+    private void next() {
+        Integer index = pending.poll();
+        if (index == null || result.isDone()) {
+            return;
+        }
+        CompletableFuture<V> response;
+        try {
+            response = request.apply(keys.get(index));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        cancelling(result, response);
+        response.whenCompleteAsync((value, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            results.set(index, value);
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(IntStream.range(0, results.length()).mapToObj(results::get).toList());
+            }
+            next();
+        }, executor);
+    }
+}
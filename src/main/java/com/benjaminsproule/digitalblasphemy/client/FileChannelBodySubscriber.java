@@ -0,0 +1,83 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+final class FileChannelBodySubscriber implements HttpResponse.BodySubscriber<Void> {
+
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    private final Callable<FileChannel> channelOpener;
+    private long position;
+    private FileChannel channel;
+    private Flow.Subscription subscription;
+
+    FileChannelBodySubscriber(@NonNull Callable<FileChannel> channelOpener, long position) {
+        this.channelOpener = channelOpener;
+        this.position = position;
+    }
+
+    @Override
+    public CompletionStage<Void> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        try {
+            channel = channelOpener.call();
+        } catch (Exception e) {
+            subscription.cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        try {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            onError(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throwable.addSuppressed(e);
+            }
+        }
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            channel.close();
+            result.complete(null);
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
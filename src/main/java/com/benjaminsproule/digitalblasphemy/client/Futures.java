@@ -0,0 +1,56 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+interface Futures {
+
+    @NonNull
+    static <T> CompletableFuture<T> cancelling(@NonNull CompletableFuture<T> derived, @NonNull Future<?> source) {
+        derived.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+
+    @NonNull
+    static <T, U> CompletableFuture<U> compose(@NonNull CompletableFuture<T> first,
+                                               @NonNull Function<? super T, CompletableFuture<U>> next,
+                                               @NonNull Executor executor) {
+        CompletableFuture<U> result = cancelling(new CompletableFuture<>(), first);
+        first.whenCompleteAsync((value, throwable) -> {
+            if (throwable != null) {
+                complete(result, null, throwable);
+                return;
+            }
+            CompletableFuture<U> second;
+            try {
+                second = next.apply(value);
+            } catch (RuntimeException e) {
+                complete(result, null, e);
+                return;
+            }
+            cancelling(result, second);
+            second.whenComplete((secondValue, secondThrowable) -> complete(result, secondValue, secondThrowable));
+        }, executor);
+        return result;
+    }
+
+    static <T> void complete(@NonNull CompletableFuture<T> future, @Nullable T value, @Nullable Throwable throwable) {
+        if (throwable == null) {
+            future.complete(value);
+        } else if (throwable instanceof CompletionException) {
+            future.completeExceptionally(throwable);
+        } else {
+            future.completeExceptionally(new CompletionException(throwable));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public final class HedgingPolicy {
+
+    private final double percentile;
+    private final double maxHedgeRatio;
+    private final Duration initialDelay;
+    private final long[] latencies;
+    private int latencyCount;
+    private int nextLatency;
+    private long requestCount;
+    private long hedgeCount;
+
+    private HedgingPolicy(Builder builder) {
+        this.percentile = builder.percentile;
+        this.maxHedgeRatio = builder.maxHedgeRatio;
+        this.initialDelay = builder.initialDelay;
+        this.latencies = new long[builder.sampleSize];
+    }
+
+    public static HedgingPolicy.Builder builder() {
+        return new HedgingPolicy.Builder();
+    }
+
+    @NonNull
+    public synchronized Stats stats() {
+        return new Stats(requestCount, hedgeCount, hedgeDelay());
+    }
+
+    synchronized void onRequest() {
+        requestCount++;
+    }
+
+    synchronized void recordLatency(long latencyNanos) {
+        latencies[nextLatency] = latencyNanos;
+        nextLatency = (nextLatency + 1) % latencies.length;
+        latencyCount = Math.min(latencies.length, latencyCount + 1);
+    }
+
+    @NonNull
+    synchronized Duration hedgeDelay() {
+        if (latencyCount < latencies.length) {
+            return initialDelay;
+        }
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return Duration.ofNanos(sorted[(int) Math.ceil(percentile * sorted.length) - 1]);
+    }
+
+    synchronized boolean tryHedge() {
+        if (hedgeCount + 1 > maxHedgeRatio * requestCount) {
+            return false;
+        }
+        hedgeCount++;
+        return true;
+    }
+
+    public record Stats(long requestCount, long hedgeCount, Duration hedgeDelay) {
+    }
+
+    public static class Builder {
+        private double percentile = 0.95;
+        private double maxHedgeRatio = 0.1;
+        private Duration initialDelay = Duration.ofSeconds(1);
+        private int sampleSize = 100;
+
+        private Builder() {
+        }
+
+        public HedgingPolicy.Builder percentile(double percentile) {
+            if (percentile <= 0 || percentile > 1) {
+                throw new IllegalArgumentException("Percentile must be greater than 0 and at most 1.");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        public HedgingPolicy.Builder maxHedgeRatio(double maxHedgeRatio) {
+            if (maxHedgeRatio <= 0 || maxHedgeRatio > 1) {
+                throw new IllegalArgumentException("Max hedge ratio must be greater than 0 and at most 1.");
+            }
+            this.maxHedgeRatio = maxHedgeRatio;
+            return this;
+        }
+
+        public HedgingPolicy.Builder initialDelay(@NonNull Duration initialDelay) {
+            if (initialDelay.isNegative() || initialDelay.isZero()) {
+                throw new IllegalArgumentException("Initial delay must be greater than 0.");
+            }
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        public HedgingPolicy.Builder sampleSize(int sampleSize) {
+            if (sampleSize < 1) {
+                throw new IllegalArgumentException("Sample size must be greater than 0.");
+            }
+            this.sampleSize = sampleSize;
+            return this;
+        }
+
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
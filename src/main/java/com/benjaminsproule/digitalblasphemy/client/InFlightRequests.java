@@ -0,0 +1,79 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+final class InFlightRequests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InFlightRequests.class);
+
+    private final ConcurrentMap<Object, InFlight<?>> requests = new ConcurrentHashMap<>();
+
+    @NonNull
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> execute(@NonNull Object key, @NonNull Supplier<CompletableFuture<T>> request) {
+        InFlight<T> created = new InFlight<>();
+        InFlight<T> inFlight = (InFlight<T>) requests.compute(key, (ignored, existing) -> {
+            InFlight<?> joined = existing == null ? created : existing;
+            joined.callers++;
+            return joined;
+        });
+        CompletableFuture<T> caller = inFlight.shared.copy();
+        caller.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                leave(key, inFlight);
+            }
+        });
+        if (inFlight != created) {
+            LOGGER.debug("Joining in-flight request: {}", key);
+            return caller;
+        }
+        CompletableFuture<T> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        inFlight.response = response;
+        response.whenComplete((result, throwable) -> {
+            requests.remove(key, inFlight);
+            if (throwable != null) {
+                inFlight.shared.completeExceptionally(throwable);
+            } else {
+                inFlight.shared.complete(result);
+            }
+        });
+        return caller;
+    }
+
+    private void leave(Object key, InFlight<?> inFlight) {
+        boolean[] lastCaller = {false};
+        requests.computeIfPresent(key, (ignored, existing) -> {
+            if (existing != inFlight || --existing.callers > 0) {
+                return existing;
+            }
+            lastCaller[0] = true;
+            return null;
+        });
+        if (lastCaller[0]) {
+            LOGGER.debug("Cancelling in-flight request without callers: {}", key);
+            inFlight.response.cancel(true);
+        }
+    }
+
+    int size() {
+        return requests.size();
+    }
+
+    private static final class InFlight<T> {
+        private final CompletableFuture<T> shared = new CompletableFuture<>();
+        private int callers;
+        private volatile CompletableFuture<T> response;
+    }
+}
@@ -0,0 +1,296 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public final class IntBitmap {
+
+    private static final IntBitmap EMPTY = new IntBitmap(new int[0], null, 0, 0);
+    private static final int SPARSE_BITS_PER_VALUE = 32;
+
+    private final int[] values;
+    private final long[] words;
+    private final int base;
+    private final int cardinality;
+
+    private IntBitmap(int[] values, long[] words, int base, int cardinality) {
+        this.values = values;
+        this.words = words;
+        this.base = base;
+        this.cardinality = cardinality;
+    }
+
+    @NonNull
+    public static IntBitmap empty() {
+        return EMPTY;
+    }
+
+    @NonNull
+    public static IntBitmap of(int... values) {
+        int[] sorted = IntStream.of(values).sorted().distinct().toArray();
+        return sorted.length == 0 ? EMPTY : fromSorted(sorted, sorted.length);
+    }
+
+    public boolean contains(int value) {
+        if (words == null) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+        long offset = (long) value - base;
+        if (offset < 0 || offset >= (long) words.length * Long.SIZE) {
+            return false;
+        }
+        return (words[(int) (offset >>> 6)] & (1L << offset)) != 0;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    @NonNull
+    public IntBitmap and(@NonNull IntBitmap other) {
+        if (isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        if (words != null && other.words != null) {
+            int from = Math.max(base, other.base);
+            long to = Math.min(end(), other.end());
+            if (from >= to) {
+                return EMPTY;
+            }
+            long[] result = new long[(int) ((to - from) >>> 6)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = words[((from - base) >>> 6) + i] & other.words[((from - other.base) >>> 6) + i];
+            }
+            return fromWords(result, from);
+        }
+        IntBitmap sparse = words == null ? this : other;
+        IntBitmap probe = sparse == this ? other : this;
+        return filter(sparse.values, probe, true);
+    }
+
+    @NonNull
+    public IntBitmap or(@NonNull IntBitmap other) {
+        if (isEmpty()) {
+            return other;
+        }
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (words == null && other.words == null) {
+            int[] result = new int[values.length + other.values.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < values.length && j < other.values.length) {
+                int comparison = Integer.compare(values[i], other.values[j]);
+                result[size++] = comparison <= 0 ? values[i] : other.values[j];
+                if (comparison <= 0) {
+                    i++;
+                }
+                if (comparison >= 0) {
+                    j++;
+                }
+            }
+            while (i < values.length) {
+                result[size++] = values[i++];
+            }
+            while (j < other.values.length) {
+                result[size++] = other.values[j++];
+            }
+            return fromSorted(result, size);
+        }
+        int from = Math.min(first(), other.first()) & -Long.SIZE;
+        long[] result = new long[(int) ((Math.max(last(), other.last()) - (long) from) >>> 6) + 1];
+        orInto(result, from);
+        other.orInto(result, from);
+        return fromWords(result, from);
+    }
+
+    @NonNull
+    public IntBitmap andNot(@NonNull IntBitmap other) {
+        if (isEmpty() || other.isEmpty()) {
+            return this;
+        }
+        if (words == null) {
+            return filter(values, other, false);
+        }
+        long[] result = words.clone();
+        if (other.words == null) {
+            for (int value : other.values) {
+                long offset = (long) value - base;
+                if (offset >= 0 && offset < (long) result.length * Long.SIZE) {
+                    result[(int) (offset >>> 6)] &= ~(1L << offset);
+                }
+            }
+        } else {
+            int from = Math.max(base, other.base);
+            long to = Math.min(end(), other.end());
+            for (long position = from; position < to; position += Long.SIZE) {
+                result[(int) ((position - base) >>> 6)] &= ~other.words[(int) ((position - other.base) >>> 6)];
+            }
+        }
+        return fromWords(result, base);
+    }
+
+    public void forEach(@NonNull IntConsumer action) {
+        if (words == null) {
+            for (int value : values) {
+                action.accept(value);
+            }
+            return;
+        }
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                action.accept(base + i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    @NonNull
+    public int[] toArray() {
+        if (words == null) {
+            return values.clone();
+        }
+        int[] result = new int[cardinality];
+        int[] size = {0};
+        forEach(value -> result[size[0]++] = value);
+        return result;
+    }
+
+    @NonNull
+    public IntStream stream() {
+        return IntStream.of(toArray());
+    }
+
+    public long sizeInBytes() {
+        return words == null ? (long) values.length * Integer.BYTES : (long) words.length * Long.BYTES;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IntBitmap other && cardinality == other.cardinality
+                && Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private long end() {
+        return base + (long) words.length * Long.SIZE;
+    }
+
+    private int first() {
+        if (words == null) {
+            return values[0];
+        }
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != 0) {
+                return base + i * Long.SIZE + Long.numberOfTrailingZeros(words[i]);
+            }
+        }
+        return base;
+    }
+
+    private int last() {
+        if (words == null) {
+            return values[values.length - 1];
+        }
+        for (int i = words.length - 1; i >= 0; i--) {
+            if (words[i] != 0) {
+                return base + i * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(words[i]);
+            }
+        }
+        return base;
+    }
+
+    private void orInto(long[] result, int from) {
+        if (words == null) {
+            for (int value : values) {
+                long offset = (long) value - from;
+                result[(int) (offset >>> 6)] |= 1L << offset;
+            }
+            return;
+        }
+        int start = (base - from) >>> 6;
+        for (int i = 0; i < words.length && start + i < result.length; i++) {
+            result[start + i] |= words[i];
+        }
+    }
+
+    private static IntBitmap filter(int[] values, IntBitmap probe, boolean keep) {
+        int[] result = new int[values.length];
+        int size = 0;
+        for (int value : values) {
+            if (probe.contains(value) == keep) {
+                result[size++] = value;
+            }
+        }
+        return fromSorted(result, size);
+    }
+
+    private static IntBitmap fromSorted(int[] sorted, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        long span = (long) sorted[size - 1] - sorted[0] + 1;
+        if ((long) size * SPARSE_BITS_PER_VALUE <= span) {
+            return new IntBitmap(size == sorted.length ? sorted : Arrays.copyOf(sorted, size), null, 0, size);
+        }
+        int from = sorted[0] & -Long.SIZE;
+        long[] words = new long[(int) (((long) sorted[size - 1] - from) >>> 6) + 1];
+        for (int i = 0; i < size; i++) {
+            long offset = (long) sorted[i] - from;
+            words[(int) (offset >>> 6)] |= 1L << offset;
+        }
+        return new IntBitmap(null, words, from, size);
+    }
+
+    private static IntBitmap fromWords(long[] words, int base) {
+        int cardinality = 0;
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != 0) {
+                cardinality += Long.bitCount(words[i]);
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        if (cardinality == 0) {
+            return EMPTY;
+        }
+        long span = (long) (last - first + 1) * Long.SIZE;
+        if ((long) cardinality * SPARSE_BITS_PER_VALUE <= span) {
+            int[] values = new int[cardinality];
+            int size = 0;
+            for (int i = first; i <= last; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[size++] = base + i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return new IntBitmap(values, null, 0, cardinality);
+        }
+        long[] trimmed = first == 0 && last == words.length - 1 ? words : Arrays.copyOfRange(words, first, last + 1);
+        return new IntBitmap(null, trimmed, base + first * Long.SIZE, cardinality);
+    }
+}
@@ -0,0 +1,58 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.function.Supplier;
+
+final class JsonBodyHandler<R> implements HttpResponse.BodyHandler<JsonBodyHandler.JsonBody<R>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonBodyHandler.class);
+
+    private final ObjectReader objectReader;
+
+    JsonBodyHandler(@NonNull ObjectReader objectReader) {
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<JsonBody<R>> apply(HttpResponse.ResponseInfo responseInfo) {
+        return HttpResponse.BodySubscribers.mapping(
+                HttpResponse.BodySubscribers.ofInputStream(),
+                body -> new JsonBody<>(objectReader, body)
+        );
+    }
+
+    static final class JsonBody<R> implements Supplier<R> {
+
+        private final ObjectReader objectReader;
+        private final InputStream body;
+
+        private JsonBody(ObjectReader objectReader, InputStream body) {
+            this.objectReader = objectReader;
+            this.body = body;
+        }
+
+        @Override
+        public R get() {
+            try (body) {
+                return objectReader.readValue(body);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        void abort() {
+            try {
+                body.close();
+            } catch (IOException e) {
+                LOGGER.debug("Unable to close response body", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Endpoints;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersOrderBy;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.Operator;
+import com.benjaminsproule.digitalblasphemy.client.model.Order;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class LocalCatalogue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalCatalogue.class);
+    private static final Comparator<Entry> BY_DATE = Comparator
+            .comparingLong(Entry::timestamp)
+            .thenComparingInt(entry -> entry.wallpaper().id());
+    private static final Comparator<Entry> BY_NAME = Comparator
+            .comparing(Entry::name)
+            .thenComparingInt(entry -> entry.wallpaper().id());
+
+    private final CatalogueStore store;
+    private final Function<Wallpaper, Collection<Integer>> galleries;
+    private final ZoneId zone;
+    private final Endpoints endpoints;
+    private final Clock clock;
+    private volatile Snapshot snapshot = new Snapshot(List.of(), List.of(), Map.of(), Map.of(), TagIndex.empty(),
+            ResolutionIndex.empty());
+
+    private LocalCatalogue(Builder builder) {
+        this.store = builder.store;
+        this.galleries = builder.galleries;
+        this.zone = builder.zone;
+        this.endpoints = builder.endpoints;
+        this.clock = builder.clock;
+    }
+
+    public static LocalCatalogue.Builder builder() {
+        return new LocalCatalogue.Builder();
+    }
+
+    public void refresh() throws IOException {
+        List<Wallpaper> wallpapers = store.getAll();
+        List<Entry> loaded = wallpapers.stream().map(this::entry).toList();
+        List<Entry> byDate = loaded.stream().sorted(BY_DATE).toList();
+        List<Entry> byName = loaded.stream().sorted(BY_NAME).toList();
+        snapshot = new Snapshot(
+                byDate,
+                byName,
+                positions(byDate),
+                positions(byName),
+                TagIndex.of(wallpapers, galleries),
+                ResolutionIndex.of(wallpapers)
+        );
+        LOGGER.debug("Loaded {} wallpapers into the local catalogue", loaded.size());
+    }
+
+    public int size() {
+        return snapshot.byDate().size();
+    }
+
+    @NonNull
+    public TagIndex tagIndex() {
+        return snapshot.tagIndex();
+    }
+
+    @NonNull
+    public ResolutionIndex resolutionIndex() {
+        return snapshot.resolutionIndex();
+    }
+
+    @NonNull
+    public GetWallpapersResponse getWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest) {
+        return getWallpapers(getWallpapersRequest, null);
+    }
+
+    @NonNull
+    public GetWallpapersResponse getWallpapers(@NonNull GetWallpapersRequest getWallpapersRequest,
+                                               @Nullable IntBitmap wallpaperIds) {
+        LOGGER.debug("Get local wallpapers: {}", getWallpapersRequest);
+        if (!getWallpapersRequest.getFilterGallery().isEmpty() && galleries == null) {
+            throw new IllegalStateException("Gallery filters need a gallery mapping.");
+        }
+        Snapshot current = snapshot;
+        IntBitmap candidates = candidates(current, getWallpapersRequest, wallpaperIds);
+        boolean byName = getWallpapersRequest.getOrderBy() == GetWallpapersOrderBy.NAME;
+        List<Entry> ordered = byName ? current.byName() : current.byDate();
+        Map<Integer, Integer> positions = byName ? current.namePositions() : current.datePositions();
+        int[] candidatePositions = candidates.stream().map(positions::get).sorted().toArray();
+        boolean descending = getWallpapersRequest.getOrder() == Order.DESCENDING;
+        int limit = getWallpapersRequest.getLimit();
+        int from = (getWallpapersRequest.getPage() - 1) * limit;
+        List<Wallpaper> page = new ArrayList<>(limit);
+        int matched = 0;
+        for (int i = 0; i < candidatePositions.length; i++) {
+            Entry entry = ordered.get(candidatePositions[descending ? candidatePositions.length - 1 - i : i]);
+            if (!matches(entry, getWallpapersRequest)) {
+                continue;
+            }
+            if (matched >= from && matched < from + limit) {
+                page.add(trim(entry.wallpaper(), getWallpapersRequest));
+            }
+            matched++;
+        }
+
+        int totalPages = (matched + limit - 1) / limit;
+        Map<String, Wallpaper> wallpapers = page.stream().collect(Collectors.toMap(
+                wallpaper -> String.valueOf(wallpaper.id()), wallpaper -> wallpaper,
+                (first, second) -> first, LinkedHashMap::new));
+        return new GetWallpapersResponse(
+                new GetWallpapersResponse.DBCore(
+                        clock.instant().getEpochSecond(),
+                        endpoints,
+                        new GetWallpapersResponse.DBCore.Request(query(getWallpapersRequest)),
+                        totalPages,
+                        wallpapers
+                ),
+                page.stream().map(Wallpaper::id).toList()
+        );
+    }
+
+    private static IntBitmap candidates(Snapshot snapshot, GetWallpapersRequest getWallpapersRequest,
+                                        @Nullable IntBitmap wallpaperIds) {
+        TagIndex index = snapshot.tagIndex();
+        IntBitmap candidates = wallpaperIds == null ? index.all() : index.all().and(wallpaperIds);
+        if (!getWallpapersRequest.getFilterTag().isEmpty()) {
+            candidates = candidates.and(index.allTags(getWallpapersRequest.getFilterTag()));
+        }
+        if (!getWallpapersRequest.getFilterGallery().isEmpty()) {
+            candidates = candidates.and(index.anyGallery(getWallpapersRequest.getFilterGallery()));
+        }
+        long width = minimumDimension(getWallpapersRequest.getFilterResWidth(),
+                getWallpapersRequest.getFilterResOperatorWidth());
+        long height = minimumDimension(getWallpapersRequest.getFilterResHeight(),
+                getWallpapersRequest.getFilterResOperatorHeight());
+        if (width > 0 && height > 0 && width <= Integer.MAX_VALUE && height <= Integer.MAX_VALUE) {
+            candidates = candidates.and(snapshot.resolutionIndex().atLeast((int) width, (int) height));
+        }
+        return candidates;
+    }
+
+    private static long minimumDimension(long filter, Operator operator) {
+        if (filter <= 0) {
+            return 0;
+        }
+        return switch (operator) {
+            case GREATER_THAN_OR_EQUAL -> filter;
+            case GREATER_THAN -> filter + 1;
+            case EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL -> 0;
+        };
+    }
+
+    private static boolean matches(Entry entry, GetWallpapersRequest getWallpapersRequest) {
+        if (!matchesDate(entry, getWallpapersRequest)) {
+            return false;
+        }
+        if (getWallpapersRequest.getFilterRating() != 0 && (Double.isNaN(entry.rating())
+                || !matches(getWallpapersRequest.getFilterRatingOperator(),
+                Double.compare(entry.rating(), getWallpapersRequest.getFilterRating())))) {
+            return false;
+        }
+        if (!getWallpapersRequest.getS().isEmpty()
+                && !entry.name().contains(getWallpapersRequest.getS().toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        return !hasResolutionFilter(getWallpapersRequest) || entry.wallpaper().resolutions() != null
+                && resolutions(entry.wallpaper().resolutions())
+                .anyMatch(resolution -> matches(resolution, getWallpapersRequest));
+    }
+
+    private static boolean matchesDate(Entry entry, GetWallpapersRequest getWallpapersRequest) {
+        int[] filter = {
+                getWallpapersRequest.getFilterDateYear(),
+                getWallpapersRequest.getFilterDateMonth(),
+                getWallpapersRequest.getFilterDateDay()
+        };
+        if (filter[0] == 0 && filter[1] == 0 && filter[2] == 0) {
+            return true;
+        }
+        if (entry.date() == null) {
+            return false;
+        }
+        int[] date = {entry.date().getYear(), entry.date().getMonthValue(), entry.date().getDayOfMonth()};
+        int comparison = 0;
+        for (int i = 0; i < filter.length && comparison == 0; i++) {
+            if (filter[i] != 0) {
+                comparison = Integer.compare(date[i], filter[i]);
+            }
+        }
+        return matches(getWallpapersRequest.getFilterDateOperator(), comparison);
+    }
+
+    private static Wallpaper trim(Wallpaper wallpaper, GetWallpapersRequest getWallpapersRequest) {
+        Wallpaper.Resolutions resolutions = wallpaper.resolutions();
+        if (resolutions != null && hasResolutionFilter(getWallpapersRequest)) {
+            resolutions = new Wallpaper.Resolutions(
+                    matchingResolutions(resolutions.single(), getWallpapersRequest),
+                    matchingResolutions(resolutions.dual(), getWallpapersRequest),
+                    matchingResolutions(resolutions.triple(), getWallpapersRequest),
+                    matchingResolutions(resolutions.mobile(), getWallpapersRequest)
+            );
+        }
+        return new Wallpaper(
+                wallpaper.id(),
+                wallpaper.all_free(),
+                getWallpapersRequest.isShowComments() ? wallpaper.comments() : null,
+                wallpaper.content(),
+                wallpaper.free(),
+                wallpaper.name(),
+                wallpaper.paths(),
+                getWallpapersRequest.isShowPickleJar() ? wallpaper.pickle_jar() : null,
+                wallpaper.rating(),
+                getWallpapersRequest.isShowResolutions() ? resolutions : null,
+                wallpaper.sku(),
+                wallpaper.tags(),
+                wallpaper.timestamp()
+        );
+    }
+
+    @Nullable
+    private static List<Wallpaper.Resolutions.Resolution> matchingResolutions(
+            @Nullable List<Wallpaper.Resolutions.Resolution> resolutions,
+            GetWallpapersRequest getWallpapersRequest) {
+        if (resolutions == null) {
+            return null;
+        }
+        return resolutions.stream()
+                .filter(resolution -> matches(resolution, getWallpapersRequest))
+                .toList();
+    }
+
+    private static boolean hasResolutionFilter(GetWallpapersRequest getWallpapersRequest) {
+        return getWallpapersRequest.getFilterResWidth() > 0 || getWallpapersRequest.getFilterResHeight() > 0;
+    }
+
+    private static Stream<Wallpaper.Resolutions.Resolution> resolutions(Wallpaper.Resolutions resolutions) {
+        return Stream.of(resolutions.single(), resolutions.dual(), resolutions.triple(), resolutions.mobile())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream);
+    }
+
+    private static boolean matches(Wallpaper.Resolutions.Resolution resolution,
+                                   GetWallpapersRequest getWallpapersRequest) {
+        return matchesDimension(resolution.width(), getWallpapersRequest.getFilterResWidth(),
+                getWallpapersRequest.getFilterResOperatorWidth())
+                && matchesDimension(resolution.height(), getWallpapersRequest.getFilterResHeight(),
+                getWallpapersRequest.getFilterResOperatorHeight());
+    }
+
+    private static boolean matchesDimension(String dimension, long filter, Operator operator) {
+        if (filter <= 0) {
+            return true;
+        }
+        try {
+            return matches(operator, Long.compare(Long.parseLong(dimension), filter));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean matches(Operator operator, int comparison) {
+        return switch (operator) {
+            case EQUAL -> comparison == 0;
+            case GREATER_THAN -> comparison > 0;
+            case GREATER_THAN_OR_EQUAL -> comparison >= 0;
+            case LESS_THAN -> comparison < 0;
+            case LESS_THAN_OR_EQUAL -> comparison <= 0;
+        };
+    }
+
+    private static GetWallpapersResponse.DBCore.Request.Query query(GetWallpapersRequest getWallpapersRequest) {
+        return new GetWallpapersResponse.DBCore.Request.Query(
+                nullIfZero(getWallpapersRequest.getFilterDateDay()),
+                nullIfZero(getWallpapersRequest.getFilterDateMonth()),
+                nullIfZero(getWallpapersRequest.getFilterDateYear()),
+                getWallpapersRequest.getFilterDateOperator(),
+                getWallpapersRequest.getFilterGallery(),
+                nullIfZero((int) getWallpapersRequest.getFilterRating()),
+                getWallpapersRequest.getFilterRatingOperator(),
+                getWallpapersRequest.getFilterResOperatorHeight(),
+                getWallpapersRequest.getFilterResOperatorWidth(),
+                (int) getWallpapersRequest.getFilterResHeight(),
+                getWallpapersRequest.getFilterResOperator(),
+                (int) getWallpapersRequest.getFilterResWidth(),
+                getWallpapersRequest.getFilterTag(),
+                getWallpapersRequest.getLimit(),
+                getWallpapersRequest.getOrder(),
+                getWallpapersRequest.getOrderBy(),
+                getWallpapersRequest.getPage(),
+                getWallpapersRequest.getS().isEmpty() ? null : getWallpapersRequest.getS(),
+                getWallpapersRequest.isShowComments(),
+                getWallpapersRequest.isShowPickleJar(),
+                getWallpapersRequest.isShowResolutions()
+        );
+    }
+
+    @Nullable
+    private static Integer nullIfZero(int value) {
+        return value == 0 ? null : value;
+    }
+
+    private static Map<Integer, Integer> positions(List<Entry> ordered) {
+        Map<Integer, Integer> positions = new HashMap<>(ordered.size() * 2);
+        for (int i = 0; i < ordered.size(); i++) {
+            positions.put(ordered.get(i).wallpaper().id(), i);
+        }
+        return positions;
+    }
+
+    private Entry entry(Wallpaper wallpaper) {
+        return new Entry(
+                wallpaper,
+                wallpaper.timestamp() == null ? 0 : wallpaper.timestamp(),
+                wallpaper.timestamp() == null
+                        ? null
+                        : LocalDate.ofInstant(Instant.ofEpochSecond(wallpaper.timestamp()), zone),
+                rating(wallpaper.rating()),
+                wallpaper.name().toLowerCase(Locale.ROOT)
+        );
+    }
+
+    private static double rating(@Nullable String rating) {
+        if (rating == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(rating);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private record Snapshot(List<Entry> byDate, List<Entry> byName, Map<Integer, Integer> datePositions,
+                            Map<Integer, Integer> namePositions, TagIndex tagIndex,
+                            ResolutionIndex resolutionIndex) {
+    }
+
+    private record Entry(
+            Wallpaper wallpaper,
+            long timestamp,
+            @Nullable LocalDate date,
+            double rating,
+            String name
+    ) {
+    }
+
+    public static class Builder {
+        private CatalogueStore store;
+        private Function<Wallpaper, Collection<Integer>> galleries;
+        private ZoneId zone = ZoneOffset.UTC;
+        private Endpoints endpoints;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public LocalCatalogue.Builder store(@NonNull CatalogueStore store) {
+            this.store = store;
+            return this;
+        }
+
+        public LocalCatalogue.Builder galleries(@NonNull Function<Wallpaper, Collection<Integer>> galleries) {
+            this.galleries = galleries;
+            return this;
+        }
+
+        public LocalCatalogue.Builder zone(@NonNull ZoneId zone) {
+            this.zone = zone;
+            return this;
+        }
+
+        public LocalCatalogue.Builder endpoints(@NonNull Endpoints endpoints) {
+            this.endpoints = endpoints;
+            return this;
+        }
+
+        LocalCatalogue.Builder clock(@NonNull Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public LocalCatalogue build() throws IOException {
+            if (this.store == null) {
+                throw new IllegalStateException("Store must be provided.");
+            }
+            if (this.endpoints == null) {
+                throw new IllegalStateException("Endpoints must be provided.");
+            }
+            LocalCatalogue localCatalogue = new LocalCatalogue(this);
+            localCatalogue.refresh();
+            return localCatalogue;
+        }
+    }
+}
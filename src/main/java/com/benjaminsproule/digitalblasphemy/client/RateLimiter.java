@@ -0,0 +1,147 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public final class RateLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimiter.class);
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final double MINIMUM_RATE_FRACTION = 1d / 32;
+    private static final double RECOVERY_RATE_FRACTION = 1d / 16;
+
+    private final double maximumPermitsPerSecond;
+    private final double maximumStoredPermits;
+    private final LongSupplier ticker;
+    private final Clock clock;
+    private double permitsPerSecond;
+    private double storedPermits;
+    private long nextFreeNanos;
+
+    private RateLimiter(Builder builder) {
+        this.maximumPermitsPerSecond = builder.permitsPerSecond;
+        this.maximumStoredPermits = builder.burst - 1;
+        this.ticker = builder.ticker;
+        this.clock = builder.clock;
+        this.permitsPerSecond = builder.permitsPerSecond;
+        this.storedPermits = maximumStoredPermits;
+        this.nextFreeNanos = ticker.getAsLong();
+    }
+
+    public static RateLimiter.Builder builder() {
+        return new RateLimiter.Builder();
+    }
+
+    public synchronized double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    @NonNull
+    CompletableFuture<Void> acquire(@NonNull Executor executor) {
+        long wait = reserve();
+        if (wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        LOGGER.debug("Waiting {} ns for a rate limit permit", wait);
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(wait, NANOSECONDS, executor));
+    }
+
+    synchronized long reserve() {
+        long now = ticker.getAsLong();
+        long idle = Math.max(0, now - nextFreeNanos);
+        storedPermits = Math.min(maximumStoredPermits, storedPermits + idle * permitsPerSecond / NANOS_PER_SECOND);
+        nextFreeNanos += idle;
+        long wait = nextFreeNanos - now;
+        double permitsFromStore = Math.min(1, storedPermits);
+        storedPermits -= permitsFromStore;
+        nextFreeNanos += (long) ((1 - permitsFromStore) * NANOS_PER_SECOND / permitsPerSecond);
+        return wait;
+    }
+
+    synchronized void onResponse(int statusCode, @NonNull Optional<String> retryAfter) {
+        if (statusCode != 429) {
+            permitsPerSecond = Math.min(maximumPermitsPerSecond,
+                    permitsPerSecond + maximumPermitsPerSecond * RECOVERY_RATE_FRACTION);
+            return;
+        }
+        permitsPerSecond = Math.max(maximumPermitsPerSecond * MINIMUM_RATE_FRACTION, permitsPerSecond / 2);
+        storedPermits = 0;
+        long delay = retryAfter.flatMap(this::retryAfterNanos)
+                .orElseGet(() -> (long) (NANOS_PER_SECOND / permitsPerSecond));
+        long retryAt = ticker.getAsLong() + delay;
+        nextFreeNanos += Math.max(0, retryAt - nextFreeNanos);
+        LOGGER.debug("Throttled, reduced rate to {} permits per second for {}", permitsPerSecond,
+                Duration.ofNanos(delay));
+    }
+
+    private Optional<Long> retryAfterNanos(String retryAfter) {
+        try {
+            return Optional.of(SECONDS.toNanos(Math.max(0, Long.parseLong(retryAfter.trim()))));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(retryAfter.trim(), RFC_1123_DATE_TIME);
+                return Optional.of(Math.max(0, Duration.between(clock.instant(), retryAt).toNanos()));
+            } catch (DateTimeParseException | ArithmeticException exception) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    public static class Builder {
+        private double permitsPerSecond;
+        private int burst = 1;
+        private LongSupplier ticker = System::nanoTime;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public RateLimiter.Builder permitsPerSecond(double permitsPerSecond) {
+            if (permitsPerSecond <= 0) {
+                throw new IllegalArgumentException("Permits per second must be greater than 0.");
+            }
+            this.permitsPerSecond = permitsPerSecond;
+            return this;
+        }
+
+        public RateLimiter.Builder burst(int burst) {
+            if (burst < 1) {
+                throw new IllegalArgumentException("Burst must be greater than 0.");
+            }
+            this.burst = burst;
+            return this;
+        }
+
+        RateLimiter.Builder ticker(@NonNull LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        RateLimiter.Builder clock(@NonNull Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public RateLimiter build() {
+            if (this.permitsPerSecond == 0) {
+                throw new IllegalStateException("Permits per second must be provided.");
+            }
+            return new RateLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import com.benjaminsproule.digitalblasphemy.client.model.WallpaperType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public final class ResolutionIndex {
+
+    private static final Comparator<Item> BY_ASPECT = ((Comparator<Item>) (first, second) -> Long.compare(
+            (long) first.aspectWidth() * second.aspectHeight(), (long) second.aspectWidth() * first.aspectHeight()))
+            .thenComparingInt(Item::width)
+            .thenComparing(Item::type)
+            .thenComparingInt(Item::wallpaperId);
+    private static final Comparator<Item> BY_WALLPAPER = Comparator
+            .comparingInt(Item::wallpaperId)
+            .thenComparing(BY_ASPECT);
+    private static final ResolutionIndex EMPTY = new ResolutionIndex(List.of());
+
+    private final Layout byWallpaper;
+    private final Layout byAspect;
+    private final int[] aspectRuns;
+
+    private ResolutionIndex(List<Item> items) {
+        this.byWallpaper = new Layout(items.stream().sorted(BY_WALLPAPER).toList());
+        this.byAspect = new Layout(items.stream().sorted(BY_ASPECT).toList());
+        this.aspectRuns = runs(byAspect);
+    }
+
+    @NonNull
+    public static ResolutionIndex empty() {
+        return EMPTY;
+    }
+
+    @NonNull
+    public static ResolutionIndex of(@NonNull Collection<Wallpaper> wallpapers) {
+        return of(wallpapers, EnumSet.allOf(WallpaperType.class));
+    }
+
+    @NonNull
+    public static ResolutionIndex of(@NonNull Collection<Wallpaper> wallpapers, @NonNull Set<WallpaperType> types) {
+        List<Item> items = new ArrayList<>();
+        for (Wallpaper wallpaper : wallpapers) {
+            if (wallpaper.resolutions() == null) {
+                continue;
+            }
+            for (WallpaperType type : types) {
+                List<Wallpaper.Resolutions.Resolution> resolutions = resolutions(wallpaper.resolutions(), type);
+                if (resolutions == null) {
+                    continue;
+                }
+                for (Wallpaper.Resolutions.Resolution resolution : resolutions) {
+                    int width = parse(resolution.width());
+                    int height = parse(resolution.height());
+                    if (width > 0 && height > 0) {
+                        int divisor = gcd(width, height);
+                        items.add(new Item(wallpaper.id(), type, width, height,
+                                width / divisor, height / divisor, resolution));
+                    }
+                }
+            }
+        }
+        return new ResolutionIndex(items);
+    }
+
+    public int size() {
+        return byAspect.size();
+    }
+
+    @Nullable
+    public Match best(int wallpaperId, int width, int height) {
+        validate(width, height);
+        int from = lowerBound(byWallpaper.wallpaperIds, 0, byWallpaper.size(), wallpaperId);
+        int to = upperBound(byWallpaper.wallpaperIds, from, byWallpaper.size(), wallpaperId);
+        if (from == to) {
+            return null;
+        }
+        int divisor = gcd(width, height);
+        int aspectWidth = width / divisor;
+        int aspectHeight = height / divisor;
+        int runStart = aspectBound(byWallpaper, from, to, aspectWidth, aspectHeight, false);
+        int runEnd = aspectBound(byWallpaper, runStart, to, aspectWidth, aspectHeight, true);
+        if (runStart == runEnd) {
+            boolean previous = runStart > from && (runStart == to
+                    || distance(byWallpaper, runStart - 1, width, height)
+                    <= distance(byWallpaper, runStart, width, height));
+            int run = previous ? runStart - 1 : runStart;
+            runStart = aspectBound(byWallpaper, from, to, byWallpaper.aspectWidths[run],
+                    byWallpaper.aspectHeights[run], false);
+            runEnd = aspectBound(byWallpaper, runStart, to, byWallpaper.aspectWidths[run],
+                    byWallpaper.aspectHeights[run], true);
+        }
+        int covering = lowerBound(byWallpaper.widths, runStart, runEnd, coveringWidth(byWallpaper, runStart,
+                width, height));
+        return byWallpaper.match(covering < runEnd ? covering : runEnd - 1);
+    }
+
+    @NonNull
+    public IntBitmap atLeast(int width, int height) {
+        validate(width, height);
+        int[] wallpaperIds = new int[byAspect.size()];
+        int size = 0;
+        for (int run = 0; run < aspectRuns.length - 1; run++) {
+            int runEnd = aspectRuns[run + 1];
+            int from = lowerBound(byAspect.widths, aspectRuns[run], runEnd,
+                    coveringWidth(byAspect, aspectRuns[run], width, height));
+            for (int i = from; i < runEnd; i++) {
+                wallpaperIds[size++] = byAspect.wallpaperIds[i];
+            }
+        }
+        return IntBitmap.of(Arrays.copyOf(wallpaperIds, size));
+    }
+
+    private static void validate(int width, int height) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Width must be greater than 0.");
+        }
+        if (height <= 0) {
+            throw new IllegalArgumentException("Height must be greater than 0.");
+        }
+    }
+
+    private static int coveringWidth(Layout layout, int index, int width, int height) {
+        long aspectWidth = layout.aspectWidths[index];
+        long aspectHeight = layout.aspectHeights[index];
+        long widthForHeight = (height * aspectWidth + aspectHeight - 1) / aspectHeight;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(width, widthForHeight));
+    }
+
+    private static double distance(Layout layout, int index, int width, int height) {
+        return Math.abs(Math.log((double) layout.aspectWidths[index] / layout.aspectHeights[index])
+                - Math.log((double) width / height));
+    }
+
+    private static int aspectBound(Layout layout, int from, int to, int aspectWidth, int aspectHeight,
+                                   boolean upper) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Long.compare((long) layout.aspectWidths[middle] * aspectHeight,
+                    (long) aspectWidth * layout.aspectHeights[middle]);
+            if (comparison < 0 || upper && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(int[] values, int from, int to, int value) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(int[] values, int from, int to, int value) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int[] runs(Layout layout) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < layout.size(); i++) {
+            if (i == 0 || layout.aspectWidths[i] != layout.aspectWidths[i - 1]
+                    || layout.aspectHeights[i] != layout.aspectHeights[i - 1]) {
+                starts.add(i);
+            }
+        }
+        starts.add(layout.size());
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Nullable
+    private static List<Wallpaper.Resolutions.Resolution> resolutions(Wallpaper.Resolutions resolutions,
+                                                                      WallpaperType type) {
+        return switch (type) {
+            case SINGLE -> resolutions.single();
+            case DUAL -> resolutions.dual();
+            case TRIPLE -> resolutions.triple();
+            case MOBILE -> resolutions.mobile();
+        };
+    }
+
+    private static int parse(@Nullable String dimension) {
+        if (dimension == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(dimension.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int gcd(int first, int second) {
+        while (second != 0) {
+            int remainder = first % second;
+            first = second;
+            second = remainder;
+        }
+        return first;
+    }
+
+    public record Match(
+            int wallpaperId,
+            @NonNull WallpaperType type,
+            int width,
+            int height,
+            @NonNull Wallpaper.Resolutions.Resolution resolution
+    ) {
+    }
+
+    private record Item(
+            int wallpaperId,
+            WallpaperType type,
+            int width,
+            int height,
+            int aspectWidth,
+            int aspectHeight,
+            Wallpaper.Resolutions.Resolution resolution
+    ) {
+    }
+
+    private static final class Layout {
+        private final int[] wallpaperIds;
+        private final WallpaperType[] types;
+        private final int[] widths;
+        private final int[] heights;
+        private final int[] aspectWidths;
+        private final int[] aspectHeights;
+        private final Wallpaper.Resolutions.Resolution[] resolutions;
+
+        private Layout(List<Item> items) {
+            wallpaperIds = new int[items.size()];
+            types = new WallpaperType[items.size()];
+            widths = new int[items.size()];
+            heights = new int[items.size()];
+            aspectWidths = new int[items.size()];
+            aspectHeights = new int[items.size()];
+            resolutions = new Wallpaper.Resolutions.Resolution[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                wallpaperIds[i] = item.wallpaperId();
+                types[i] = item.type();
+                widths[i] = item.width();
+                heights[i] = item.height();
+                aspectWidths[i] = item.aspectWidth();
+                aspectHeights[i] = item.aspectHeight();
+                resolutions[i] = item.resolution();
+            }
+        }
+
+        private int size() {
+            return wallpaperIds.length;
+        }
+
+        private Match match(int index) {
+            return new Match(wallpaperIds[index], types[index], widths[index], heights[index], resolutions[index]);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.ResponseException;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double budgetRatio;
+    private final double budgetCapacity;
+    private final Random random;
+    private double budget;
+    private long requestCount;
+    private long retryCount;
+    private long budgetExhaustedCount;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetCapacity = builder.budgetCapacity;
+        this.random = builder.random;
+        this.budget = builder.budgetCapacity;
+    }
+
+    public static RetryPolicy.Builder builder() {
+        return new RetryPolicy.Builder();
+    }
+
+    @NonNull
+    public synchronized Stats stats() {
+        return new Stats(requestCount, retryCount, budgetExhaustedCount);
+    }
+
+    synchronized void onRequest() {
+        requestCount++;
+        budget = Math.min(budgetCapacity, budget + budgetRatio);
+    }
+
+    @Nullable
+    synchronized Duration retryDelay(int attempt, @NonNull Throwable throwable) {
+        if (attempt >= maxAttempts || !isRetryable(throwable)) {
+            return null;
+        }
+        if (budget < 1) {
+            budgetExhaustedCount++;
+            return null;
+        }
+        budget--;
+        retryCount++;
+        double backoff = Math.min(maxBackoff.toNanos(), Math.scalb((double) initialBackoff.toNanos(), attempt - 1));
+        return Duration.ofNanos((long) (random.nextDouble() * backoff));
+    }
+
+    static boolean isRetryable(@NonNull Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (cause instanceof ResponseException responseException) {
+            return responseException.getStatusCode() == 429 || responseException.getStatusCode() >= 500;
+        }
+        return cause instanceof IOException && !(cause instanceof FileSystemException);
+    }
+
+    public record Stats(long requestCount, long retryCount, long budgetExhaustedCount) {
+    }
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private double budgetRatio = 0.2;
+        private int budgetCapacity = 10;
+        private Random random = new Random();
+
+        private Builder() {
+        }
+
+        public RetryPolicy.Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("Max attempts must be greater than 0.");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public RetryPolicy.Builder initialBackoff(@NonNull Duration initialBackoff) {
+            if (initialBackoff.isNegative() || initialBackoff.isZero()) {
+                throw new IllegalArgumentException("Initial backoff must be greater than 0.");
+            }
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        public RetryPolicy.Builder maxBackoff(@NonNull Duration maxBackoff) {
+            if (maxBackoff.isNegative() || maxBackoff.isZero()) {
+                throw new IllegalArgumentException("Max backoff must be greater than 0.");
+            }
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        public RetryPolicy.Builder budgetRatio(double budgetRatio) {
+            if (budgetRatio < 0) {
+                throw new IllegalArgumentException("Budget ratio must not be negative.");
+            }
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        public RetryPolicy.Builder budgetCapacity(int budgetCapacity) {
+            if (budgetCapacity < 0) {
+                throw new IllegalArgumentException("Budget capacity must not be negative.");
+            }
+            this.budgetCapacity = budgetCapacity;
+            return this;
+        }
+
+        RetryPolicy.Builder random(@NonNull Random random) {
+            this.random = random;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            if (this.initialBackoff.compareTo(this.maxBackoff) > 0) {
+                throw new IllegalStateException("Initial backoff must not be greater than max backoff.");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
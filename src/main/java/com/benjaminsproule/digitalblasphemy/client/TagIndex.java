@@ -0,0 +1,161 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+public final class TagIndex {
+
+    private static final TagIndex EMPTY = new TagIndex(IntBitmap.empty(), Map.of(), Map.of());
+
+    private final IntBitmap all;
+    private final Map<Integer, IntBitmap> tags;
+    private final Map<Integer, IntBitmap> galleries;
+
+    private TagIndex(IntBitmap all, Map<Integer, IntBitmap> tags, Map<Integer, IntBitmap> galleries) {
+        this.all = all;
+        this.tags = tags;
+        this.galleries = galleries;
+    }
+
+    @NonNull
+    public static TagIndex empty() {
+        return EMPTY;
+    }
+
+    @NonNull
+    public static TagIndex of(@NonNull Collection<Wallpaper> wallpapers) {
+        return of(wallpapers, null);
+    }
+
+    @NonNull
+    public static TagIndex of(@NonNull Collection<Wallpaper> wallpapers,
+                              @Nullable Function<Wallpaper, Collection<Integer>> galleries) {
+        Postings all = new Postings();
+        Map<Integer, Postings> tagPostings = new HashMap<>();
+        Map<Integer, Postings> galleryPostings = new HashMap<>();
+        wallpapers.stream()
+                .sorted(Comparator.comparingInt(Wallpaper::id))
+                .forEach(wallpaper -> {
+                    all.add(wallpaper.id());
+                    if (wallpaper.tags() != null) {
+                        wallpaper.tags().values().forEach(tag -> tagPostings
+                                .computeIfAbsent((int) tag.id(), ignored -> new Postings())
+                                .add(wallpaper.id()));
+                    }
+                    if (galleries != null) {
+                        galleries.apply(wallpaper).forEach(gallery -> galleryPostings
+                                .computeIfAbsent(gallery, ignored -> new Postings())
+                                .add(wallpaper.id()));
+                    }
+                });
+        return new TagIndex(all.toBitmap(), bitmaps(tagPostings), bitmaps(galleryPostings));
+    }
+
+    @NonNull
+    public IntBitmap all() {
+        return all;
+    }
+
+    @NonNull
+    public IntBitmap tag(int tagId) {
+        return tags.getOrDefault(tagId, IntBitmap.empty());
+    }
+
+    @NonNull
+    public IntBitmap gallery(int galleryId) {
+        return galleries.getOrDefault(galleryId, IntBitmap.empty());
+    }
+
+    @NonNull
+    public IntBitmap allTags(@NonNull Collection<Integer> tagIds) {
+        return intersection(tags, tagIds);
+    }
+
+    @NonNull
+    public IntBitmap anyTag(@NonNull Collection<Integer> tagIds) {
+        return union(tags, tagIds);
+    }
+
+    @NonNull
+    public IntBitmap allGalleries(@NonNull Collection<Integer> galleryIds) {
+        return intersection(galleries, galleryIds);
+    }
+
+    @NonNull
+    public IntBitmap anyGallery(@NonNull Collection<Integer> galleryIds) {
+        return union(galleries, galleryIds);
+    }
+
+    @NonNull
+    public Set<Integer> tagIds() {
+        return tags.keySet();
+    }
+
+    @NonNull
+    public Set<Integer> galleryIds() {
+        return galleries.keySet();
+    }
+
+    public long sizeInBytes() {
+        return all.sizeInBytes()
+                + tags.values().stream().mapToLong(IntBitmap::sizeInBytes).sum()
+                + galleries.values().stream().mapToLong(IntBitmap::sizeInBytes).sum();
+    }
+
+    private IntBitmap intersection(Map<Integer, IntBitmap> postings, Collection<Integer> ids) {
+        IntBitmap[] bitmaps = ids.stream()
+                .map(id -> postings.getOrDefault(id, IntBitmap.empty()))
+                .sorted(Comparator.comparingInt(IntBitmap::cardinality))
+                .toArray(IntBitmap[]::new);
+        IntBitmap result = all;
+        for (IntBitmap bitmap : bitmaps) {
+            if (result.isEmpty()) {
+                break;
+            }
+            result = result.and(bitmap);
+        }
+        return result;
+    }
+
+    private static IntBitmap union(Map<Integer, IntBitmap> postings, Collection<Integer> ids) {
+        IntBitmap result = IntBitmap.empty();
+        for (Integer id : ids) {
+            result = result.or(postings.getOrDefault(id, IntBitmap.empty()));
+        }
+        return result;
+    }
+
+    private static Map<Integer, IntBitmap> bitmaps(Map<Integer, Postings> postings) {
+        Map<Integer, IntBitmap> bitmaps = new HashMap<>();
+        postings.forEach((id, ids) -> bitmaps.put(id, ids.toBitmap()));
+        return Map.copyOf(bitmaps);
+    }
+
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private IntBitmap toBitmap() {
+            return IntBitmap.of(Arrays.copyOf(ids, size));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpaperRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.Operator;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public final class WallpaperCache {
+
+    private static final ObjectWriter WEIGHER = DigitalBlasphemyClient.OBJECT_MAPPER.writer();
+
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final Duration expireAfterWrite;
+    private final Clock clock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    private WallpaperCache(Builder builder) {
+        this.maximumSize = builder.maximumSize == 0 ? Long.MAX_VALUE : builder.maximumSize;
+        this.maximumWeight = builder.maximumWeight == 0 ? Long.MAX_VALUE : builder.maximumWeight;
+        this.expireAfterWrite = builder.expireAfterWrite;
+        this.clock = builder.clock;
+    }
+
+    public static WallpaperCache.Builder builder() {
+        return new WallpaperCache.Builder();
+    }
+
+    @NonNull
+    public synchronized Stats stats() {
+        return new Stats(hitCount, missCount, evictionCount, entries.size(), weight);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    @Nullable
+    synchronized Wallpaper get(@NonNull GetWallpaperRequest getWallpaperRequest) {
+        Key key = Key.of(getWallpaperRequest);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (clock.millis() >= entry.expiresAt()) {
+            entries.remove(key);
+            weight -= entry.weight();
+            evictionCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.wallpaper();
+    }
+
+    void put(@NonNull GetWallpaperRequest getWallpaperRequest, @NonNull Wallpaper wallpaper) {
+        long wallpaperWeight = weigh(wallpaper);
+        synchronized (this) {
+            long expiresAt = expireAfterWrite == null ? Long.MAX_VALUE : clock.millis() + expireAfterWrite.toMillis();
+            Entry previous = entries.put(Key.of(getWallpaperRequest), new Entry(wallpaper, wallpaperWeight, expiresAt));
+            if (previous != null) {
+                weight -= previous.weight();
+            }
+            weight += wallpaperWeight;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maximumSize || weight > maximumWeight) {
+                weight -= eldest.next().weight();
+                eldest.remove();
+                evictionCount++;
+            }
+        }
+    }
+
+    void putAll(@NonNull GetWallpapersRequest getWallpapersRequest,
+                @NonNull GetWallpapersResponse getWallpapersResponse) {
+        if (getWallpapersRequest.getFilterResHeight() > 0 || getWallpapersRequest.getFilterResWidth() > 0) {
+            return;
+        }
+        getWallpapersResponse.dbCore().wallpapers().values().forEach(wallpaper -> put(
+                GetWallpaperRequest.builder()
+                        .wallpaperId(wallpaper.id())
+                        .showComments(getWallpapersRequest.isShowComments())
+                        .showPickleJar(getWallpapersRequest.isShowPickleJar())
+                        .showResolutions(getWallpapersRequest.isShowResolutions())
+                        .build(),
+                wallpaper
+        ));
+    }
+
+    private static long weigh(Wallpaper wallpaper) {
+        try {
+            return WEIGHER.writeValueAsBytes(wallpaper).length;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public record Stats(long hitCount, long missCount, long evictionCount, long size, long weight) {
+    }
+
+    private record Entry(Wallpaper wallpaper, long weight, long expiresAt) {
+    }
+
+    private record Key(
+            int wallpaperId,
+            long filterResHeight,
+            Operator filterResOperator,
+            Operator filterResOperatorHeight,
+            Operator filterResOperatorWidth,
+            long filterResWidth,
+            boolean showComments,
+            boolean showPickleJar,
+            boolean showResolutions
+    ) {
+        private static Key of(GetWallpaperRequest getWallpaperRequest) {
+            return new Key(
+                    getWallpaperRequest.getWallpaperId(),
+                    Math.max(0, getWallpaperRequest.getFilterResHeight()),
+                    getWallpaperRequest.getFilterResOperator(),
+                    getWallpaperRequest.getFilterResOperatorHeight(),
+                    getWallpaperRequest.getFilterResOperatorWidth(),
+                    Math.max(0, getWallpaperRequest.getFilterResWidth()),
+                    getWallpaperRequest.isShowComments(),
+                    getWallpaperRequest.isShowPickleJar(),
+                    getWallpaperRequest.isShowResolutions()
+            );
+        }
+    }
+
+    public static class Builder {
+        private long maximumSize;
+        private long maximumWeight;
+        private Duration expireAfterWrite;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public WallpaperCache.Builder maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("Maximum size must be greater than 0.");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public WallpaperCache.Builder maximumWeight(long maximumWeight) {
+            if (maximumWeight <= 0) {
+                throw new IllegalArgumentException("Maximum weight must be greater than 0.");
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        public WallpaperCache.Builder expireAfterWrite(@NonNull Duration expireAfterWrite) {
+            if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+                throw new IllegalArgumentException("Expire after write must be greater than 0.");
+            }
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        WallpaperCache.Builder clock(@NonNull Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public WallpaperCache build() {
+            if (this.maximumSize == 0 && this.maximumWeight == 0) {
+                throw new IllegalStateException("Maximum size or maximum weight must be provided.");
+            }
+            return new WallpaperCache(this);
+        }
+    }
+}
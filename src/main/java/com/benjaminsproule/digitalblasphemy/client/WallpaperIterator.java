@@ -0,0 +1,77 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+
+final class WallpaperIterator implements Iterator<Wallpaper>, Flow.Subscriber<Wallpaper> {
+
+    private static final Object COMPLETE = new Object();
+
+    private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+    private Flow.Subscription subscription;
+    private Object next;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(Wallpaper wallpaper) {
+        signals.add(wallpaper);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        signals.add(new Failure(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        signals.add(COMPLETE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            subscription.request(1);
+            next = take();
+        }
+        if (next instanceof Failure failure) {
+            throw new CompletionException(failure.throwable());
+        }
+        return next != COMPLETE;
+    }
+
+    @Override
+    public Wallpaper next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Wallpaper wallpaper = (Wallpaper) next;
+        next = null;
+        return wallpaper;
+    }
+
+    void close() {
+        subscription.cancel();
+    }
+
+    private Object take() {
+        try {
+            return signals.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Failure(e);
+        }
+    }
+
+    private record Failure(Throwable throwable) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+final class WallpaperPublisher implements Flow.Publisher<Wallpaper> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WallpaperPublisher.class);
+
+    private final Function<GetWallpapersRequest, CompletableFuture<GetWallpapersResponse>> getWallpapers;
+    private final GetWallpapersRequest getWallpapersRequest;
+    private final int prefetchPages;
+
+    WallpaperPublisher(@NonNull Function<GetWallpapersRequest, CompletableFuture<GetWallpapersResponse>> getWallpapers,
+                       @NonNull GetWallpapersRequest getWallpapersRequest,
+                       int prefetchPages) {
+        this.getWallpapers = getWallpapers;
+        this.getWallpapersRequest = getWallpapersRequest;
+        this.prefetchPages = prefetchPages;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Wallpaper> subscriber) {
+        subscriber.onSubscribe(new WallpaperSubscription(subscriber));
+    }
+
+    private final class WallpaperSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Wallpaper> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final Queue<CompletableFuture<GetWallpapersResponse>> pages = new ArrayDeque<>();
+        private Iterator<Wallpaper> wallpapers = Collections.emptyIterator();
+        private int nextPage = getWallpapersRequest.getPage();
+        private int lastPage = getWallpapersRequest.getPage();
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        private WallpaperSubscription(Flow.Subscriber<? super Wallpaper> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested wallpapers must be greater than 0.");
+            } else {
+                requested.getAndAccumulate(n, WallpaperSubscription::addCapped);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                emit();
+                if (done || cancelled) {
+                    pages.forEach(page -> page.cancel(true));
+                    pages.clear();
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void emit() {
+            while (!done && !cancelled) {
+                if (error != null) {
+                    done = true;
+                    subscriber.onError(error);
+                    return;
+                }
+                fetchPages();
+                if (wallpapers.hasNext()) {
+                    if (requested.get() == 0) {
+                        return;
+                    }
+                    requested.decrementAndGet();
+                    subscriber.onNext(wallpapers.next());
+                    continue;
+                }
+                CompletableFuture<GetWallpapersResponse> page = pages.peek();
+                if (page == null) {
+                    done = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if (!page.isDone()) {
+                    return;
+                }
+                pages.remove();
+                GetWallpapersResponse getWallpapersResponse;
+                try {
+                    getWallpapersResponse = page.join();
+                } catch (CompletionException e) {
+                    done = true;
+                    subscriber.onError(e.getCause());
+                    return;
+                } catch (CancellationException e) {
+                    done = true;
+                    subscriber.onError(e);
+                    return;
+                }
+                lastPage = getWallpapersResponse.dbCore().totalPages();
+                wallpapers = DigitalBlasphemyClient.wallpapers(getWallpapersResponse).iterator();
+            }
+        }
+
+        private static long addCapped(long current, long additional) {
+            try {
+                return Math.addExact(current, additional);
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        private void fetchPages() {
+            while (pages.size() < prefetchPages && nextPage <= lastPage) {
+                LOGGER.debug("Fetching wallpapers page {}", nextPage);
+                CompletableFuture<GetWallpapersResponse> page =
+                        getWallpapers.apply(getWallpapersRequest.toBuilder().page(nextPage).build());
+                pages.add(page);
+                nextPage++;
+                page.whenComplete((ignored, throwable) -> drain());
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.benjaminsproule.digitalblasphemy.client.model;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Map;
+
+public record GetWallpapersByIdResponse(
+        @NonNull Map<Integer, Wallpaper> wallpapers,
+        @NonNull Map<Integer, Throwable> failures
+) {
+}
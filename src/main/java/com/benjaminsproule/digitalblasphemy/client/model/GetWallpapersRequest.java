@@ -147,6 +147,10 @@ public class GetWallpapersRequest {
         return new Builder();
     }
 
+    public GetWallpapersRequest.Builder toBuilder() {
+        return new Builder(this);
+    }
+
     public static class Builder {
         private final GetWallpapersRequest getWallPapersRequest;
 
@@ -160,6 +164,21 @@ public class GetWallpapersRequest {
             );
         }
 
+        private Builder(GetWallpapersRequest getWallpapersRequest) {
+            this.getWallPapersRequest = new GetWallpapersRequest(
+                    getWallpapersRequest.filterDateDay, getWallpapersRequest.filterDateMonth,
+                    getWallpapersRequest.filterDateYear, getWallpapersRequest.filterDateOperator,
+                    getWallpapersRequest.filterGallery, getWallpapersRequest.filterRating,
+                    getWallpapersRequest.filterRatingOperator, getWallpapersRequest.filterResHeight,
+                    getWallpapersRequest.filterResOperator, getWallpapersRequest.filterResOperatorHeight,
+                    getWallpapersRequest.filterResOperatorWidth, getWallpapersRequest.filterResWidth,
+                    getWallpapersRequest.filterTag, getWallpapersRequest.limit, getWallpapersRequest.order,
+                    getWallpapersRequest.orderBy, getWallpapersRequest.page, getWallpapersRequest.s,
+                    getWallpapersRequest.showComments, getWallpapersRequest.showPickleJar,
+                    getWallpapersRequest.showResolutions
+            );
+        }
+
         public GetWallpapersRequest.Builder filterDateDay(int filterDateDay) {
             if (filterDateDay < 1 || filterDateDay > 31) {
                 throw new IllegalArgumentException("Filter date day must be between 1 and 31.");
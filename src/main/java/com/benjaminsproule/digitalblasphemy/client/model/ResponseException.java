@@ -3,12 +3,17 @@ package com.benjaminsproule.digitalblasphemy.client.model;
 import java.util.List;
 
 public class ResponseException extends RuntimeException {
+    private final int statusCode;
     private final int code;
     private final String description;
     private final List<String> errors;
 
     public ResponseException(ResponseError responseError) {
-        this(responseError.code(), responseError.description(), responseError.errors());
+        this(responseError.code(), responseError);
+    }
+
+    public ResponseException(int statusCode, ResponseError responseError) {
+        this(statusCode, responseError.code(), responseError.description(), responseError.errors());
     }
 
     public ResponseException(int code, String description) {
@@ -16,12 +21,21 @@ public class ResponseException extends RuntimeException {
     }
 
     public ResponseException(int code, String description, List<String> errors) {
+        this(code, code, description, errors);
+    }
+
+    public ResponseException(int statusCode, int code, String description, List<String> errors) {
         super("Code: %d, Description: %s, Errors: %s".formatted(code, description, errors == null ? "[]" : errors));
+        this.statusCode = statusCode;
         this.code = code;
         this.description = description;
         this.errors = errors;
     }
 
+    public int getStatusCode() {
+        return statusCode;
+    }
+
     public int getCode() {
         return code;
     }
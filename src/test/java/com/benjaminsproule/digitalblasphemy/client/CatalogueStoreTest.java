@@ -0,0 +1,374 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpaperResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.benjaminsproule.digitalblasphemy.client.util.FileUtils.readFile;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogueStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Wallpaper wallpaper;
+
+    private CatalogueStore underTest;
+
+    @BeforeEach
+    void setup() throws Exception {
+        wallpaper = new ObjectMapper()
+                .readValue(readFile("getWallpaperSuccessFullyPopulated.json"), GetWallpaperResponse.class)
+                .wallpaper();
+        underTest = open(directory);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        underTest.close();
+    }
+
+    @Test
+    void builderRequiresDirectory() {
+        assertThatThrownBy(() -> CatalogueStore.builder().build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Directory must be provided.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.5, 0, 1, 1.5})
+    void builderRejectsCompactionRatio(double compactionRatio) {
+        assertThatThrownBy(() -> CatalogueStore.builder().compactionRatio(compactionRatio))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Compaction ratio must be between 0 and 1.");
+    }
+
+    @Test
+    void builderRejectsNegativeCompactionMinimumSize() {
+        assertThatThrownBy(() -> CatalogueStore.builder().compactionMinimumSize(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Compaction minimum size must not be negative.");
+    }
+
+    @Test
+    void putStoresFullyPopulatedWallpaper() throws Exception {
+        underTest.put(wallpaper);
+
+        Wallpaper stored = underTest.get(wallpaper.id());
+
+        assertThat(stored).isEqualTo(wallpaper);
+        assertThat(stored.resolutions()).isNotNull();
+        assertThat(stored.tags()).isNotEmpty();
+        assertThat(stored.pickle_jar()).isNotNull();
+        assertThat(underTest.contains(wallpaper.id())).isTrue();
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void getReturnsNullForUnknownWallpaper() throws Exception {
+        assertThat(underTest.get(1)).isNull();
+        assertThat(underTest.contains(1)).isFalse();
+    }
+
+    @Test
+    void putReplacesPreviousVersion() throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+        underTest.put(wallpaper(1, "Second", 20L));
+
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("Second");
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(underTest.latestTimestamp()).isEqualTo(20L);
+    }
+
+    @Test
+    void getAllReturnsEveryStoredWallpaper() throws Exception {
+        underTest.putAll(List.of(wallpaper(1, "First", 10L), wallpaper(2, "Second", 30L)));
+        underTest.put(wallpaper(3, "Third", 20L));
+
+        assertThat(underTest.getAll()).extracting(Wallpaper::id).containsExactly(1, 2, 3);
+        assertThat(underTest.latestTimestamp()).isEqualTo(30L);
+    }
+
+    @Test
+    void removeDeletesWallpaper() throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+
+        assertThat(underTest.remove(1)).isTrue();
+        assertThat(underTest.remove(1)).isFalse();
+        assertThat(underTest.get(1)).isNull();
+
+        underTest.close();
+        underTest = open(directory);
+
+        assertThat(underTest.get(1)).isNull();
+    }
+
+    @Test
+    void reopeningLoadsTheIndex() throws Exception {
+        underTest.putAll(List.of(wallpaper, wallpaper(1, "First", 10L)));
+        underTest.close();
+
+        underTest = open(directory);
+
+        assertThat(underTest.get(wallpaper.id())).isEqualTo(wallpaper);
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("First");
+        assertThat(underTest.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void reopeningWithoutTheIndexReplaysTheLog() throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+        underTest.put(wallpaper(1, "Second", 20L));
+        underTest.put(wallpaper(2, "Other", 20L));
+        underTest.remove(2);
+        underTest.close();
+        Files.delete(directory.resolve("catalogue.idx"));
+
+        underTest = open(directory);
+
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("Second");
+        assertThat(underTest.get(2)).isNull();
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void reopeningReplaysRecordsWrittenAfterTheIndex(@TempDir Path copy) throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+        underTest.flush();
+        underTest.put(wallpaper(2, "Second", 20L));
+        copyStore(directory, copy);
+
+        try (CatalogueStore reopened = open(copy)) {
+            assertThat(reopened.get(1)).extracting(Wallpaper::name).isEqualTo("First");
+            assertThat(reopened.get(2)).extracting(Wallpaper::name).isEqualTo("Second");
+        }
+    }
+
+    @Test
+    void reopeningTruncatesIncompleteRecords() throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+        underTest.close();
+        long size = Files.size(directory.resolve("catalogue.log"));
+        Files.delete(directory.resolve("catalogue.idx"));
+        Files.write(directory.resolve("catalogue.log"), new byte[]{0, 0, 0, 2, 0, 0, 1}, APPEND);
+
+        underTest = open(directory);
+        underTest.put(wallpaper(2, "Second", 20L));
+        underTest.close();
+        underTest = open(directory);
+
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("First");
+        assertThat(underTest.get(2)).extracting(Wallpaper::name).isEqualTo("Second");
+        assertThat(underTest.stats().logBytes()).isGreaterThan(size);
+    }
+
+    @Test
+    void reopeningIgnoresAnIndexOfAnotherLog(@TempDir Path other) throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+        underTest.close();
+        try (CatalogueStore otherStore = open(other)) {
+            otherStore.put(wallpaper(2, "Second", 20L));
+        }
+        Files.copy(other.resolve("catalogue.idx"), directory.resolve("catalogue.idx"), REPLACE_EXISTING);
+
+        underTest = open(directory);
+
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("First");
+        assertThat(underTest.get(2)).isNull();
+    }
+
+    @Test
+    void compactDiscardsSupersededRecords() throws Exception {
+        for (int version = 0; version < 10; version++) {
+            underTest.put(wallpaper(1, "Version " + version, version));
+        }
+        underTest.put(wallpaper(2, "Removed", 20L));
+        underTest.remove(2);
+        long before = underTest.stats().logBytes();
+
+        underTest.compact().get();
+
+        CatalogueStore.Stats stats = underTest.stats();
+        assertThat(stats.logBytes()).isLessThan(before);
+        assertThat(stats.liveBytes()).isEqualTo(stats.logBytes() - 16);
+        assertThat(stats.compactionCount()).isEqualTo(1);
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("Version 9");
+        assertThat(underTest.get(2)).isNull();
+
+        underTest.put(wallpaper(3, "Third", 30L));
+        underTest.close();
+        underTest = open(directory);
+
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("Version 9");
+        assertThat(underTest.get(3)).extracting(Wallpaper::name).isEqualTo("Third");
+        assertThat(Files.exists(directory.resolve("catalogue.log.compacting"))).isFalse();
+    }
+
+    @Test
+    void putCompactsInTheBackgroundOnceMostOfTheLogIsGarbage() throws Exception {
+        underTest.close();
+        underTest = CatalogueStore.builder()
+                .directory(directory)
+                .executor(Runnable::run)
+                .compactionMinimumSize(0)
+                .compactionRatio(0.5)
+                .build();
+
+        underTest.put(wallpaper(1, "First", 10L));
+        underTest.put(wallpaper(2, "Other", 10L));
+
+        assertThat(underTest.stats().compactionCount()).isZero();
+
+        underTest.put(wallpaper(1, "Second", 20L));
+        underTest.put(wallpaper(2, "Other", 20L));
+
+        assertThat(underTest.stats().compactionCount()).isEqualTo(1);
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("Second");
+    }
+
+    @Test
+    void compactIncrementsTheGenerationStoredInTheLog() throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+        long before = generation(directory);
+
+        underTest.compact().get();
+        underTest.compact().get();
+
+        assertThat(generation(directory)).isEqualTo(before + 2);
+    }
+
+    @Test
+    void reopeningSkipsCorruptRecordsInTheMiddleOfTheLog() throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+        underTest.put(wallpaper(2, "Second", 20L));
+        underTest.put(wallpaper(3, "Third", 30L));
+        underTest.close();
+        Files.delete(directory.resolve("catalogue.idx"));
+        Path logFile = directory.resolve("catalogue.log");
+        byte[] log = Files.readAllBytes(logFile);
+        int corrupt = new String(log, StandardCharsets.ISO_8859_1).indexOf("Second");
+        log[corrupt] = 'X';
+        Files.write(logFile, log);
+
+        underTest = open(directory);
+
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("First");
+        assertThat(underTest.get(2)).isNull();
+        assertThat(underTest.get(3)).extracting(Wallpaper::name).isEqualTo("Third");
+        assertThat(underTest.stats().logBytes()).isEqualTo(log.length);
+
+        underTest.put(wallpaper(4, "Fourth", 40L));
+        underTest.close();
+        underTest = open(directory);
+
+        assertThat(underTest.get(3)).extracting(Wallpaper::name).isEqualTo("Third");
+        assertThat(underTest.get(4)).extracting(Wallpaper::name).isEqualTo("Fourth");
+    }
+
+    @Test
+    void closeWaitsForAScheduledCompaction() throws Exception {
+        underTest.close();
+        CountDownLatch release = new CountDownLatch(1);
+        underTest = CatalogueStore.builder()
+                .directory(directory)
+                .executor(runnable -> new Thread(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    runnable.run();
+                }).start())
+                .build();
+        underTest.put(wallpaper(1, "First", 10L));
+        CompletableFuture<Void> compaction = underTest.compact();
+
+        CompletableFuture<Void> closed = CompletableFuture.runAsync(() -> {
+            try {
+                underTest.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertThatThrownBy(() -> closed.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        release.countDown();
+        closed.get(5, TimeUnit.SECONDS);
+
+        assertThat(compaction).isDone();
+        assertThat(Files.exists(directory.resolve("catalogue.log.compacting"))).isFalse();
+        underTest = open(directory);
+        assertThat(underTest.get(1)).extracting(Wallpaper::name).isEqualTo("First");
+    }
+
+    @Test
+    void closeStopsTheCompactionThreadOwnedByTheStore() throws Exception {
+        underTest.put(wallpaper(1, "First", 10L));
+        underTest.compact().get();
+        Thread compactionThread = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("catalogue-store-compaction"))
+                .findFirst()
+                .orElseThrow();
+
+        underTest.close();
+        compactionThread.join(5000);
+
+        assertThat(compactionThread.isAlive()).isFalse();
+    }
+
+    @Test
+    void closedStoreRejectsOperations() throws Exception {
+        underTest.close();
+
+        assertThatThrownBy(() -> underTest.get(1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Catalogue store is closed.");
+    }
+
+    private static CatalogueStore open(Path directory) throws Exception {
+        return CatalogueStore.builder().directory(directory).build();
+    }
+
+    private static long generation(Path directory) throws Exception {
+        return ByteBuffer.wrap(Files.readAllBytes(directory.resolve("catalogue.log"))).getLong(8);
+    }
+
+    private static void copyStore(Path source, Path target) throws Exception {
+        for (String file : List.of("catalogue.log", "catalogue.idx")) {
+            Files.copy(source.resolve(file), target.resolve(file), REPLACE_EXISTING);
+        }
+    }
+
+    private static Wallpaper wallpaper(int wallpaperId, String name, long timestamp) {
+        return new Wallpaper(wallpaperId, null, null, null, null, name,
+                new Wallpaper.Paths("/wallpaper/" + wallpaperId, "/thumbnail/" + wallpaperId, "/sec/" + wallpaperId),
+                new Wallpaper.PickleJar("parent", List.of("sibling")), "4.5",
+                new Wallpaper.Resolutions(List.of(new Wallpaper.Resolutions.Resolution("1920x1080", "1920", "1080",
+                        "/single/1920x1080/" + wallpaperId + ".jpg")), null, null, null),
+                null, Map.of("1", new Wallpaper.Tag(1, "Tag")), timestamp);
+    }
+}
@@ -0,0 +1,356 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.ResponseException;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import com.benjaminsproule.digitalblasphemy.client.model.WallpaperType;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Body;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.benjaminsproule.digitalblasphemy.client.util.FileUtils.readFile;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.serviceUnavailable;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogueSyncTest {
+
+    private static final long JANUARY_1ST_2024 = 1704067200L;
+    private static final long DAY = 86400L;
+
+    private WireMockServer wireMockServer;
+
+    private DigitalBlasphemyClient client;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setup() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        wireMockServer.start();
+        WireMock.configureFor("localhost", wireMockServer.port());
+
+        client = DigitalBlasphemyClient.builder()
+                .apiKey("apiKey")
+                .baseUrl(wireMockServer.baseUrl())
+                .build();
+    }
+
+    @AfterEach
+    void teardown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void builderRequiresClient() {
+        assertThatThrownBy(() -> CatalogueSync.builder().directory(directory).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Client must be provided.");
+    }
+
+    @Test
+    void builderRequiresDirectory() {
+        assertThatThrownBy(() -> CatalogueSync.builder().client(client).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Directory must be provided.");
+    }
+
+    @Test
+    void builderRejectsEmptyTypes() {
+        assertThatThrownBy(() -> CatalogueSync.builder().types(Set.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Types must not be empty.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void builderRejectsConcurrency(int concurrency) {
+        assertThatThrownBy(() -> CatalogueSync.builder().concurrency(concurrency))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Concurrency must be greater than 0.");
+    }
+
+    @Test
+    void syncMirrorsWholeCatalogueOnFirstRun() throws Exception {
+        CatalogueSync underTest = CatalogueSync.builder().client(client).directory(directory).build();
+        stubPage(1, 2, 100, wallpaper(1, JANUARY_1ST_2024), wallpaper(2, JANUARY_1ST_2024 + DAY));
+        stubPage(2, 2, 101, wallpaper(3, JANUARY_1ST_2024 + 2 * DAY));
+        for (int wallpaperId = 1; wallpaperId <= 3; wallpaperId++) {
+            stubDownload(wallpaperId);
+        }
+
+        CatalogueSync.Result result = underTest.sync().get();
+
+        assertThat(result.wallpapers()).extracting(Wallpaper::id).containsExactly(1, 2, 3);
+        assertThat(result.downloaded()).containsExactly(image(1), image(2), image(3));
+        assertThat(image(1)).hasContent("image-1");
+        assertThat(image(3)).hasContent("image-3");
+        assertThat(underTest.checkpoint())
+                .isEqualTo(new CatalogueSync.Checkpoint(JANUARY_1ST_2024 + 2 * DAY, 101));
+        verify(getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*"))
+                .withQueryParam("filter_date_year", absent())
+                .withQueryParam("filter_date_operator", equalTo(">="))
+                .withQueryParam("limit", equalTo("50"))
+                .withQueryParam("order", equalTo("asc"))
+                .withQueryParam("show_resolutions", equalTo("true")));
+        verify(0, getRequestedFor(urlMatching("/v2/core/download/wallpaper/dual/.*")));
+    }
+
+    @Test
+    void syncOnlyListsAndDownloadsWallpapersSinceCheckpoint() throws Exception {
+        CatalogueSync underTest = CatalogueSync.builder()
+                .client(client)
+                .directory(directory)
+                .checkpoint(new CatalogueSync.Checkpoint(JANUARY_1ST_2024 + DAY, 100))
+                .build();
+        stubPage(1, 1, 102, wallpaper(1, JANUARY_1ST_2024), wallpaper(2, JANUARY_1ST_2024 + DAY),
+                wallpaper(4, JANUARY_1ST_2024 + 3 * DAY));
+        stubDownload(2);
+        stubDownload(4);
+        Files.createDirectories(image(2).getParent());
+        Files.writeString(image(2), "existing");
+
+        CatalogueSync.Result result = underTest.sync().get();
+
+        assertThat(result.wallpapers()).extracting(Wallpaper::id).containsExactly(4);
+        assertThat(result.downloaded()).containsExactly(image(4));
+        assertThat(image(2)).hasContent("existing");
+        assertThat(image(4)).hasContent("image-4");
+        assertThat(underTest.checkpoint())
+                .isEqualTo(new CatalogueSync.Checkpoint(JANUARY_1ST_2024 + 3 * DAY, 102));
+        verify(1, getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*"))
+                .withQueryParam("filter_date_year", equalTo("2024"))
+                .withQueryParam("filter_date_month", equalTo("1"))
+                .withQueryParam("filter_date_day", equalTo("1"))
+                .withQueryParam("filter_date_operator", equalTo(">=")));
+        verify(0, getRequestedFor(urlMatching("/v2/core/download/wallpaper/single/1920/1080/1\\?.*")));
+        verify(0, getRequestedFor(urlMatching("/v2/core/download/wallpaper/single/1920/1080/2\\?.*")));
+    }
+
+    @Test
+    void syncDownloadsConfiguredTypes() throws Exception {
+        CatalogueSync underTest = CatalogueSync.builder()
+                .client(client)
+                .directory(directory)
+                .types(Set.of(WallpaperType.DUAL))
+                .showWatermark(false)
+                .build();
+        stubPage(1, 1, 100, wallpaper(1, JANUARY_1ST_2024));
+        stubFor(get(urlMatching("/v2/core/download/wallpaper/dual/3840/1080/1\\?.*"))
+                .withQueryParam("show_watermark", equalTo("false"))
+                .willReturn(ok()
+                        .withHeader("Content-Type", "application/json")
+                        .withResponseBody(new Body(readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                .replace("{{host}}", wireMockServer.baseUrl())
+                                .replace("/test.jpg", "/dual-1.jpg")))));
+        stubFor(get(urlEqualTo("/dual-1.jpg")).willReturn(ok().withResponseBody(new Body("dual-1"))));
+
+        CatalogueSync.Result result = underTest.sync().get();
+
+        Path dual = directory.resolve("dual/3840x1080/wallpaper_1_dual_3840x1080.jpg");
+        assertThat(result.downloaded()).containsExactly(dual);
+        assertThat(dual).hasContent("dual-1");
+        verify(0, getRequestedFor(urlMatching("/v2/core/download/wallpaper/single/.*")));
+    }
+
+    @Test
+    void syncSkipsWallpapersThatFailPermanently() throws Exception {
+        CatalogueSync underTest = CatalogueSync.builder().client(client).directory(directory).build();
+        stubPage(1, 1, 100, wallpaper(1, JANUARY_1ST_2024), wallpaper(2, JANUARY_1ST_2024 + DAY));
+        stubDownload(1);
+        stubDownload(2);
+        stubFor(get(urlEqualTo("/2.jpg")).willReturn(notFound()));
+
+        CatalogueSync.Result result = underTest.sync().get();
+
+        assertThat(result.downloaded()).containsExactly(image(1));
+        assertThat(result.failed()).containsOnlyKeys(image(2));
+        assertThat(result.failed().get(image(2))).isInstanceOf(ResponseException.class);
+        assertThat(underTest.checkpoint()).isEqualTo(new CatalogueSync.Checkpoint(JANUARY_1ST_2024 + DAY, 100));
+        assertThat(image(1)).hasContent("image-1");
+        assertThat(image(2)).doesNotExist();
+    }
+
+    @Test
+    void syncHoldsCheckpointBeforeWallpapersThatFailTemporarily() throws Exception {
+        CatalogueSync underTest = CatalogueSync.builder().client(client).directory(directory).build();
+        stubPage(1, 1, 100, wallpaper(1, JANUARY_1ST_2024), wallpaper(2, JANUARY_1ST_2024 + DAY),
+                wallpaper(3, JANUARY_1ST_2024 + 2 * DAY));
+        for (int wallpaperId = 1; wallpaperId <= 3; wallpaperId++) {
+            stubDownload(wallpaperId);
+        }
+        stubFor(get(urlEqualTo("/2.jpg")).willReturn(serviceUnavailable()));
+
+        CatalogueSync.Result result = underTest.sync().get();
+
+        assertThat(result.downloaded()).containsExactly(image(1), image(3));
+        assertThat(result.failed()).containsOnlyKeys(image(2));
+        assertThat(underTest.checkpoint())
+                .isEqualTo(new CatalogueSync.Checkpoint(JANUARY_1ST_2024 + DAY - 1, 0));
+
+        stubDownload(2);
+
+        CatalogueSync.Result retried = underTest.sync().get();
+
+        assertThat(retried.wallpapers()).extracting(Wallpaper::id).containsExactly(2, 3);
+        assertThat(retried.downloaded()).containsExactly(image(2));
+        assertThat(retried.failed()).isEmpty();
+        assertThat(image(2)).hasContent("image-2");
+        assertThat(underTest.checkpoint())
+                .isEqualTo(new CatalogueSync.Checkpoint(JANUARY_1ST_2024 + 2 * DAY, 100));
+        verify(1, getRequestedFor(urlEqualTo("/1.jpg")));
+        verify(1, getRequestedFor(urlEqualTo("/3.jpg")));
+    }
+
+    @Test
+    void syncDoesNotSelectWallpapersAtTheCheckpointAgain() throws Exception {
+        CatalogueSync underTest = CatalogueSync.builder().client(client).directory(directory).build();
+        stubPage(1, 1, 100, wallpaper(1, JANUARY_1ST_2024), wallpaper(2, JANUARY_1ST_2024 + DAY));
+        stubDownload(1);
+        stubDownload(2);
+        underTest.sync().get();
+
+        CatalogueSync.Result result = underTest.sync().get();
+
+        assertThat(result.wallpapers()).isEmpty();
+        assertThat(result.downloaded()).isEmpty();
+        assertThat(underTest.checkpoint()).isEqualTo(new CatalogueSync.Checkpoint(JANUARY_1ST_2024 + DAY, 100));
+        verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/single/1920/1080/2\\?.*")));
+    }
+
+    @Test
+    void syncStoresChangedWallpapersAndResumesFromTheStore(@TempDir Path storeDirectory) throws Exception {
+        try (CatalogueStore store = CatalogueStore.builder().directory(storeDirectory).build()) {
+            CatalogueSync underTest = CatalogueSync.builder().client(client).directory(directory).store(store).build();
+            stubPage(1, 1, 100, wallpaper(1, JANUARY_1ST_2024), wallpaper(2, JANUARY_1ST_2024 + DAY));
+            stubDownload(1);
+            stubDownload(2);
+
+            underTest.sync().get();
+
+            assertThat(store.get(1)).extracting(Wallpaper::id).isEqualTo(1);
+            assertThat(store.get(2)).extracting(Wallpaper::timestamp).isEqualTo(JANUARY_1ST_2024 + DAY);
+        }
+
+        try (CatalogueStore store = CatalogueStore.builder().directory(storeDirectory).build()) {
+            CatalogueSync underTest = CatalogueSync.builder().client(client).directory(directory).store(store).build();
+
+            assertThat(underTest.checkpoint()).isEqualTo(new CatalogueSync.Checkpoint(JANUARY_1ST_2024 + DAY, 0));
+        }
+    }
+
+    private Path image(int wallpaperId) {
+        return directory.resolve("single/1920x1080/wallpaper_%d_single_1920x1080.jpg".formatted(wallpaperId));
+    }
+
+    private void stubPage(int page, int totalPages, long catalogueTimestamp, String... wallpapers) {
+        List<String> ids = Stream.of(wallpapers)
+                .map(wallpaper -> wallpaper.substring(1, wallpaper.indexOf('"', 1)))
+                .toList();
+        stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                .withQueryParam("page", equalTo(String.valueOf(page)))
+                .withHeader("Authorization", equalTo("Bearer apiKey"))
+                .willReturn(ok()
+                        .withHeader("Content-Type", "application/json")
+                        .withResponseBody(new Body("""
+                                {
+                                  "db_core": {
+                                    "timestamp": %d,
+                                    "endpoints": {
+                                      "api": "https://api.digitalblasphemy.com/v2/core",
+                                      "image": "https://arcadia.digitalblasphemy.com",
+                                      "thumb": "https://cdn.digitalblasphemy.com",
+                                      "web": "https://digitalblasphemy.com"
+                                    },
+                                    "request": {
+                                      "query": {
+                                        "filter_date_operator": ">=",
+                                        "filter_res_height": 0,
+                                        "filter_res_operator": ">=",
+                                        "filter_res_width": 0,
+                                        "limit": 50,
+                                        "order": "asc",
+                                        "order_by": "date",
+                                        "page": %d,
+                                        "show_comments": false,
+                                        "show_pickle_jar": false,
+                                        "show_resolutions": true
+                                      }
+                                    },
+                                    "total_pages": %d,
+                                    "wallpapers": {%s}
+                                  },
+                                  "wallpapers": [%s]
+                                }
+                                """.formatted(catalogueTimestamp, page, totalPages, String.join(",", wallpapers),
+                                String.join(",", ids))))));
+    }
+
+    private void stubDownload(int wallpaperId) throws Exception {
+        stubFor(get(urlMatching("/v2/core/download/wallpaper/single/1920/1080/" + wallpaperId + "\\?.*"))
+                .withHeader("Authorization", equalTo("Bearer apiKey"))
+                .willReturn(ok()
+                        .withHeader("Content-Type", "application/json")
+                        .withResponseBody(new Body(readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                .replace("{{host}}", wireMockServer.baseUrl())
+                                .replace("/test.jpg", "/" + wallpaperId + ".jpg")))));
+        stubFor(get(urlEqualTo("/" + wallpaperId + ".jpg"))
+                .willReturn(ok().withResponseBody(new Body("image-" + wallpaperId))));
+    }
+
+    private static String wallpaper(int wallpaperId, long timestamp) {
+        return """
+                "%1$d": {
+                  "id": %1$d,
+                  "name": "Wallpaper %1$d",
+                  "paths": {
+                    "api": "/wallpaper/%1$d",
+                    "thumb": "/thumbnail/wallpaper_%1$d_thumbnail.jpg",
+                    "web": "/sec/wallpaper_%1$d/"
+                  },
+                  "resolutions": {
+                    "single": [
+                      {
+                        "label": "1920x1080",
+                        "width": "1920",
+                        "height": "1080",
+                        "image": "/single/1920x1080/wallpaper_%1$d_single_1920x1080.jpg"
+                      }
+                    ],
+                    "dual": [
+                      {
+                        "label": "3840x1080",
+                        "width": "3840",
+                        "height": "1080",
+                        "image": "/dual/3840x1080/wallpaper_%1$d_dual_3840x1080.jpg"
+                      }
+                    ]
+                  },
+                  "timestamp": %2$d
+                }
+                """.formatted(wallpaperId, timestamp);
+    }
+}
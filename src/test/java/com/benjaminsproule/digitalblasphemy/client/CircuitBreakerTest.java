@@ -0,0 +1,322 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.ResponseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.EOFException;
+import java.net.ConnectException;
+import java.nio.file.NoSuchFileException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static com.benjaminsproule.digitalblasphemy.client.CircuitBreaker.State.CLOSED;
+import static com.benjaminsproule.digitalblasphemy.client.CircuitBreaker.State.HALF_OPEN;
+import static com.benjaminsproule.digitalblasphemy.client.CircuitBreaker.State.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private static final String HOST = "cdn.example.com";
+    private static final ResponseException SERVER_ERROR = new ResponseException(503, "Service Unavailable");
+
+    private final MutableClock clock = new MutableClock();
+    private final List<String> transitions = new ArrayList<>();
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void builderRejectsFailureThreshold(int failureThreshold) {
+        assertThatThrownBy(() -> CircuitBreaker.builder().failureThreshold(failureThreshold))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Failure threshold must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void builderRejectsOpenDuration(long openDuration) {
+        assertThatThrownBy(() -> CircuitBreaker.builder().openDuration(Duration.ofSeconds(openDuration)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Open duration must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void builderRejectsHalfOpenRequests(int halfOpenRequests) {
+        assertThatThrownBy(() -> CircuitBreaker.builder().halfOpenRequests(halfOpenRequests))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Half open requests must be greater than 0.");
+    }
+
+    @Test
+    void stateIsClosedForUnknownHost() {
+        CircuitBreaker underTest = CircuitBreaker.builder().build();
+
+        assertThat(underTest.state(HOST)).isEqualTo(CLOSED);
+        assertThat(underTest.isOpen(HOST)).isFalse();
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker underTest = circuitBreaker(2, 1);
+
+        fail(underTest);
+        succeed(underTest);
+        fail(underTest);
+
+        assertThat(underTest.state(HOST)).isEqualTo(CLOSED);
+
+        fail(underTest);
+
+        assertThat(underTest.state(HOST)).isEqualTo(OPEN);
+        assertThat(underTest.isOpen(HOST)).isTrue();
+        assertThat(underTest.tryAcquire(HOST)).isNull();
+        assertThat(underTest.state("api.example.com")).isEqualTo(CLOSED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    void opensWithoutListener() {
+        CircuitBreaker underTest = CircuitBreaker.builder().failureThreshold(1).build();
+
+        fail(underTest);
+
+        assertThat(underTest.state(HOST)).isEqualTo(OPEN);
+    }
+
+    @Test
+    void ignoresClientErrors() {
+        CircuitBreaker underTest = circuitBreaker(1, 1);
+
+        underTest.onComplete(underTest.tryAcquire(HOST), new ResponseException(404, "Not Found"));
+        underTest.onComplete(underTest.tryAcquire(HOST), new ResponseException(404, "Not Found"));
+
+        assertThat(underTest.state(HOST)).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void allowsTrialRequestsAfterOpenDuration() {
+        CircuitBreaker underTest = circuitBreaker(2, 2);
+        fail(underTest);
+        fail(underTest);
+
+        clock.advance(Duration.ofSeconds(10).minusNanos(1));
+
+        assertThat(underTest.isOpen(HOST)).isTrue();
+        assertThat(underTest.tryAcquire(HOST)).isNull();
+
+        clock.advance(Duration.ofNanos(1));
+
+        assertThat(underTest.isOpen(HOST)).isFalse();
+        assertThat(underTest.state(HOST)).isEqualTo(OPEN);
+        assertThat(underTest.tryAcquire(HOST)).isNotNull();
+        assertThat(underTest.tryAcquire(HOST)).isNotNull();
+        assertThat(underTest.tryAcquire(HOST)).isNull();
+        assertThat(underTest.state(HOST)).isEqualTo(HALF_OPEN);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN");
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialRequests() {
+        CircuitBreaker underTest = circuitBreaker(2, 2);
+        fail(underTest);
+        fail(underTest);
+        clock.advance(Duration.ofSeconds(10));
+        CircuitBreaker.Permit first = underTest.tryAcquire(HOST);
+        CircuitBreaker.Permit second = underTest.tryAcquire(HOST);
+
+        underTest.onComplete(first, null);
+
+        assertThat(underTest.state(HOST)).isEqualTo(HALF_OPEN);
+
+        underTest.onComplete(second, null);
+
+        assertThat(underTest.state(HOST)).isEqualTo(CLOSED);
+        assertThat(underTest.tryAcquire(HOST)).isNotNull();
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+    }
+
+    @Test
+    void reopensWhenTrialRequestFails() {
+        CircuitBreaker underTest = circuitBreaker(2, 2);
+        fail(underTest);
+        fail(underTest);
+        clock.advance(Duration.ofSeconds(10));
+
+        underTest.onComplete(underTest.tryAcquire(HOST), SERVER_ERROR);
+
+        assertThat(underTest.state(HOST)).isEqualTo(OPEN);
+        assertThat(underTest.isOpen(HOST)).isTrue();
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN");
+
+        clock.advance(Duration.ofSeconds(10));
+        CircuitBreaker.Permit first = underTest.tryAcquire(HOST);
+        CircuitBreaker.Permit second = underTest.tryAcquire(HOST);
+        underTest.onComplete(first, null);
+        underTest.onComplete(second, null);
+
+        assertThat(underTest.state(HOST)).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void staysOpenWhenRequestsFromBeforeOpeningComplete() {
+        CircuitBreaker underTest = circuitBreaker(2, 1);
+        CircuitBreaker.Permit first = underTest.tryAcquire(HOST);
+        underTest.tryAcquire(HOST);
+        fail(underTest);
+        fail(underTest);
+
+        underTest.onComplete(first, null);
+
+        assertThat(underTest.state(HOST)).isEqualTo(OPEN);
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    void cancelledTrialRequestFreesItsSlot() {
+        CircuitBreaker underTest = circuitBreaker(2, 1);
+        fail(underTest);
+        fail(underTest);
+        clock.advance(Duration.ofSeconds(10));
+        CircuitBreaker.Permit permit = underTest.tryAcquire(HOST);
+
+        underTest.onCancel(permit);
+
+        assertThat(underTest.state(HOST)).isEqualTo(HALF_OPEN);
+        assertThat(underTest.tryAcquire(HOST)).isNotNull();
+        assertThat(underTest.tryAcquire(HOST)).isNull();
+    }
+
+    @Test
+    void cancelledRequestFromBeforeHalfOpenDoesNotFreeTrialSlot() {
+        CircuitBreaker underTest = circuitBreaker(2, 1);
+        CircuitBreaker.Permit closedPermit = underTest.tryAcquire(HOST);
+        fail(underTest);
+        fail(underTest);
+        clock.advance(Duration.ofSeconds(10));
+        underTest.tryAcquire(HOST);
+
+        underTest.onCancel(closedPermit);
+
+        assertThat(underTest.tryAcquire(HOST)).isNull();
+    }
+
+    @Test
+    void cancelledTrialFromEarlierHalfOpenDoesNotFreeTrialSlot() {
+        CircuitBreaker underTest = circuitBreaker(2, 1);
+        fail(underTest);
+        fail(underTest);
+        clock.advance(Duration.ofSeconds(10));
+        CircuitBreaker.Permit earlierTrial = underTest.tryAcquire(HOST);
+        underTest.onCancel(earlierTrial);
+        fail(underTest);
+        clock.advance(Duration.ofSeconds(10));
+        underTest.tryAcquire(HOST);
+
+        underTest.onCancel(earlierTrial);
+
+        assertThat(underTest.tryAcquire(HOST)).isNull();
+    }
+
+    @Test
+    void rejectedRequestsDoNotTakeTrialSlots() {
+        CircuitBreaker underTest = circuitBreaker(2, 1);
+        fail(underTest);
+        fail(underTest);
+        clock.advance(Duration.ofSeconds(10));
+        CircuitBreaker.Permit permit = underTest.tryAcquire(HOST);
+        underTest.tryAcquire(HOST);
+        underTest.tryAcquire(HOST);
+
+        underTest.onCancel(permit);
+
+        assertThat(underTest.tryAcquire(HOST)).isNotNull();
+    }
+
+    @Test
+    void cancelledRequestDoesNotResetFailures() {
+        CircuitBreaker underTest = circuitBreaker(2, 1);
+        fail(underTest);
+        CircuitBreaker.Permit permit = underTest.tryAcquire(HOST);
+
+        underTest.onCancel(permit);
+        fail(underTest);
+
+        assertThat(underTest.state(HOST)).isEqualTo(OPEN);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {500, 502, 503})
+    void isFailureForServerErrors(int statusCode) {
+        assertThat(CircuitBreaker.isFailure(new ResponseException(statusCode, "error"))).isTrue();
+        assertThat(CircuitBreaker.isFailure(new CompletionException(new ResponseException(statusCode, "error"))))
+                .isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 404, 429, 499})
+    void isFailureIsFalseForClientErrors(int statusCode) {
+        assertThat(CircuitBreaker.isFailure(new ResponseException(statusCode, "error"))).isFalse();
+    }
+
+    @Test
+    void isFailureForConnectionFailures() {
+        assertThat(CircuitBreaker.isFailure(new ConnectException())).isTrue();
+        assertThat(CircuitBreaker.isFailure(new CompletionException(new EOFException()))).isTrue();
+    }
+
+    @Test
+    void isFailureIsFalseForOtherOutcomes() {
+        assertThat(CircuitBreaker.isFailure(null)).isFalse();
+        assertThat(CircuitBreaker.isFailure(new NoSuchFileException("file"))).isFalse();
+        assertThat(CircuitBreaker.isFailure(new IllegalStateException())).isFalse();
+    }
+
+    private CircuitBreaker circuitBreaker(int failureThreshold, int halfOpenRequests) {
+        return CircuitBreaker.builder()
+                .failureThreshold(failureThreshold)
+                .openDuration(Duration.ofSeconds(10))
+                .halfOpenRequests(halfOpenRequests)
+                .listener((host, from, to) -> transitions.add(from + "->" + to))
+                .clock(clock)
+                .build();
+    }
+
+    private void fail(CircuitBreaker underTest) {
+        underTest.onComplete(underTest.tryAcquire(HOST), SERVER_ERROR);
+    }
+
+    private void succeed(CircuitBreaker underTest) {
+        underTest.onComplete(underTest.tryAcquire(HOST), null);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.EPOCH;
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -2,32 +2,73 @@ package com.benjaminsproule.digitalblasphemy.client;
 
 import com.benjaminsproule.digitalblasphemy.client.model.*;
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.http.Body;
 import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
 import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import java.io.EOFException;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.benjaminsproule.digitalblasphemy.client.util.FileUtils.readFile;
@@ -49,7 +90,10 @@ class DigitalBlasphemyClientTest {
         wireMockServer.start();
         WireMock.configureFor("localhost", wireMockServer.port());
 
-        underTest = new DigitalBlasphemyClient("apiKey", wireMockServer.baseUrl());
+        underTest = DigitalBlasphemyClient.builder()
+                .apiKey("apiKey")
+                .baseUrl(wireMockServer.baseUrl())
+                .build();
     }
 
     @AfterEach
@@ -72,6 +116,13 @@ class DigitalBlasphemyClientTest {
                 .isEqualTo(URI.create("https://api.digitalblasphemy.com/v2/core/download/wallpaper/"));
     }
 
+    @Test
+    void constructorDoesNotValidateApiKey() throws Exception {
+        DigitalBlasphemyClient digitalBlasphemyClient = new DigitalBlasphemyClient(" ");
+
+        assertThat(getField(digitalBlasphemyClient, "apiKey")).isEqualTo(" ");
+    }
+
     private static Object getField(DigitalBlasphemyClient digitalBlasphemyClient, String fieldName) throws Exception {
         Field field = DigitalBlasphemyClient.class.getDeclaredField(fieldName);
         field.setAccessible(true);
@@ -80,6 +131,257 @@ class DigitalBlasphemyClientTest {
         return fieldValue;
     }
 
+    private DownloadWallpaperRequest stubDownloadWallpaper(ResponseDefinitionBuilder fileResponse) throws Exception {
+        DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                .type(WallpaperType.DUAL)
+                .width(2)
+                .height(3)
+                .wallpaperId(4)
+                .showWatermark(false)
+                .build();
+
+        stubFor(get(urlMatching(
+                "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                        downloadWallpaperRequest.getType(),
+                        downloadWallpaperRequest.getWidth(),
+                        downloadWallpaperRequest.getHeight(),
+                        downloadWallpaperRequest.getWallpaperId()
+                )))
+                .withHeader("Authorization", equalTo("Bearer apiKey"))
+                .willReturn(ok()
+                        .withHeader("Content-Type", "application/json")
+                        .withResponseBody(new Body(
+                                readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                        .replace("{{host}}", wireMockServer.baseUrl())
+                        ))));
+
+        stubFor(get(urlMatching("/test.jpg"))
+                .withHeader("Authorization", equalTo("Bearer apiKey"))
+                .willReturn(fileResponse));
+
+        return downloadWallpaperRequest;
+    }
+
+    @Nested
+    class ClientBuilder {
+        @ParameterizedTest
+        @ValueSource(strings = {"", " "})
+        void builderRejectsApiKey(String apiKey) {
+            assertThatThrownBy(() -> DigitalBlasphemyClient.builder().apiKey(apiKey))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("API key must not be an empty or blank string.");
+        }
+
+        @Test
+        void builderRejectsBuildWhenApiKeyNotProvided() {
+            assertThatThrownBy(() -> DigitalBlasphemyClient.builder().build())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("API key must be provided.");
+        }
+
+        @ParameterizedTest
+        @ValueSource(longs = {-1, 0})
+        void builderRejectsRequestTimeout(long requestTimeout) {
+            assertThatThrownBy(() -> DigitalBlasphemyClient.builder().requestTimeout(Duration.ofMillis(requestTimeout)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Request timeout must be greater than 0.");
+        }
+
+        @ParameterizedTest
+        @MethodSource("httpClientSettings")
+        void builderRejectsHttpClientSettingsWithProvidedHttpClient(
+                Function<DigitalBlasphemyClient.Builder, DigitalBlasphemyClient.Builder> httpClientSetting) {
+            DigitalBlasphemyClient.Builder builder = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .httpClient(HttpClient.newHttpClient());
+
+            assertThatThrownBy(() -> httpClientSetting.apply(builder).build())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("HTTP client settings cannot be combined with a provided HTTP client.");
+        }
+
+        static Stream<Function<DigitalBlasphemyClient.Builder, DigitalBlasphemyClient.Builder>> httpClientSettings() {
+            return Stream.of(
+                    builder -> builder.version(HttpClient.Version.HTTP_1_1),
+                    builder -> builder.connectTimeout(Duration.ofSeconds(1)),
+                    builder -> builder.httpExecutor(Runnable::run),
+                    DigitalBlasphemyClient.Builder::virtualThreads
+            );
+        }
+
+        @Test
+        void builderProvidesDefaults() throws Exception {
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder().apiKey("apiKey").build();
+
+            assertThat(getField(digitalBlasphemyClient, "apiKey")).isEqualTo("apiKey");
+            assertThat(getField(digitalBlasphemyClient, "accountInformationPath"))
+                    .isEqualTo(URI.create("https://api.digitalblasphemy.com/v2/core/account"));
+            assertThat(getField(digitalBlasphemyClient, "executor")).isSameAs(ForkJoinPool.commonPool());
+            assertThat(getField(digitalBlasphemyClient, "requestTimeout")).isNull();
+            assertThat(objectReaders(digitalBlasphemyClient)).containsOnlyKeys(
+                    GetAccountInformationResponse.class,
+                    GetWallpapersResponse.class,
+                    GetWallpaperResponse.class,
+                    DownloadWallpaperResponse.class,
+                    ResponseError.class
+            );
+            assertThat(getField(digitalBlasphemyClient, "clock")).isEqualTo(Clock.systemUTC());
+            HttpClient httpClient = (HttpClient) getField(digitalBlasphemyClient, "client");
+            assertThat(httpClient.version()).isEqualTo(HttpClient.Version.HTTP_2);
+            assertThat(httpClient.connectTimeout()).isEmpty();
+            assertThat(httpClient.executor()).isEmpty();
+        }
+
+        @Test
+        void builderSharesDefaultObjectMapperBetweenClients() throws Exception {
+            DigitalBlasphemyClient first = DigitalBlasphemyClient.builder().apiKey("apiKey").build();
+            DigitalBlasphemyClient second = DigitalBlasphemyClient.builder().apiKey("apiKey").build();
+
+            assertThat(objectReaders(first).get(GetWallpapersResponse.class).getFactory())
+                    .isSameAs(objectReaders(second).get(GetWallpapersResponse.class).getFactory());
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<Class<?>, ObjectReader> objectReaders(DigitalBlasphemyClient digitalBlasphemyClient)
+                throws Exception {
+            return (Map<Class<?>, ObjectReader>) getField(digitalBlasphemyClient, "objectReaders");
+        }
+
+        @Test
+        void builderUsesProvidedHttpClient() throws Exception {
+            HttpClient httpClient = HttpClient.newHttpClient();
+
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .httpClient(httpClient)
+                    .build();
+
+            assertThat(getField(digitalBlasphemyClient, "client")).isSameAs(httpClient);
+        }
+
+        @Test
+        void builderConfiguresHttpClient() throws Exception {
+            Executor httpExecutor = Runnable::run;
+
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .httpExecutor(httpExecutor)
+                    .build();
+
+            HttpClient httpClient = (HttpClient) getField(digitalBlasphemyClient, "client");
+            assertThat(httpClient.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+            assertThat(httpClient.connectTimeout()).contains(Duration.ofSeconds(5));
+            assertThat(httpClient.executor()).containsSame(httpExecutor);
+        }
+
+        @Test
+        void builderOverridesDefaults() throws Exception {
+            Executor executor = Runnable::run;
+            ObjectMapper objectMapper = new ObjectMapper();
+            Clock clock = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .executor(executor)
+                    .requestTimeout(Duration.ofSeconds(3))
+                    .objectMapper(objectMapper)
+                    .clock(clock)
+                    .build();
+
+            assertThat(getField(digitalBlasphemyClient, "executor")).isSameAs(executor);
+            assertThat(getField(digitalBlasphemyClient, "requestTimeout")).isEqualTo(Duration.ofSeconds(3));
+            assertThat(objectReaders(digitalBlasphemyClient).values())
+                    .allSatisfy(objectReader -> assertThat(objectReader.getFactory())
+                            .isSameAs(objectMapper.getFactory()));
+            assertThat(getField(digitalBlasphemyClient, "clock")).isSameAs(clock);
+        }
+
+        @Test
+        void builderConfiguresVirtualThreads() throws Exception {
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .virtualThreads()
+                    .build();
+
+            Executor executor = (Executor) getField(digitalBlasphemyClient, "executor");
+            HttpClient httpClient = (HttpClient) getField(digitalBlasphemyClient, "client");
+            assertThat(httpClient.executor()).containsSame(executor);
+            CompletableFuture<Thread> thread = CompletableFuture.supplyAsync(Thread::currentThread, executor);
+            assertThat(thread.get().isVirtual()).isTrue();
+            assertThat(thread.get().getName()).startsWith("digital-blasphemy-");
+        }
+
+        @Test
+        void closeShutsDownVirtualThreadExecutor() throws Exception {
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .virtualThreads()
+                    .build();
+            ExecutorService executor = (ExecutorService) getField(digitalBlasphemyClient, "executor");
+
+            digitalBlasphemyClient.close();
+
+            assertThat(executor.isShutdown()).isTrue();
+        }
+
+        @Test
+        void closeLeavesProvidedExecutorRunning() throws Exception {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                        .apiKey("apiKey")
+                        .executor(executor)
+                        .build();
+
+                digitalBlasphemyClient.close();
+
+                assertThat(executor.isShutdown()).isFalse();
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        void clientRunsCallbacksOnProvidedExecutor() throws Exception {
+            stubFor(get("/v2/core/account")
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("getAccountInformationSuccess.json")))));
+            AtomicInteger executions = new AtomicInteger();
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(runnable -> {
+                        executions.incrementAndGet();
+                        runnable.run();
+                    })
+                    .build();
+
+            digitalBlasphemyClient.getAccountInformation().get();
+
+            assertThat(executions).hasPositiveValue();
+        }
+
+        @Test
+        void clientAppliesRequestTimeout() {
+            stubFor(get("/v2/core/account")
+                    .willReturn(ok().withFixedDelay(5000)));
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .requestTimeout(Duration.ofMillis(100))
+                    .build();
+
+            assertThatThrownBy(() -> digitalBlasphemyClient.getAccountInformation().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(HttpTimeoutException.class);
+        }
+    }
+
     @Nested
     class GetAccountInformation {
         @Test
@@ -165,6 +467,93 @@ class DigitalBlasphemyClientTest {
         }
     }
 
+    @Nested
+    class GetAccountInformationSync {
+        @Test
+        void getAccountInformationSyncCanMapSuccessfulResponse() throws Exception {
+            stubFor(get("/v2/core/account")
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("getAccountInformationSuccess.json")
+                            ))));
+
+            GetAccountInformationResponse getAccountInformationResponse = underTest.getAccountInformationSync();
+
+            GetAccountInformationResponse expectedGetAccountInformationResponse = new GetAccountInformationResponse(
+                    new GetAccountInformationResponse.DBCore(1),
+                    new GetAccountInformationResponse.User(true, "username", 2, true, true)
+            );
+            assertThat(getAccountInformationResponse).isEqualTo(expectedGetAccountInformationResponse);
+
+            verify(1, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationSyncCanMapUnauthorisedResponse() throws Exception {
+            stubFor(get("/v2/core/account")
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(unauthorized()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("unauthorisedResponse.json")
+                            ))));
+
+            assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                    .isInstanceOf(ResponseException.class)
+                    .hasMessage(new ResponseException(401, "Unauthorized").getMessage());
+
+            verify(1, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationSyncCanMapUnknownErrorResponse() {
+            stubFor(get("/v2/core/account")
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(aResponse().withStatus(405)));
+
+            assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                    .isInstanceOf(ResponseException.class)
+                    .hasMessage(new ResponseException(0, "Unable to parse the body as JSON ErrorResponse. []")
+                            .getMessage());
+
+            verify(1, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationSyncCanMapNonJsonResponse() {
+            stubFor(get("/v2/core/account")
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(aResponse()
+                            .withResponseBody(
+                                    Body.ofBinaryOrText("<xml/>".getBytes(StandardCharsets.UTF_8),
+                                            new ContentTypeHeader("application/xml"))
+                            )));
+
+            assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                    .isInstanceOf(JsonParseException.class)
+                    .message().startsWith("Unexpected character ('<' (code 60))");
+
+            verify(getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationSyncAppliesRequestTimeout() {
+            stubFor(get("/v2/core/account")
+                    .willReturn(ok().withFixedDelay(5000)));
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .requestTimeout(Duration.ofMillis(100))
+                    .build();
+
+            assertThatThrownBy(digitalBlasphemyClient::getAccountInformationSync)
+                    .isInstanceOf(HttpTimeoutException.class);
+        }
+    }
+
     @Nested
     class GetWallpapers {
         @ParameterizedTest
@@ -756,6 +1145,184 @@ class DigitalBlasphemyClientTest {
         }
     }
 
+    @Nested
+    class GetWallpapersSync {
+        @ParameterizedTest
+        @ValueSource(strings = {"getWallpapersSuccessFullyPopulated.json", "getWallpapersSuccessMinimalPopulated.json"})
+        void getWallpapersSyncMapsResponseTheSameAsGetWallpapers(String response) throws Exception {
+            GetWallpapersRequest getWallpapersRequest = GetWallpapersRequest.builder().build();
+
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile(response)))));
+
+            GetWallpapersResponse getWallpapersResponse = underTest.getWallpapersSync(getWallpapersRequest);
+
+            assertThat(getWallpapersResponse).isEqualTo(underTest.getWallpapers(getWallpapersRequest).get());
+
+            verify(2, getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*")));
+        }
+
+        @Test
+        void getWallpapersSyncCanMapBadRequestResponse() throws Exception {
+            GetWallpapersRequest getWallpapersRequest = GetWallpapersRequest.builder().build();
+
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(badRequest()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("getWallpapersBadRequest.json")
+                            ))));
+
+            assertThatThrownBy(() -> underTest.getWallpapersSync(getWallpapersRequest))
+                    .isInstanceOf(ResponseException.class)
+                    .extracting("code")
+                    .isEqualTo(400);
+
+            verify(1, getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*")));
+        }
+    }
+
+    @Nested
+    class GetAllWallpapers {
+        @BeforeEach
+        void setUp() throws Exception {
+            for (int page = 1; page <= 3; page++) {
+                stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                        .withQueryParam("page", equalTo(String.valueOf(page)))
+                        .withHeader("Authorization", equalTo("Bearer apiKey"))
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withResponseBody(new Body(readFile("getWallpapersSuccessFullyPopulated.json")
+                                        .replace("\"total_pages\": 12", "\"total_pages\": 3")))));
+            }
+        }
+
+        @Test
+        void getAllWallpapersReturnsWallpapersFromEveryPage() throws Exception {
+            List<Wallpaper> wallpapers = underTest.getAllWallpapers(GetWallpapersRequest.builder().build(), 2).get();
+
+            assertThat(wallpapers).extracting(Wallpaper::id).containsExactly(13, 40, 13, 40, 13, 40);
+            for (int page = 1; page <= 3; page++) {
+                verify(1, getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*page=%d&.*".formatted(page))));
+            }
+        }
+
+        @Test
+        void getAllWallpapersStartsFromRequestedPage() throws Exception {
+            List<Wallpaper> wallpapers = underTest.getAllWallpapers(GetWallpapersRequest.builder().page(2).build(), 1)
+                    .get();
+
+            assertThat(wallpapers).extracting(Wallpaper::id).containsExactly(13, 40, 13, 40);
+            verify(0, getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*page=1&.*")));
+        }
+
+        @Test
+        void getAllWallpapersFailsWhenAPageFails() {
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                    .withQueryParam("page", equalTo("3"))
+                    .willReturn(notFound().withBody("Not Found")));
+
+            assertThatThrownBy(() -> underTest.getAllWallpapers(GetWallpapersRequest.builder().build(), 2).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new ResponseException(404, "Not Found", List.of("Not Found")));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-1, 0})
+        void getAllWallpapersRejectsConcurrency(int concurrency) {
+            assertThatThrownBy(() -> underTest.getAllWallpapers(GetWallpapersRequest.builder().build(), concurrency))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Concurrency must be greater than 0.");
+        }
+    }
+
+    @Nested
+    class StreamWallpapers {
+        @BeforeEach
+        void setUp() throws Exception {
+            for (int page = 1; page <= 2; page++) {
+                stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                        .withQueryParam("page", equalTo(String.valueOf(page)))
+                        .withHeader("Authorization", equalTo("Bearer apiKey"))
+                        .willReturn(ok()
+                                .withHeader("Content-Type", "application/json")
+                                .withResponseBody(new Body(readFile("getWallpapersSuccessFullyPopulated.json")
+                                        .replace("\"total_pages\": 12", "\"total_pages\": 2")))));
+            }
+        }
+
+        @Test
+        void streamWallpapersReturnsWallpapersFromEveryPage() {
+            try (Stream<Wallpaper> wallpapers = underTest.streamWallpapers(GetWallpapersRequest.builder().build())) {
+                assertThat(wallpapers.map(Wallpaper::id)).containsExactly(13, 40, 13, 40);
+            }
+
+            verify(1, getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*page=1&.*")));
+            verify(1, getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*page=2&.*")));
+        }
+
+        @Test
+        void streamWallpapersThrowsResponseException() {
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                    .withQueryParam("page", equalTo("2"))
+                    .willReturn(notFound().withBody("Not Found")));
+
+            try (Stream<Wallpaper> wallpapers = underTest.streamWallpapers(GetWallpapersRequest.builder().build(), 1)) {
+                assertThatThrownBy(wallpapers::toList)
+                        .isInstanceOf(CompletionException.class)
+                        .hasCause(new ResponseException(404, "Not Found", List.of("Not Found")));
+            }
+        }
+
+        @Test
+        void publishWallpapersPublishesWallpapersFromEveryPage() throws Exception {
+            List<Wallpaper> wallpapers = new CopyOnWriteArrayList<>();
+            CompletableFuture<Void> completed = new CompletableFuture<>();
+
+            underTest.publishWallpapers(GetWallpapersRequest.builder().build()).subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(Wallpaper wallpaper) {
+                    wallpapers.add(wallpaper);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completed.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.complete(null);
+                }
+            });
+            completed.get();
+
+            assertThat(wallpapers).extracting(Wallpaper::id).containsExactly(13, 40, 13, 40);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-1, 0})
+        void rejectsPrefetchPages(int prefetchPages) {
+            GetWallpapersRequest getWallpapersRequest = GetWallpapersRequest.builder().build();
+
+            assertThatThrownBy(() -> underTest.publishWallpapers(getWallpapersRequest, prefetchPages))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Prefetch pages must be greater than 0.");
+            assertThatThrownBy(() -> underTest.streamWallpapers(getWallpapersRequest, prefetchPages))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Prefetch pages must be greater than 0.");
+        }
+    }
+
     @Nested
     class GetWallpaper {
         @ParameterizedTest
@@ -1066,304 +1633,1666 @@ class DigitalBlasphemyClientTest {
     }
 
     @Nested
-    class DownloadWallpaper {
-        @Test
-        void downloadWallpaperDoesSendShowWatermarkIfNotProvided() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.SINGLE)
-                    .width(1)
-                    .height(1)
-                    .wallpaperId(1)
-                    .build();
+    class GetWallpaperSync {
+        @ParameterizedTest
+        @ValueSource(strings = {"getWallpaperSuccessFullyPopulated.json", "getWallpaperSuccessMinimalPopulated.json"})
+        void getWallpaperSyncMapsResponseTheSameAsGetWallpaper(String response) throws Exception {
+            GetWallpaperRequest getWallpaperRequest = GetWallpaperRequest.builder().wallpaperId(1).build();
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
+            stubFor(get(urlMatching("/v2/core/wallpaper/" + getWallpaperRequest.getWallpaperId() + "\\?.*"))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
                     .willReturn(ok()
                             .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
-                                            .replace("{{host}}", wireMockServer.baseUrl())
-                            ))));
+                            .withResponseBody(new Body(readFile(response)))));
 
-            stubFor(get(urlMatching("/test.jpg"))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "image/jpg")
-                            .withResponseBody(new Body("image-content"))));
+            Wallpaper wallpaper = underTest.getWallpaperSync(getWallpaperRequest);
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+            assertThat(wallpaper).isEqualTo(underTest.getWallpaper(getWallpaperRequest).get());
 
-            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+            verify(2, getRequestedFor(
+                    urlMatching("/v2/core/wallpaper/" + getWallpaperRequest.getWallpaperId() + "\\?.*")));
+        }
 
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=true".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        @Test
+        void getWallpaperSyncCanMapNotFoundResponse() {
+            GetWallpaperRequest getWallpaperRequest = GetWallpaperRequest.builder().wallpaperId(1).build();
 
-            Files.deleteIfExists(filename);
+            stubFor(get(urlMatching("/v2/core/wallpaper/" + getWallpaperRequest.getWallpaperId() + "\\?.*"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(notFound().withBody("Not here")));
+
+            assertThatThrownBy(() -> underTest.getWallpaperSync(getWallpaperRequest))
+                    .isInstanceOf(ResponseException.class)
+                    .hasMessage(new ResponseException(404, "Not Found", List.of("Not here")).getMessage());
         }
 
         @Test
-        void downloadWallpaperDoesSendShowWatermarkIfProvided() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.SINGLE)
-                    .width(1)
-                    .height(1)
-                    .wallpaperId(1)
-                    .showWatermark(false)
-                    .build();
+        void getWallpaperSyncCanMapBadRequestResponse() throws Exception {
+            GetWallpaperRequest getWallpaperRequest = GetWallpaperRequest.builder().wallpaperId(1).build();
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
+            stubFor(get(urlMatching("/v2/core/wallpaper/" + getWallpaperRequest.getWallpaperId() + "\\?.*"))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
+                    .willReturn(badRequest()
                             .withHeader("Content-Type", "application/json")
                             .withResponseBody(new Body(
-                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
-                                            .replace("{{host}}", wireMockServer.baseUrl())
+                                    readFile("getWallpaperBadRequest.json")
                             ))));
 
-            stubFor(get(urlMatching("/test.jpg"))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "image/jpg")
-                            .withResponseBody(new Body("image-content"))));
+            assertThatThrownBy(() -> underTest.getWallpaperSync(getWallpaperRequest))
+                    .isInstanceOf(ResponseException.class)
+                    .hasMessage(new ResponseException(400, "Bad Request", List.of(
+                            "\"filter_res_height\" must be greater than or equal to 1",
+                            "\"filter_res_width\" must be greater than or equal to 1"
+                    )).getMessage());
+        }
+    }
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+    @Nested
+    class GetWallpapersById {
+        @BeforeEach
+        void setUp() throws Exception {
+            stubGetWallpaper(1, ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpaperSuccessFullyPopulated.json"))));
+            stubGetWallpaper(2, ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpaperSuccessFullyPopulated.json"))));
+            stubGetWallpaper(3, notFound().withBody("Not Found"));
+            stubGetWallpaper(4, ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpaperSuccessMinimalPopulated.json"))));
+        }
 
-            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+        @Test
+        void getWallpapersReturnsWallpapersAndFailuresById() throws Exception {
+            GetWallpapersByIdResponse response = underTest.getWallpapers(List.of(1, 2, 3, 4, 1), 2).get();
+
+            assertThat(response.wallpapers()).containsOnlyKeys(1, 2);
+            assertThat(response.failures()).containsOnlyKeys(3);
+            assertThat(response.failures().get(3))
+                    .isInstanceOf(ResponseException.class)
+                    .hasMessage(new ResponseException(404, "Not Found", List.of("Not Found")).getMessage());
+            for (int wallpaperId = 1; wallpaperId <= 4; wallpaperId++) {
+                verify(1, getRequestedFor(urlMatching("/v2/core/wallpaper/%d\\?.*".formatted(wallpaperId))));
+            }
+        }
 
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        @Test
+        void getWallpapersUsesProvidedRequests() throws Exception {
+            GetWallpapersByIdResponse response = underTest.getWallpapers(List.of(1, 2),
+                    wallpaperId -> GetWallpaperRequest.builder().wallpaperId(wallpaperId).showComments(true).build(),
+                    1).get();
 
-            Files.deleteIfExists(filename);
+            assertThat(response.wallpapers()).containsOnlyKeys(1, 2);
+            verify(2, getRequestedFor(urlMatching("/v2/core/wallpaper/.*show_comments=true.*")));
         }
 
         @Test
-        void downloadWallpaperSendsPathParameters() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
+        void getWallpapersRecordsRequestsThatFailBeforeBeingSent() throws Exception {
+            GetWallpapersByIdResponse response = underTest.getWallpapers(List.of(1, 2),
+                    wallpaperId -> GetWallpaperRequest.builder()
+                            .wallpaperId(wallpaperId)
+                            .filterResOperator(wallpaperId == 2 ? null : Operator.GREATER_THAN_OR_EQUAL)
+                            .build(),
+                    2).get(5, TimeUnit.SECONDS);
+
+            assertThat(response.wallpapers()).containsOnlyKeys(1);
+            assertThat(response.failures()).containsOnlyKeys(2);
+            assertThat(response.failures().get(2)).isInstanceOf(NullPointerException.class);
+            verify(0, getRequestedFor(urlMatching("/v2/core/wallpaper/2\\?.*")));
+        }
+
+        @Test
+        void getWallpapersServesCachedWallpapers() throws Exception {
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .wallpaperCache(WallpaperCache.builder().maximumSize(10).build())
                     .build();
+            Wallpaper wallpaper = underTest.getWallpaper(GetWallpaperRequest.builder().wallpaperId(1).build()).get();
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
-                                            .replace("{{host}}", wireMockServer.baseUrl())
-                            ))));
+            GetWallpapersByIdResponse response = underTest.getWallpapers(List.of(1, 2), 2).get();
 
-            stubFor(get(urlMatching("/test.jpg"))
+            assertThat(response.wallpapers().get(1)).isSameAs(wallpaper);
+            assertThat(response.wallpapers()).containsOnlyKeys(1, 2);
+            verify(1, getRequestedFor(urlMatching("/v2/core/wallpaper/1\\?.*")));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-1, 0})
+        void getWallpapersRejectsConcurrency(int concurrency) {
+            assertThatThrownBy(() -> underTest.getWallpapers(List.of(1), concurrency))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Concurrency must be greater than 0.");
+        }
+
+        private void stubGetWallpaper(int wallpaperId, ResponseDefinitionBuilder response) {
+            stubFor(get(urlMatching("/v2/core/wallpaper/%d\\?.*".formatted(wallpaperId)))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "image/jpg")
-                            .withResponseBody(new Body("image-content"))));
+                    .willReturn(response));
+        }
+    }
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+    @Nested
+    class WallpaperCaching {
+        private WallpaperCache wallpaperCache;
+
+        @BeforeEach
+        void setUp() {
+            wallpaperCache = WallpaperCache.builder().maximumSize(100).build();
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .wallpaperCache(wallpaperCache)
+                    .build();
+        }
 
-            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+        @Test
+        void getWallpaperReturnsCachedWallpaper() throws Exception {
+            GetWallpaperRequest getWallpaperRequest = GetWallpaperRequest.builder().wallpaperId(1).build();
+            stubGetWallpaper("getWallpaperSuccessFullyPopulated.json");
 
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+            Wallpaper wallpaper = underTest.getWallpaper(getWallpaperRequest).get();
 
-            Files.deleteIfExists(filename);
+            assertThat(underTest.getWallpaper(getWallpaperRequest).get()).isSameAs(wallpaper);
+            assertThat(underTest.getWallpaperSync(getWallpaperRequest)).isSameAs(wallpaper);
+            assertThat(wallpaperCache.stats().hitCount()).isEqualTo(2);
+            verify(1, getRequestedFor(urlMatching("/v2/core/wallpaper/1\\?.*")));
         }
 
         @Test
-        void downloadWallpaperCanMapSuccessfulResponseFullyPopulated() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
+        void getWallpaperSyncReturnsCachedWallpaper() throws Exception {
+            GetWallpaperRequest getWallpaperRequest = GetWallpaperRequest.builder().wallpaperId(1).build();
+            stubGetWallpaper("getWallpaperSuccessFullyPopulated.json");
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
-                                            .replace("{{host}}", wireMockServer.baseUrl())
-                            ))));
+            Wallpaper wallpaper = underTest.getWallpaperSync(getWallpaperRequest);
 
-            stubFor(get(urlMatching("/test.jpg"))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "image/jpg")
-                            .withResponseBody(new Body("image-content"))));
+            assertThat(underTest.getWallpaper(getWallpaperRequest).get()).isSameAs(wallpaper);
+            verify(1, getRequestedFor(urlMatching("/v2/core/wallpaper/1\\?.*")));
+        }
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+        @Test
+        void getWallpaperDoesNotCacheMissingWallpaper() throws Exception {
+            GetWallpaperRequest getWallpaperRequest = GetWallpaperRequest.builder().wallpaperId(1).build();
+            stubGetWallpaper("getWallpaperSuccessMinimalPopulated.json");
 
-            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+            assertThat(underTest.getWallpaper(getWallpaperRequest).get()).isNull();
+            assertThat(underTest.getWallpaperSync(getWallpaperRequest)).isNull();
 
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+            assertThat(wallpaperCache.stats().size()).isZero();
+            verify(2, getRequestedFor(urlMatching("/v2/core/wallpaper/1\\?.*")));
+        }
 
-            Files.deleteIfExists(filename);
+        @Test
+        void getWallpapersPopulatesCache() throws Exception {
+            stubGetWallpapers();
+
+            GetWallpapersResponse getWallpapersResponse = underTest.getWallpapers(GetWallpapersRequest.builder()
+                    .showComments(true).showPickleJar(true).showResolutions(true).build()).get();
+
+            Wallpaper wallpaper = underTest.getWallpaperSync(GetWallpaperRequest.builder().wallpaperId(13)
+                    .showComments(true).showPickleJar(true).showResolutions(true).build());
+            assertThat(wallpaper).isSameAs(getWallpapersResponse.dbCore().wallpapers().get("13"));
+            verify(0, getRequestedFor(urlMatching("/v2/core/wallpaper/.*")));
         }
 
         @Test
-        void downloadWallpaperCanMapSuccessfulResponseMinimalPopulated() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
+        void getWallpapersSyncPopulatesCache() throws Exception {
+            stubGetWallpapers();
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
+            GetWallpapersResponse getWallpapersResponse = underTest.getWallpapersSync(GetWallpapersRequest.builder()
+                    .showComments(true).showPickleJar(true).showResolutions(true).build());
+
+            Wallpaper wallpaper = underTest.getWallpaper(GetWallpaperRequest.builder().wallpaperId(13)
+                    .showComments(true).showPickleJar(true).showResolutions(true).build()).get();
+            assertThat(wallpaper).isSameAs(getWallpapersResponse.dbCore().wallpapers().get("13"));
+            verify(0, getRequestedFor(urlMatching("/v2/core/wallpaper/.*")));
+        }
+
+        private void stubGetWallpaper(String response) throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpaper/1\\?.*"))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
                     .willReturn(ok()
                             .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("downloadWallpaperSuccessMinimalPopulated.json")
-                                            .replace("{{host}}", wireMockServer.baseUrl())
-                            ))));
+                            .withResponseBody(new Body(readFile(response)))));
+        }
 
-            stubFor(get(urlMatching("/test.jpg"))
+        private void stubGetWallpapers() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
                     .willReturn(ok()
-                            .withHeader("Content-Type", "image/jpg")
-                            .withResponseBody(new Body("image-content"))));
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("getWallpapersSuccessFullyPopulated.json")))));
+        }
+    }
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+    @Nested
+    class DownloadUrlCaching {
+        private static final String DOWNLOAD_URL = "/v2/core/download/wallpaper/dual/2/3/4\\?.*";
 
-            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+        private DownloadUrlCache downloadUrlCache;
 
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        @BeforeEach
+        void setUp() {
+            useDownloadUrlCache(Instant.EPOCH);
+        }
 
-            Files.deleteIfExists(filename);
+        @Test
+        void downloadWallpaperReusesCachedDownloadUrl(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withResponseBody(new Body("image-content")));
+
+            underTest.downloadWallpaper(directory.resolve("first.jpg"), downloadWallpaperRequest).get();
+            underTest.downloadWallpaper(directory.resolve("second.jpg"), downloadWallpaperRequest).get();
+
+            assertThat(directory.resolve("second.jpg")).hasContent("image-content");
+            assertThat(downloadUrlCache.stats()).isEqualTo(new DownloadUrlCache.Stats(1, 1, 0, 1));
+            verify(1, getRequestedFor(urlMatching(DOWNLOAD_URL)));
+            verify(2, getRequestedFor(urlEqualTo("/test.jpg")));
         }
 
         @Test
-        void downloadWallpaperCanMapUnauthorisedResponseWhenGettingDownloadWallpaperResponse() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
+        void downloadWallpaperSyncSharesCachedDownloadUrl(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withResponseBody(new Body("image-content")));
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(unauthorized()
-                            .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("unauthorisedResponse.json")
-                            ))));
+            underTest.downloadWallpaperSync(directory.resolve("first.jpg"), downloadWallpaperRequest);
+            underTest.downloadWallpaper(directory.resolve("second.jpg"), downloadWallpaperRequest).get();
+            underTest.downloadWallpaperSync(directory.resolve("third.jpg"), downloadWallpaperRequest);
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+            assertThat(directory.resolve("third.jpg")).hasContent("image-content");
+            assertThat(downloadUrlCache.stats().hitCount()).isEqualTo(2);
+            verify(1, getRequestedFor(urlMatching(DOWNLOAD_URL)));
+        }
 
-            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
-                    .isInstanceOf(ExecutionException.class)
-                    .hasCause(new ResponseException(401, "Unauthorized"));
+        @Test
+        void downloadWallpaperRefetchesExpiredDownloadUrl(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withResponseBody(new Body("image-content")));
+            useDownloadUrlCache(Instant.ofEpochSecond(5));
 
-            assertThat(Files.notExists(filename)).isTrue();
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(0, getRequestedFor(urlMatching("/test.jpg")));
+            underTest.downloadWallpaper(directory.resolve("first.jpg"), downloadWallpaperRequest).get();
+            underTest.downloadWallpaperSync(directory.resolve("second.jpg"), downloadWallpaperRequest);
+
+            assertThat(downloadUrlCache.stats()).isEqualTo(new DownloadUrlCache.Stats(0, 2, 1, 1));
+            verify(2, getRequestedFor(urlMatching(DOWNLOAD_URL)));
         }
 
         @Test
-        void downloadWallpaperCanMapUnauthorisedResponseWhenDownloadingFile() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
+        void downloadWallpaperInvalidatesDownloadUrlWhenFileDownloadFails(@TempDir Path directory)
+                throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(forbidden());
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
-                                            .replace("{{host}}", wireMockServer.baseUrl())
-                            ))));
+            assertThatThrownBy(() -> underTest.downloadWallpaper(directory.resolve("wallpaper.jpg"),
+                    downloadWallpaperRequest).get())
+                    .hasCauseInstanceOf(ResponseException.class);
 
-            stubFor(get(urlMatching("/test.jpg"))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(unauthorized()
+            assertThat(downloadUrlCache.stats().size()).isZero();
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(directory.resolve("wallpaper.jpg"),
+                    downloadWallpaperRequest))
+                    .isInstanceOf(ResponseException.class);
+
+            assertThat(downloadUrlCache.stats().size()).isZero();
+            assertThat(directory).isEmptyDirectory();
+            verify(2, getRequestedFor(urlMatching(DOWNLOAD_URL)));
+        }
+
+        @Test
+        void downloadWallpaperSyncInvalidatesDownloadUrlWhenFileDownloadIsInterrupted(@TempDir Path directory)
+                throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(aResponse()
+                    .withFault(Fault.MALFORMED_RESPONSE_CHUNK));
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(directory.resolve("wallpaper.jpg"),
+                    downloadWallpaperRequest))
+                    .isInstanceOf(IOException.class);
+
+            assertThat(downloadUrlCache.stats().size()).isZero();
+            assertThat(directory).isEmptyDirectory();
+        }
+
+        private void useDownloadUrlCache(Instant now) {
+            downloadUrlCache = DownloadUrlCache.builder()
+                    .expiryMargin(Duration.ZERO)
+                    .clock(Clock.fixed(now, ZoneOffset.UTC))
+                    .build();
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .downloadUrlCache(downloadUrlCache)
+                    .build();
+        }
+    }
+
+    @Nested
+    class RequestCoalescing {
+        @Test
+        void getWallpaperSharesInFlightRequest() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpaper/1\\?.*"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("getWallpaperSuccessFullyPopulated.json")))
+                            .withFixedDelay(500)));
+
+            CompletableFuture<Wallpaper> first = underTest.getWallpaper(GetWallpaperRequest.builder().wallpaperId(1)
+                    .build());
+            CompletableFuture<Wallpaper> second = underTest.getWallpaper(GetWallpaperRequest.builder().wallpaperId(1)
+                    .build());
+            first.cancel(true);
+
+            assertThat(first).isCancelled();
+            assertThat(second.get()).isNotNull();
+            verify(1, getRequestedFor(urlMatching("/v2/core/wallpaper/1\\?.*")));
+        }
+
+        @Test
+        void getWallpapersSharesInFlightRequest() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("getWallpapersSuccessFullyPopulated.json")))
+                            .withFixedDelay(500)));
+
+            CompletableFuture<GetWallpapersResponse> first =
+                    underTest.getWallpapers(GetWallpapersRequest.builder().page(2).build());
+            CompletableFuture<GetWallpapersResponse> second =
+                    underTest.getWallpapers(GetWallpapersRequest.builder().page(2).build());
+            CompletableFuture<GetWallpapersResponse> otherPage =
+                    underTest.getWallpapers(GetWallpapersRequest.builder().page(3).build());
+
+            assertThat(second.get()).isSameAs(first.get());
+            assertThat(otherPage.get()).isNotSameAs(first.get());
+            verify(2, getRequestedFor(urlMatching("/v2/core/wallpapers\\?.*")));
+        }
+
+        @Test
+        void downloadWallpaperSharesInFlightDownloadToTheSameFile(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withResponseBody(new Body("image-content"))
+                    .withFixedDelay(500));
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            CompletableFuture<Void> first = underTest.downloadWallpaper(filename, downloadWallpaperRequest);
+            CompletableFuture<Void> second = underTest.downloadWallpaper(
+                    directory.resolve("other/../wallpaper.jpg"), downloadWallpaperRequest);
+            first.cancel(true);
+            second.get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory).isDirectoryNotContaining("glob:**.tmp");
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/.*")));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperSharesDownloadUrlForDifferentFiles(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withResponseBody(new Body("image-content")));
+            stubFor(get(urlMatching("/v2/core/download/wallpaper/.*"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                    .replace("{{host}}", wireMockServer.baseUrl())))
+                            .withFixedDelay(500)));
+
+            CompletableFuture.allOf(
+                    underTest.downloadWallpaper(directory.resolve("first.jpg"), downloadWallpaperRequest),
+                    underTest.downloadWallpaper(directory.resolve("second.jpg"), downloadWallpaperRequest)
+            ).get();
+
+            assertThat(directory.resolve("first.jpg")).hasContent("image-content");
+            assertThat(directory.resolve("second.jpg")).hasContent("image-content");
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/.*")));
+            verify(2, getRequestedFor(urlMatching("/test.jpg")));
+        }
+    }
+
+    @Nested
+    class RateLimiting {
+        private RateLimiter rateLimiter;
+
+        @BeforeEach
+        void setUp() {
+            rateLimiter = RateLimiter.builder().permitsPerSecond(10).build();
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .rateLimiter(rateLimiter)
+                    .build();
+        }
+
+        @Test
+        void getAccountInformationSpacesRequests() throws Exception {
+            stubGetAccountInformation(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getAccountInformationSuccess.json"))));
+            long start = System.nanoTime();
+
+            CompletableFuture.allOf(
+                    underTest.getAccountInformation(),
+                    underTest.getAccountInformation(),
+                    underTest.getAccountInformation()
+            ).get();
+
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+            verify(3, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationSyncSpacesRequests() throws Exception {
+            stubGetAccountInformation(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getAccountInformationSuccess.json"))));
+            long start = System.nanoTime();
+
+            underTest.getAccountInformationSync();
+            underTest.getAccountInformationSync();
+            underTest.getAccountInformationSync();
+
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+            verify(3, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationReducesRateWhenThrottled() {
+            stubGetAccountInformation(aResponse()
+                    .withStatus(429)
+                    .withHeader("Content-Type", "application/json")
+                    .withHeader("Retry-After", "0")
+                    .withResponseBody(new Body("{\"code\": 429, \"description\": \"Too Many Requests\"}")));
+
+            assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new ResponseException(429, "Too Many Requests"));
+
+            assertThat(rateLimiter.getPermitsPerSecond()).isEqualTo(5);
+        }
+
+        @Test
+        void getAccountInformationSyncReducesRateWhenThrottled() {
+            stubGetAccountInformation(aResponse()
+                    .withStatus(429)
+                    .withHeader("Content-Type", "application/json")
+                    .withHeader("Retry-After", "0")
+                    .withResponseBody(new Body("{\"code\": 429, \"description\": \"Too Many Requests\"}")));
+
+            assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                    .isInstanceOf(ResponseException.class)
+                    .hasMessage(new ResponseException(429, "Too Many Requests").getMessage());
+
+            assertThat(rateLimiter.getPermitsPerSecond()).isEqualTo(5);
+        }
+
+        @Test
+        void getAccountInformationRecoversRateAfterSuccessfulResponse() throws Exception {
+            rateLimiter.onResponse(429, Optional.of("0"));
+            stubGetAccountInformation(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getAccountInformationSuccess.json"))));
+
+            underTest.getAccountInformation().get();
+            underTest.getAccountInformationSync();
+
+            assertThat(rateLimiter.getPermitsPerSecond()).isEqualTo(6.25);
+        }
+
+        private void stubGetAccountInformation(ResponseDefinitionBuilder response) {
+            stubFor(get("/v2/core/account")
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(response));
+        }
+    }
+
+    @Nested
+    class Retries {
+        private RetryPolicy retryPolicy;
+
+        @BeforeEach
+        void setUp() {
+            retryPolicy = RetryPolicy.builder()
+                    .maxAttempts(3)
+                    .initialBackoff(Duration.ofMillis(1))
+                    .maxBackoff(Duration.ofMillis(1))
+                    .build();
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .retryPolicy(retryPolicy)
+                    .build();
+        }
+
+        @Test
+        void getAccountInformationRetriesServerError() throws Exception {
+            stubFailingThenSuccessfulAccountInformation(aResponse().withStatus(502).withBody("<html/>"));
+
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+
+            assertThat(retryPolicy.stats()).isEqualTo(new RetryPolicy.Stats(1, 1, 0));
+            verify(2, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationSyncRetriesServerError() throws Exception {
+            stubFailingThenSuccessfulAccountInformation(aResponse().withStatus(502).withBody("<html/>"));
+
+            assertThat(underTest.getAccountInformationSync()).isNotNull();
+
+            assertThat(retryPolicy.stats()).isEqualTo(new RetryPolicy.Stats(1, 1, 0));
+            verify(2, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationWaitsBeforeRetrying() throws Exception {
+            underTest = clientWithBackoff(Duration.ofMillis(400));
+            stubFailingThenSuccessfulAccountInformation(aResponse().withStatus(502).withBody("<html/>"));
+            long start = System.nanoTime();
+
+            underTest.getAccountInformation().get();
+
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        @Test
+        void getAccountInformationSyncWaitsBeforeRetrying() throws Exception {
+            underTest = clientWithBackoff(Duration.ofMillis(400));
+            stubFailingThenSuccessfulAccountInformation(aResponse().withStatus(502).withBody("<html/>"));
+            long start = System.nanoTime();
+
+            underTest.getAccountInformationSync();
+
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        @Test
+        void getAccountInformationRetriesConnectionFailure() throws Exception {
+            stubFailingThenSuccessfulAccountInformation(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER));
+
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+            assertThat(underTest.getAccountInformationSync()).isNotNull();
+
+            assertThat(retryPolicy.stats()).isEqualTo(new RetryPolicy.Stats(2, 1, 0));
+        }
+
+        @Test
+        void getAccountInformationFailsAfterMaxAttempts() {
+            stubFor(get("/v2/core/account")
+                    .willReturn(aResponse().withStatus(503).withBody("<html/>")));
+
+            assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(ResponseException.class)
+                    .extracting("statusCode")
+                    .isEqualTo(503);
+            assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                    .isInstanceOf(ResponseException.class)
+                    .extracting("statusCode")
+                    .isEqualTo(503);
+
+            assertThat(retryPolicy.stats()).isEqualTo(new RetryPolicy.Stats(2, 4, 0));
+            verify(6, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationDoesNotRetryClientError() throws Exception {
+            stubFor(get("/v2/core/account")
+                    .willReturn(unauthorized()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("unauthorisedResponse.json")))));
+
+            assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new ResponseException(401, "Unauthorized"));
+            assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                    .isInstanceOf(ResponseException.class)
+                    .hasMessage(new ResponseException(401, "Unauthorized").getMessage());
+
+            assertThat(retryPolicy.stats()).isEqualTo(new RetryPolicy.Stats(2, 0, 0));
+            verify(2, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationStopsRetryingWhenBudgetIsExhausted() {
+            retryPolicy = RetryPolicy.builder().budgetCapacity(0).budgetRatio(0).build();
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .retryPolicy(retryPolicy)
+                    .build();
+            stubFor(get("/v2/core/account")
+                    .willReturn(aResponse().withStatus(503).withBody("<html/>")));
+
+            assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ResponseException.class);
+
+            assertThat(retryPolicy.stats()).isEqualTo(new RetryPolicy.Stats(1, 0, 1));
+            verify(1, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void downloadWallpaperRetriesServerErrorFromFileHost(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withResponseBody(new Body("image-content")));
+            stubFor(get(urlMatching("/test.jpg"))
+                    .inScenario("retry")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("failed")
+                    .willReturn(aResponse().withStatus(502)));
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(retryPolicy.stats()).isEqualTo(new RetryPolicy.Stats(2, 1, 0));
+            verify(2, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperResumableLeavesRetriesToItsOwnAttempts(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(aResponse()
+                    .withFault(Fault.CONNECTION_RESET_BY_PEER));
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperResumable(directory.resolve("wallpaper.jpg"),
+                    downloadWallpaperRequest, 1).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IOException.class);
+
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        private DigitalBlasphemyClient clientWithBackoff(Duration backoff) {
+            return DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .retryPolicy(RetryPolicy.builder()
+                            .initialBackoff(backoff)
+                            .maxBackoff(backoff)
+                            .random(new Random() {
+                                @Override
+                                public double nextDouble() {
+                                    return 0.5;
+                                }
+                            })
+                            .build())
+                    .build();
+        }
+
+        private void stubFailingThenSuccessfulAccountInformation(ResponseDefinitionBuilder failure) throws Exception {
+            stubFor(get("/v2/core/account")
+                    .inScenario("retry")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("failed")
+                    .willReturn(failure));
+            stubFor(get("/v2/core/account")
+                    .inScenario("retry")
+                    .whenScenarioStateIs("failed")
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("getAccountInformationSuccess.json")))));
+        }
+    }
+
+    @Nested
+    class CircuitBreaking {
+        private final List<String> transitions = new CopyOnWriteArrayList<>();
+        private final DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                .type(WallpaperType.SINGLE)
+                .width(1)
+                .height(2)
+                .wallpaperId(3)
+                .build();
+        private CircuitBreaker circuitBreaker;
+        private String apiHost;
+        private String fileHost;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            circuitBreaker = CircuitBreaker.builder()
+                    .failureThreshold(2)
+                    .openDuration(Duration.ofMillis(500))
+                    .listener((host, from, to) -> transitions.add(host + ":" + from + "->" + to))
+                    .build();
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .circuitBreaker(circuitBreaker)
+                    .build();
+            apiHost = "localhost:" + wireMockServer.port();
+            fileHost = "127.0.0.1:" + wireMockServer.port();
+            stubFor(get(urlMatching("/v2/core/download/wallpaper/.*"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                    .replace("{{host}}", "http://" + fileHost)))));
+        }
+
+        @Test
+        void getAccountInformationFailsFastWhenCircuitIsOpen() {
+            stubFor(get("/v2/core/account").willReturn(aResponse().withStatus(503).withBody("<html/>")));
+
+            assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                    .hasCauseInstanceOf(ResponseException.class);
+            assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                    .isInstanceOf(ResponseException.class);
+            assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new CircuitBreakerOpenException(apiHost));
+            assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                    .isInstanceOf(CircuitBreakerOpenException.class)
+                    .hasFieldOrPropertyWithValue("host", apiHost);
+
+            assertThat(circuitBreaker.state(apiHost)).isEqualTo(CircuitBreaker.State.OPEN);
+            assertThat(transitions).containsExactly(apiHost + ":CLOSED->OPEN");
+            verify(2, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationProbesRecoveryAfterOpenDuration() throws Exception {
+            stubFor(get("/v2/core/account").willReturn(aResponse().withStatus(503).withBody("<html/>")));
+            assertThatThrownBy(() -> underTest.getAccountInformationSync()).isInstanceOf(ResponseException.class);
+            assertThatThrownBy(() -> underTest.getAccountInformationSync()).isInstanceOf(ResponseException.class);
+            stubFor(get("/v2/core/account")
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("getAccountInformationSuccess.json")))));
+
+            Thread.sleep(600);
+
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+            assertThat(circuitBreaker.state(apiHost)).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(transitions).containsExactly(
+                    apiHost + ":CLOSED->OPEN", apiHost + ":OPEN->HALF_OPEN", apiHost + ":HALF_OPEN->CLOSED");
+        }
+
+        @Test
+        void getAccountInformationSyncReleasesTrialWhenInterrupted() throws Exception {
+            stubFor(get("/v2/core/account").willReturn(aResponse().withStatus(503).withBody("<html/>")));
+            assertThatThrownBy(() -> underTest.getAccountInformationSync()).isInstanceOf(ResponseException.class);
+            assertThatThrownBy(() -> underTest.getAccountInformationSync()).isInstanceOf(ResponseException.class);
+            stubFor(get("/v2/core/account")
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("getAccountInformationSuccess.json")))));
+            Thread.sleep(600);
+
+            Thread.currentThread().interrupt();
+            assertThatThrownBy(() -> underTest.getAccountInformationSync()).isInstanceOf(InterruptedException.class);
+            Thread.interrupted();
+
+            assertThat(underTest.getAccountInformationSync()).isNotNull();
+            assertThat(circuitBreaker.state(apiHost)).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        void getAccountInformationSyncResetsFailuresAfterSuccess() throws Exception {
+            stubFor(get("/v2/core/account")
+                    .inScenario("circuit")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("succeeding")
+                    .willReturn(aResponse().withStatus(503).withBody("<html/>")));
+            stubFor(get("/v2/core/account")
+                    .inScenario("circuit")
+                    .whenScenarioStateIs("succeeding")
+                    .willSetStateTo("failing")
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("getAccountInformationSuccess.json")))));
+            stubFor(get("/v2/core/account")
+                    .inScenario("circuit")
+                    .whenScenarioStateIs("failing")
+                    .willReturn(aResponse().withStatus(503).withBody("<html/>")));
+
+            assertThatThrownBy(() -> underTest.getAccountInformationSync()).isInstanceOf(ResponseException.class);
+            assertThat(underTest.getAccountInformationSync()).isNotNull();
+            assertThatThrownBy(() -> underTest.getAccountInformationSync()).isInstanceOf(ResponseException.class);
+
+            assertThat(circuitBreaker.state(apiHost)).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        void getAccountInformationDoesNotCountClientErrors() {
+            stubFor(get("/v2/core/account").willReturn(aResponse().withStatus(404)));
+
+            for (int i = 0; i < 3; i++) {
+                assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                        .hasCauseInstanceOf(ResponseException.class);
+                assertThatThrownBy(() -> underTest.getAccountInformationSync())
+                        .isInstanceOf(ResponseException.class);
+            }
+
+            assertThat(circuitBreaker.state(apiHost)).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        void downloadWallpaperFailsFastWhenFileHostCircuitIsOpen(@TempDir Path directory) {
+            stubFor(get("/test.jpg").willReturn(aResponse().withStatus(503)));
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(directory.resolve("1.jpg"), downloadWallpaperRequest)
+                    .get())
+                    .hasCauseInstanceOf(ResponseException.class);
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(directory.resolve("2.jpg"),
+                    downloadWallpaperRequest))
+                    .isInstanceOf(ResponseException.class);
+            assertThatThrownBy(() -> underTest.downloadWallpaper(directory.resolve("3.jpg"), downloadWallpaperRequest)
+                    .get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new CircuitBreakerOpenException(fileHost));
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(directory.resolve("4.jpg"),
+                    downloadWallpaperRequest))
+                    .isInstanceOf(CircuitBreakerOpenException.class);
+
+            assertThat(circuitBreaker.state(apiHost)).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(circuitBreaker.state(fileHost)).isEqualTo(CircuitBreaker.State.OPEN);
+            verify(2, getRequestedFor(urlMatching("/v2/core/download/wallpaper/.*")));
+            verify(2, getRequestedFor(urlEqualTo("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperOnlyFailsFastWhenEveryFileHostCircuitIsOpen(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest otherRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.SINGLE)
+                    .width(1)
+                    .height(2)
+                    .wallpaperId(9)
+                    .build();
+            stubFor(get(urlMatching("/v2/core/download/wallpaper/.*/9\\?.*"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                    .replace("{{host}}", "http://" + apiHost)
+                                    .replace("/test.jpg", "/other.jpg")))));
+            stubFor(get("/other.jpg").willReturn(ok().withBody("other-content")));
+            stubFor(get("/test.jpg").willReturn(aResponse().withStatus(503)));
+            underTest.downloadWallpaper(directory.resolve("1.jpg"), otherRequest).get();
+            assertThatThrownBy(() -> underTest.downloadWallpaper(directory.resolve("2.jpg"), downloadWallpaperRequest)
+                    .get())
+                    .hasCauseInstanceOf(ResponseException.class);
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(directory.resolve("3.jpg"),
+                    downloadWallpaperRequest))
+                    .isInstanceOf(ResponseException.class);
+
+            underTest.downloadWallpaperSync(directory.resolve("4.jpg"), otherRequest);
+
+            assertThat(directory.resolve("4.jpg")).hasContent("other-content");
+            assertThatThrownBy(() -> underTest.downloadWallpaper(directory.resolve("5.jpg"), downloadWallpaperRequest)
+                    .get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new CircuitBreakerOpenException(fileHost));
+            assertThat(circuitBreaker.state(apiHost)).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(circuitBreaker.state(fileHost)).isEqualTo(CircuitBreaker.State.OPEN);
+            verify(2, getRequestedFor(urlEqualTo("/test.jpg")));
+        }
+    }
+
+    @Nested
+    class Hedging {
+        private HedgingPolicy hedgingPolicy;
+
+        @BeforeEach
+        void setUp() {
+            useHedgingPolicy(HedgingPolicy.builder().initialDelay(Duration.ofMillis(100)).maxHedgeRatio(1).build());
+        }
+
+        @Test
+        void getAccountInformationUsesHedgedResponseWhenPrimaryIsSlow() throws Exception {
+            stubAccountInformation(accountInformation().withFixedDelay(3000), accountInformation());
+            long start = System.nanoTime();
+
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(2));
+            assertThat(hedgingPolicy.stats().hedgeCount()).isEqualTo(1);
+            verify(2, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationDoesNotHedgeFastResponse() throws Exception {
+            stubAccountInformation(accountInformation(), accountInformation());
+
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+            Thread.sleep(300);
+
+            assertThat(hedgingPolicy.stats()).isEqualTo(new HedgingPolicy.Stats(1, 0, Duration.ofMillis(100)));
+            verify(1, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationDoesNotHedgeBeyondMaxHedgeRatio() throws Exception {
+            useHedgingPolicy(HedgingPolicy.builder().initialDelay(Duration.ofMillis(100)).maxHedgeRatio(0.5).build());
+            stubAccountInformation(accountInformation().withFixedDelay(500), accountInformation());
+
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+
+            assertThat(hedgingPolicy.stats().hedgeCount()).isZero();
+            verify(1, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationWaitsForPrimaryWhenHedgedRequestFails() throws Exception {
+            stubAccountInformation(accountInformation().withFixedDelay(500), aResponse().withStatus(404));
+
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+
+            verify(2, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void getAccountInformationFailsWhenBothRequestsFail() {
+            stubAccountInformation(aResponse().withStatus(503).withBody("<html/>").withFixedDelay(500),
+                    aResponse().withStatus(404));
+
+            assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .extracting("statusCode")
+                    .isEqualTo(503);
+        }
+
+        @Test
+        void getAccountInformationFailsWithoutHedgingWhenPrimaryFailsFast() throws Exception {
+            stubAccountInformation(aResponse().withStatus(404), accountInformation());
+
+            assertThatThrownBy(() -> underTest.getAccountInformation().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .extracting("statusCode")
+                    .isEqualTo(404);
+
+            assertThat(hedgingPolicy.stats().hedgeCount()).isZero();
+        }
+
+        @Test
+        void getAccountInformationRecordsLatencyOfSuccessfulResponses() throws Exception {
+            useHedgingPolicy(HedgingPolicy.builder().initialDelay(Duration.ofSeconds(5)).sampleSize(1).build());
+            stubAccountInformation(aResponse().withStatus(404), accountInformation());
+
+            assertThatThrownBy(() -> underTest.getAccountInformation().get()).isInstanceOf(ExecutionException.class);
+
+            assertThat(hedgingPolicy.stats().hedgeDelay()).isEqualTo(Duration.ofSeconds(5));
+
+            underTest.getAccountInformation().get();
+
+            assertThat(hedgingPolicy.stats().hedgeDelay()).isLessThan(Duration.ofSeconds(5));
+        }
+
+        @Test
+        void getWallpaperUsesHedgedResponseWhenPrimaryIsSlow() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpaper/1\\?.*"))
+                    .inScenario("hedge")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("hedged")
+                    .willReturn(wallpaper().withFixedDelay(3000)));
+            stubFor(get(urlMatching("/v2/core/wallpaper/1\\?.*"))
+                    .inScenario("hedge")
+                    .whenScenarioStateIs("hedged")
+                    .willReturn(wallpaper()));
+
+            assertThat(underTest.getWallpaper(GetWallpaperRequest.builder().wallpaperId(1).build()).get()).isNotNull();
+
+            assertThat(hedgingPolicy.stats().hedgeCount()).isEqualTo(1);
+        }
+
+        @Test
+        void getWallpapersUsesHedgedResponseWhenPrimaryIsSlow() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                    .inScenario("hedge")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("hedged")
+                    .willReturn(wallpapers().withFixedDelay(3000)));
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*"))
+                    .inScenario("hedge")
+                    .whenScenarioStateIs("hedged")
+                    .willReturn(wallpapers()));
+
+            assertThat(underTest.getWallpapers(GetWallpapersRequest.builder().build()).get()).isNotNull();
+
+            assertThat(hedgingPolicy.stats().hedgeCount()).isEqualTo(1);
+        }
+
+        private void useHedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .hedgingPolicy(hedgingPolicy)
+                    .build();
+        }
+
+        private void stubAccountInformation(ResponseDefinitionBuilder primary, ResponseDefinitionBuilder hedge) {
+            stubFor(get("/v2/core/account")
+                    .inScenario("hedge")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("hedged")
+                    .willReturn(primary));
+            stubFor(get("/v2/core/account")
+                    .inScenario("hedge")
+                    .whenScenarioStateIs("hedged")
+                    .willReturn(hedge));
+        }
+
+        private ResponseDefinitionBuilder accountInformation() throws Exception {
+            return ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getAccountInformationSuccess.json")));
+        }
+
+        private ResponseDefinitionBuilder wallpaper() throws Exception {
+            return ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpaperSuccessFullyPopulated.json")));
+        }
+
+        private ResponseDefinitionBuilder wallpapers() throws Exception {
+            return ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpapersSuccessFullyPopulated.json")));
+        }
+    }
+
+    @Nested
+    class Cancellation {
+        private final RecordingHttpClient httpClient = new RecordingHttpClient();
+
+        @BeforeEach
+        void setUp() {
+            underTest = client(DigitalBlasphemyClient.builder());
+        }
+
+        @ParameterizedTest
+        @ValueSource(longs = {-1, 0})
+        void rejectsTimeout(long timeout) {
+            assertThatThrownBy(() -> underTest.getAccountInformation(Duration.ofMillis(timeout)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Timeout must be greater than 0.");
+        }
+
+        @Test
+        void getAccountInformationCancellationAbortsExchange() throws Exception {
+            stubFor(get("/v2/core/account").willReturn(accountInformation().withFixedDelay(3000)));
+            CompletableFuture<GetAccountInformationResponse> response = underTest.getAccountInformation();
+            await(() -> httpClient.responses.size() == 1);
+
+            response.cancel(true);
+
+            assertThat(aborted(httpClient.responses.getFirst())).isTrue();
+        }
+
+        @Test
+        void getAccountInformationTimesOutAndAbortsExchange() throws Exception {
+            stubFor(get("/v2/core/account").willReturn(accountInformation().withFixedDelay(3000)));
+
+            assertThatThrownBy(() -> underTest.getAccountInformation(Duration.ofMillis(200)).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+
+            await(() -> aborted(httpClient.responses.getFirst()));
+        }
+
+        @Test
+        void getAccountInformationReturnsResponseWithinTimeout() throws Exception {
+            stubFor(get("/v2/core/account").willReturn(accountInformation()));
+
+            assertThat(underTest.getAccountInformation(Duration.ofSeconds(5)).get()).isNotNull();
+        }
+
+        @Test
+        void getWallpapersTimesOutAndAbortsExchange() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpapers\\?.*")).willReturn(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpapersSuccessFullyPopulated.json")))
+                    .withFixedDelay(3000)));
+
+            assertThatThrownBy(() ->
+                    underTest.getWallpapers(GetWallpapersRequest.builder().build(), Duration.ofMillis(200)).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+
+            await(() -> aborted(httpClient.responses.getFirst()));
+        }
+
+        @Test
+        void getWallpaperTimesOutAndAbortsExchange() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpaper/1\\?.*")).willReturn(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpaperSuccessFullyPopulated.json")))
+                    .withFixedDelay(3000)));
+
+            assertThatThrownBy(() ->
+                    underTest.getWallpaper(GetWallpaperRequest.builder().wallpaperId(1).build(), Duration.ofMillis(200))
+                            .get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+
+            await(() -> aborted(httpClient.responses.getFirst()));
+        }
+
+        @Test
+        void getAccountInformationTimesOutAndAbortsExchangeWhileBodyArrives() throws Exception {
+            stubFor(get("/v2/core/account").willReturn(accountInformation().withChunkedDribbleDelay(200, 10000)));
+
+            assertThatThrownBy(() -> underTest.getAccountInformation(Duration.ofMillis(500)).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+
+            await(() -> aborted(httpClient.responses.getFirst()));
+        }
+
+        @Test
+        void getWallpaperCancellationAbortsExchangeWhileBodyArrives() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpaper/1\\?.*")).willReturn(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpaperSuccessFullyPopulated.json")))
+                    .withChunkedDribbleDelay(200, 10000)));
+            CompletableFuture<Wallpaper> response =
+                    underTest.getWallpaper(GetWallpaperRequest.builder().wallpaperId(1).build());
+            await(() -> httpClient.responses.size() == 1);
+            Thread.sleep(500);
+
+            response.cancel(true);
+
+            await(() -> aborted(httpClient.responses.getFirst()));
+        }
+
+        @Test
+        void downloadWallpaperTimesOutWhileGettingDownloadUrl(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok().withBody("image-content"));
+            stubFor(get(urlMatching("/v2/core/download/wallpaper/.*")).willReturn(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("downloadWallpaperSuccessFullyPopulated.json")
+                            .replace("{{host}}", wireMockServer.baseUrl())))
+                    .withFixedDelay(3000)));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            assertThatThrownBy(() ->
+                    underTest.downloadWallpaper(filename, downloadWallpaperRequest, Duration.ofMillis(200)).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+
+            await(() -> aborted(httpClient.responses.getFirst()));
+            Thread.sleep(300);
+            assertThat(httpClient.responses).hasSize(1);
+        }
+
+        @Test
+        void downloadWallpaperTimesOutAndRemovesPartialFile(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withHeader("Content-Type", "image/jpg")
+                    .withBody("image-content")
+                    .withChunkedDribbleDelay(13, 3000));
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            assertThatThrownBy(() ->
+                    underTest.downloadWallpaper(filename, downloadWallpaperRequest, Duration.ofMillis(500)).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+
+            await(() -> httpClient.responses.size() == 2 && aborted(httpClient.responses.get(1)));
+            await(() -> directory.toFile().list().length == 0);
+        }
+
+        @Test
+        void downloadWallpaperWritesFileWithinTimeout(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok().withBody("image-content"));
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest, Duration.ofSeconds(5)).get();
+
+            assertThat(filename).hasContent("image-content");
+        }
+
+        @Test
+        void cancellingOneOfSharedCallsDoesNotAbortExchange() throws Exception {
+            stubFor(get(urlMatching("/v2/core/wallpaper/1\\?.*")).willReturn(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getWallpaperSuccessFullyPopulated.json")))
+                    .withFixedDelay(500)));
+            GetWallpaperRequest getWallpaperRequest = GetWallpaperRequest.builder().wallpaperId(1).build();
+            CompletableFuture<Wallpaper> first = underTest.getWallpaper(getWallpaperRequest);
+            CompletableFuture<Wallpaper> second = underTest.getWallpaper(getWallpaperRequest);
+
+            first.cancel(true);
+
+            assertThat(second.get()).isNotNull();
+            assertThat(httpClient.responses).hasSize(1);
+        }
+
+        @Test
+        void retriesStopWhenCancelledWhileWaitingToRetry() throws Exception {
+            underTest = client(DigitalBlasphemyClient.builder().retryPolicy(RetryPolicy.builder()
+                    .initialBackoff(Duration.ofSeconds(1))
+                    .random(new Random() {
+                        @Override
+                        public double nextDouble() {
+                            return 0.5;
+                        }
+                    })
+                    .build()));
+            stubFor(get("/v2/core/account").willReturn(aResponse().withStatus(503).withBody("<html/>")));
+            CompletableFuture<GetAccountInformationResponse> response = underTest.getAccountInformation();
+            await(() -> httpClient.responses.size() == 1 && httpClient.responses.getFirst().isDone());
+
+            response.cancel(true);
+            Thread.sleep(800);
+
+            assertThat(httpClient.responses).hasSize(1);
+            verify(1, getRequestedFor(urlEqualTo("/v2/core/account")));
+        }
+
+        @Test
+        void retriesAbortInFlightAttemptWhenCancelled() throws Exception {
+            underTest = client(DigitalBlasphemyClient.builder().retryPolicy(RetryPolicy.builder().build()));
+            stubFor(get("/v2/core/account").willReturn(accountInformation().withFixedDelay(3000)));
+            CompletableFuture<GetAccountInformationResponse> response = underTest.getAccountInformation();
+            await(() -> httpClient.responses.size() == 1);
+
+            response.cancel(true);
+
+            assertThat(aborted(httpClient.responses.getFirst())).isTrue();
+        }
+
+        @Test
+        void cancelledTrialRequestDoesNotCloseCircuit() throws Exception {
+            CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                    .failureThreshold(1)
+                    .openDuration(Duration.ofMillis(100))
+                    .build();
+            underTest = client(DigitalBlasphemyClient.builder().circuitBreaker(circuitBreaker));
+            String host = URI.create(wireMockServer.baseUrl()).getAuthority();
+            stubFor(get("/v2/core/account")
+                    .inScenario("trial")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("slow")
+                    .willReturn(aResponse().withStatus(503).withBody("<html/>")));
+            stubFor(get("/v2/core/account")
+                    .inScenario("trial")
+                    .whenScenarioStateIs("slow")
+                    .willSetStateTo("recovered")
+                    .willReturn(accountInformation().withFixedDelay(3000)));
+            stubFor(get("/v2/core/account")
+                    .inScenario("trial")
+                    .whenScenarioStateIs("recovered")
+                    .willReturn(accountInformation()));
+            assertThatThrownBy(() -> underTest.getAccountInformation().get()).isInstanceOf(ExecutionException.class);
+            Thread.sleep(200);
+            CompletableFuture<GetAccountInformationResponse> trial = underTest.getAccountInformation();
+            await(() -> findAll(getRequestedFor(urlEqualTo("/v2/core/account"))).size() == 2);
+
+            trial.cancel(true);
+
+            assertThat(aborted(httpClient.responses.get(1))).isTrue();
+            assertThat(circuitBreaker.state(host)).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+            assertThat(circuitBreaker.state(host)).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        void hedgedRequestsAreAbortedWhenCancelled() throws Exception {
+            underTest = client(DigitalBlasphemyClient.builder().hedgingPolicy(HedgingPolicy.builder()
+                    .initialDelay(Duration.ofMillis(100))
+                    .maxHedgeRatio(1)
+                    .build()));
+            stubFor(get("/v2/core/account").willReturn(accountInformation().withFixedDelay(3000)));
+            CompletableFuture<GetAccountInformationResponse> response = underTest.getAccountInformation();
+            await(() -> httpClient.responses.size() == 2);
+
+            response.cancel(true);
+
+            assertThat(httpClient.responses).allMatch(this::aborted);
+        }
+
+        @Test
+        void losingHedgedRequestIsAbortedWhileItsBodyArrives() throws Exception {
+            underTest = client(DigitalBlasphemyClient.builder().hedgingPolicy(HedgingPolicy.builder()
+                    .initialDelay(Duration.ofMillis(500))
+                    .maxHedgeRatio(1)
+                    .build()));
+            stubFor(get("/v2/core/account")
+                    .inScenario("hedge")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("hedged")
+                    .willReturn(accountInformation().withChunkedDribbleDelay(50, 10000)));
+            stubFor(get("/v2/core/account")
+                    .inScenario("hedge")
+                    .whenScenarioStateIs("hedged")
+                    .willReturn(accountInformation()));
+
+            assertThat(underTest.getAccountInformation().get()).isNotNull();
+
+            assertThat(httpClient.responses).hasSize(2);
+            await(() -> aborted(httpClient.responses.getFirst()));
+        }
+
+        private DigitalBlasphemyClient client(DigitalBlasphemyClient.Builder builder) {
+            return builder
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .httpClient(httpClient)
+                    .build();
+        }
+
+        private ResponseDefinitionBuilder accountInformation() throws Exception {
+            return ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withResponseBody(new Body(readFile("getAccountInformationSuccess.json")));
+        }
+
+        private boolean aborted(CompletableFuture<?> exchange) {
+            Throwable throwable = exchange.handle((value, failure) -> failure).getNow(null);
+            return throwable instanceof CancellationException || throwable instanceof CompletionException
+                    && throwable.getCause() instanceof CancellationException || httpClient.bodyCancelled(exchange);
+        }
+
+        private void await(BooleanSupplier condition) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!condition.getAsBoolean()) {
+                assertThat(System.nanoTime()).as("Condition not met in time").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Nested
+    class DownloadWallpaper {
+        @Test
+        void downloadWallpaperDoesSendShowWatermarkIfNotProvided() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.SINGLE)
+                    .width(1)
+                    .height(1)
+                    .wallpaperId(1)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "image/jpg")
+                            .withResponseBody(new Body("image-content"))));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=true".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+
+            Files.deleteIfExists(filename);
+        }
+
+        @Test
+        void downloadWallpaperDoesSendShowWatermarkIfProvided() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.SINGLE)
+                    .width(1)
+                    .height(1)
+                    .wallpaperId(1)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "image/jpg")
+                            .withResponseBody(new Body("image-content"))));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+
+            Files.deleteIfExists(filename);
+        }
+
+        @Test
+        void downloadWallpaperSendsPathParameters() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "image/jpg")
+                            .withResponseBody(new Body("image-content"))));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+
+            Files.deleteIfExists(filename);
+        }
+
+        @Test
+        void downloadWallpaperCanMapSuccessfulResponseFullyPopulated() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "image/jpg")
+                            .withResponseBody(new Body("image-content"))));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+
+            Files.deleteIfExists(filename);
+        }
+
+        @Test
+        void downloadWallpaperCanMapSuccessfulResponseMinimalPopulated() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessMinimalPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "image/jpg")
+                            .withResponseBody(new Body("image-content"))));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+
+            Files.deleteIfExists(filename);
+        }
+
+        @Test
+        void downloadWallpaperCanMapUnauthorisedResponseWhenGettingDownloadWallpaperResponse() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(unauthorized()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("unauthorisedResponse.json")
+                            ))));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new ResponseException(401, "Unauthorized"));
+
+            assertThat(Files.notExists(filename)).isTrue();
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(0, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperCanMapUnauthorisedResponseWhenDownloadingFile() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(unauthorized()
                             .withHeader("Content-Type", "application/json")
                             .withResponseBody(new Body(
                                     readFile("unauthorisedResponse.json")
@@ -1387,7 +3316,225 @@ class DigitalBlasphemyClientTest {
         }
 
         @Test
-        void downloadWallpaperCanMapBadRequestResponseWhenGettingDownloadWallpaperResponse() throws Exception {
+        void downloadWallpaperCanMapBadRequestResponseWhenGettingDownloadWallpaperResponse() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(badRequest()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperBadRequest.json")
+                            ))));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new ResponseException(400, "Bad Request", List.of(
+                            "\"type\" must be one of [single, dual, triple, mobile]",
+                            "\"width\" must be a number"
+                    )));
+
+            assertThat(Files.notExists(filename)).isTrue();
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(0, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperCanMapNotFoundResponseWhenDownloadingFile() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(notFound()
+                            .withHeader("Content-Type", "text/plain")
+                            .withResponseBody(new Body("Object Not Found"))));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new ResponseException(404, "Not Found", List.of(
+                            "Object Not Found"
+                    )));
+
+            assertThat(Files.notExists(filename)).isTrue();
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperCanMapUnknownErrorResponseWhenDownloadingFile() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(aResponse().withStatus(405)));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new ResponseException(0, "Unable to parse the body as JSON ErrorResponse. []"));
+
+            assertThat(Files.notExists(filename)).isTrue();
+            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperNoResponseWhenGettingDownloadWallpaperResponse() {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(aResponse().withFault(Fault.EMPTY_RESPONSE)));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new EOFException("EOF reached while reading"));
+
+            assertThat(Files.notExists(filename)).isTrue();
+            verify(getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(0, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperNoResponseWhenDownloadingFile() throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                    .type(WallpaperType.DUAL)
+                    .width(2)
+                    .height(3)
+                    .wallpaperId(4)
+                    .showWatermark(false)
+                    .build();
+
+            stubFor(get(urlMatching(
+                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                            downloadWallpaperRequest.getType(),
+                            downloadWallpaperRequest.getWidth(),
+                            downloadWallpaperRequest.getHeight(),
+                            downloadWallpaperRequest.getWallpaperId()
+                    )))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                            ))));
+
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(aResponse().withFault(Fault.EMPTY_RESPONSE)));
+
+            Path filename = Path.of(UUID.randomUUID().toString());
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new EOFException("EOF reached while reading"));
+
+            assertThat(Files.notExists(filename)).isTrue();
+            verify(getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperCanMapNonJsonResponseWhenGettingDownloadWallpaperResponse() {
             DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
                     .type(WallpaperType.DUAL)
                     .width(2)
@@ -1404,23 +3551,21 @@ class DigitalBlasphemyClientTest {
                             downloadWallpaperRequest.getWallpaperId()
                     )))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(badRequest()
-                            .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("downloadWallpaperBadRequest.json")
-                            ))));
+                    .willReturn(aResponse()
+                            .withResponseBody(
+                                    Body.ofBinaryOrText("<xml/>".getBytes(StandardCharsets.UTF_8),
+                                            new ContentTypeHeader("application/xml"))
+                            )));
 
             Path filename = Path.of(UUID.randomUUID().toString());
 
             assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
                     .isInstanceOf(ExecutionException.class)
-                    .hasCause(new ResponseException(400, "Bad Request", List.of(
-                            "\"type\" must be one of [single, dual, triple, mobile]",
-                            "\"width\" must be a number"
-                    )));
+                    .hasRootCauseInstanceOf(JsonParseException.class)
+                    .rootCause().message().startsWith("Unexpected character ('<' (code 60))");
 
             assertThat(Files.notExists(filename)).isTrue();
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+            verify(getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
                     downloadWallpaperRequest.getType(),
                     downloadWallpaperRequest.getWidth(),
                     downloadWallpaperRequest.getHeight(),
@@ -1430,7 +3575,83 @@ class DigitalBlasphemyClientTest {
         }
 
         @Test
-        void downloadWallpaperCanMapNotFoundResponseWhenDownloadingFile() throws Exception {
+        void downloadWallpaperWritesFileContents(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withHeader("Content-Type", "image/jpg")
+                    .withResponseBody(new Body("image-content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory).isDirectoryContaining(path -> path.equals(filename));
+            assertThat(directory).isDirectoryNotContaining(path -> !path.equals(filename));
+        }
+
+        @Test
+        void downloadWallpaperWritesFileContentsUsingVirtualThreads(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withHeader("Content-Type", "image/jpg")
+                    .withResponseBody(new Body("image-content")));
+            DigitalBlasphemyClient digitalBlasphemyClient = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .virtualThreads()
+                    .build();
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            digitalBlasphemyClient.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            assertThat(filename).hasContent("image-content");
+        }
+
+        @Test
+        void downloadWallpaperReplacesExistingFile(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withHeader("Content-Type", "image/jpg")
+                    .withResponseBody(new Body("image-content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(filename, "previous-image-content-that-is-longer");
+
+            underTest.downloadWallpaper(filename, downloadWallpaperRequest).get();
+
+            assertThat(filename).hasContent("image-content");
+        }
+
+        @Test
+        void downloadWallpaperRemovesTemporaryFileWhenDownloadIsInterrupted(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(aResponse()
+                    .withFault(Fault.MALFORMED_RESPONSE_CHUNK));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+                    .isInstanceOf(ExecutionException.class);
+
+            assertThat(directory).isEmptyDirectory();
+        }
+
+        @Test
+        void downloadWallpaperRemovesTemporaryFileWhenFileCannotBeMoved(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withHeader("Content-Type", "image/jpg")
+                    .withResponseBody(new Body("image-content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.createDirectory(filename);
+
+            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(FileSystemException.class);
+
+            assertThat(directory).isDirectoryNotContaining(path -> !path.equals(filename));
+        }
+
+        @Test
+        void downloadWallpaperFileCannotBeCreatedWhenDownloadingFile() throws Exception {
             DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
                     .type(WallpaperType.DUAL)
                     .width(2)
@@ -1456,45 +3677,463 @@ class DigitalBlasphemyClientTest {
 
             stubFor(get(urlMatching("/test.jpg"))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(notFound()
-                            .withHeader("Content-Type", "text/plain")
-                            .withResponseBody(new Body("Object Not Found"))));
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "image/jpg")
+                            .withResponseBody(new Body("image-content"))));
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+            Path filename = Path.of("/does/not/exist/" + UUID.randomUUID());
 
             assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
                     .isInstanceOf(ExecutionException.class)
-                    .hasCause(new ResponseException(404, "Not Found", List.of(
-                            "Object Not Found"
-                    )));
+                    .hasRootCauseInstanceOf(NoSuchFileException.class)
+                    .rootCause().message().startsWith(filename.toString());
+
+            assertThat(Files.notExists(filename)).isTrue();
+            verify(getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+                    downloadWallpaperRequest.getType(),
+                    downloadWallpaperRequest.getWidth(),
+                    downloadWallpaperRequest.getHeight(),
+                    downloadWallpaperRequest.getWallpaperId()
+            ))));
+            verify(getRequestedFor(urlMatching("/test.jpg")));
+        }
+    }
+
+    @Nested
+    class DownloadWallpaperSync {
+        @Test
+        void downloadWallpaperSyncWritesFileContents(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withHeader("Content-Type", "image/jpg")
+                    .withResponseBody(new Body("image-content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaperSync(filename, downloadWallpaperRequest);
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory).isDirectoryNotContaining(path -> !path.equals(filename));
+        }
+
+        @Test
+        void downloadWallpaperSyncReplacesExistingFile(@TempDir Path directory) throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withHeader("Content-Type", "image/jpg")
+                    .withResponseBody(new Body("image-content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(filename, "previous-image-content-that-is-longer");
+
+            underTest.downloadWallpaperSync(filename, downloadWallpaperRequest);
+
+            assertThat(filename).hasContent("image-content");
+        }
+
+        @Test
+        void downloadWallpaperSyncCanMapBadRequestResponseWhenGettingDownloadWallpaperResponse(@TempDir Path directory)
+                throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok());
+            stubFor(get(urlMatching("/v2/core/download/wallpaper/.*"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(badRequest()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperBadRequest.json")
+                            ))));
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(directory.resolve("wallpaper.jpg"),
+                    downloadWallpaperRequest))
+                    .isInstanceOf(ResponseException.class)
+                    .extracting("code")
+                    .isEqualTo(400);
+
+            assertThat(directory).isEmptyDirectory();
+            verify(0, getRequestedFor(urlEqualTo("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperSyncCanMapNotFoundResponseWhenDownloadingFile(@TempDir Path directory)
+                throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(notFound().withBody("Gone"));
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(directory.resolve("wallpaper.jpg"),
+                    downloadWallpaperRequest))
+                    .isInstanceOf(ResponseException.class)
+                    .hasMessage(new ResponseException(404, "Not Found", List.of("Gone")).getMessage());
+
+            assertThat(directory).isEmptyDirectory();
+        }
+
+        @Test
+        void downloadWallpaperSyncRemovesTemporaryFileWhenDownloadIsInterrupted(@TempDir Path directory)
+                throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(aResponse()
+                    .withFault(Fault.MALFORMED_RESPONSE_CHUNK));
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(directory.resolve("wallpaper.jpg"),
+                    downloadWallpaperRequest))
+                    .isInstanceOf(IOException.class);
+
+            assertThat(directory).isEmptyDirectory();
+        }
+
+        @Test
+        void downloadWallpaperSyncRemovesTemporaryFileWhenFileCannotBeMoved(@TempDir Path directory)
+                throws Exception {
+            DownloadWallpaperRequest downloadWallpaperRequest = stubDownloadWallpaper(ok()
+                    .withHeader("Content-Type", "image/jpg")
+                    .withResponseBody(new Body("image-content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.createDirectory(filename);
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperSync(filename, downloadWallpaperRequest))
+                    .isInstanceOf(FileSystemException.class);
+
+            assertThat(directory).isDirectoryNotContaining(path -> !path.equals(filename));
+        }
+    }
+
+    @Nested
+    class DownloadWallpaperResumable {
+        private final DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                .type(WallpaperType.DUAL)
+                .width(2)
+                .height(3)
+                .wallpaperId(4)
+                .showWatermark(false)
+                .build();
+
+        private final String downloadWallpaperPath = "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
+                downloadWallpaperRequest.getType(),
+                downloadWallpaperRequest.getWidth(),
+                downloadWallpaperRequest.getHeight(),
+                downloadWallpaperRequest.getWallpaperId()
+        );
+
+        @ParameterizedTest
+        @ValueSource(ints = {-1, 0})
+        void downloadWallpaperResumableRejectsMaxAttempts(int maxAttempts) {
+            assertThatThrownBy(() -> underTest.downloadWallpaperResumable(
+                    Path.of("wallpaper.jpg"), downloadWallpaperRequest, maxAttempts))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Max attempts must be greater than 0.");
+        }
+
+        @Test
+        void downloadWallpaperResumableDownloadsWholeFileWhenNoPartFileExists(@TempDir Path directory) throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok().withResponseBody(new Body("image-content"))));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 1).get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory.resolve("wallpaper.jpg.part")).doesNotExist();
+            verify(1, getRequestedFor(urlMatching("/test.jpg")).withoutHeader("Range"));
+        }
+
+        @Test
+        void downloadWallpaperResumableRequestsRemainderOfPartFile(@TempDir Path directory) throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .withHeader("Range", equalTo("bytes=6-"))
+                    .willReturn(partialContent("bytes 6-12/13", "content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "image-");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 1).get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory.resolve("wallpaper.jpg.part")).doesNotExist();
+        }
+
+        @Test
+        void downloadWallpaperResumableReplacesPartFileWhenRangeIsIgnored(@TempDir Path directory) throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .withHeader("Range", equalTo("bytes=21-"))
+                    .willReturn(ok().withResponseBody(new Body("image-content"))));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "stale-partial-content");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 1).get();
+
+            assertThat(filename).hasContent("image-content");
+        }
+
+        @Test
+        void downloadWallpaperResumableRetriesWithSameUrlWhenNotExpired(@TempDir Path directory) throws Exception {
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .clock(Clock.fixed(Instant.ofEpochSecond(99), ZoneOffset.UTC))
+                    .build();
+            stubDownloadWallpaperResponse(100);
+            stubFailingThenSuccessfulFile();
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 2).get();
+
+            assertThat(filename).hasContent("image-content");
+            verify(1, getRequestedFor(urlMatching(downloadWallpaperPath)));
+            verify(2, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperResumableResolvesUrlAgainWhenExpired(@TempDir Path directory) throws Exception {
+            underTest = DigitalBlasphemyClient.builder()
+                    .apiKey("apiKey")
+                    .baseUrl(wireMockServer.baseUrl())
+                    .clock(Clock.fixed(Instant.ofEpochSecond(100), ZoneOffset.UTC))
+                    .build();
+            stubDownloadWallpaperResponse(100);
+            stubFailingThenSuccessfulFile();
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 2).get();
+
+            assertThat(filename).hasContent("image-content");
+            verify(2, getRequestedFor(urlMatching(downloadWallpaperPath)));
+            verify(2, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperResumableFailsWhenAttemptsAreExhausted(@TempDir Path directory) throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(aResponse().withFault(Fault.EMPTY_RESPONSE)));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 3).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IOException.class);
+
+            assertThat(filename).doesNotExist();
+            verify(3, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperResumableDiscardsPartFileOnErrorResponse(@TempDir Path directory) throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(notFound().withResponseBody(new Body("Object Not Found"))));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "image-");
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 3).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(new ResponseException(404, "Not Found", List.of("Object Not Found")));
+
+            assertThat(directory).isEmptyDirectory();
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperResumableKeepsPartFileAndRetriesOnServerError(@TempDir Path directory)
+                throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .inScenario("resume")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("failed")
+                    .willReturn(aResponse().withStatus(503).withBody("<html/>")));
+            stubFor(get(urlMatching("/test.jpg"))
+                    .inScenario("resume")
+                    .whenScenarioStateIs("failed")
+                    .willReturn(partialContent("bytes 6-12/13", "content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "image-");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 2).get();
+
+            assertThat(filename).hasContent("image-content");
+            verify(2, getRequestedFor(urlMatching("/test.jpg")).withHeader("Range", equalTo("bytes=6-")));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {429, 503})
+        void downloadWallpaperResumableKeepsPartFileWhenRetryableAttemptsAreExhausted(int status,
+                                                                                      @TempDir Path directory)
+                throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .willReturn(aResponse().withStatus(status).withBody("<html/>")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "image-");
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 2).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .extracting("statusCode")
+                    .isEqualTo(status);
+
+            assertThat(directory.resolve("wallpaper.jpg.part")).hasContent("image-");
+            verify(2, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperResumableCompletesPartFileThatAlreadyHoldsWholeResource(@TempDir Path directory)
+                throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Range", equalTo("bytes=13-"))
+                    .willReturn(aResponse().withStatus(416).withHeader("Content-Range", "bytes */13")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "image-content");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 1).get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory.resolve("wallpaper.jpg.part")).doesNotExist();
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperResumableRestartsWhenPartFileIsLongerThanResource(@TempDir Path directory)
+                throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Range", equalTo("bytes=21-"))
+                    .willReturn(aResponse().withStatus(416).withHeader("Content-Range", "bytes */13")));
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Range", absent())
+                    .willReturn(ok().withResponseBody(new Body("image-content"))));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "stale-partial-content");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 1).get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory.resolve("wallpaper.jpg.part")).doesNotExist();
+            verify(2, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperResumableFailsWhenResumedFileIsShorterThanResource(@TempDir Path directory)
+                throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Range", equalTo("bytes=6-"))
+                    .willReturn(partialContent("bytes 6-12/20", "content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "image-");
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 1).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IOException.class);
+
+            assertThat(directory.resolve("wallpaper.jpg.part")).hasContent("image-content");
+            assertThat(filename).doesNotExist();
+        }
+
+        @Test
+        void downloadWallpaperResumableDoesNotAppendMismatchedRange(@TempDir Path directory) throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .inScenario("resume")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("mismatched")
+                    .willReturn(partialContent("bytes 0-12/13", "image-content")));
+            stubFor(get(urlMatching("/test.jpg"))
+                    .inScenario("resume")
+                    .whenScenarioStateIs("mismatched")
+                    .willReturn(partialContent("bytes 6-12/13", "content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "image-");
+
+            underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 2).get();
+
+            assertThat(filename).hasContent("image-content");
+            verify(2, getRequestedFor(urlMatching("/test.jpg")).withHeader("Range", equalTo("bytes=6-")));
+        }
+
+        @Test
+        void downloadWallpaperResumableFailsOnMismatchedRangeWithoutChangingPartFile(@TempDir Path directory)
+                throws Exception {
+            stubDownloadWallpaperResponse(5);
+            stubFor(get(urlMatching("/test.jpg"))
+                    .willReturn(partialContent("bytes 0-12/13", "image-content")));
+
+            Path filename = directory.resolve("wallpaper.jpg");
+            Files.writeString(directory.resolve("wallpaper.jpg.part"), "image-");
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperResumable(filename, downloadWallpaperRequest, 1).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IOException.class);
+
+            assertThat(directory.resolve("wallpaper.jpg.part")).hasContent("image-");
+            assertThat(filename).doesNotExist();
+        }
+
+        private ResponseDefinitionBuilder partialContent(String contentRange, String body) {
+            return aResponse()
+                    .withStatus(206)
+                    .withHeader("Content-Range", contentRange)
+                    .withResponseBody(new Body(body));
+        }
+
+        private void stubDownloadWallpaperResponse(long expiration) throws Exception {
+            stubFor(get(urlMatching(downloadWallpaperPath))
+                    .withHeader("Authorization", equalTo("Bearer apiKey"))
+                    .willReturn(ok()
+                            .withHeader("Content-Type", "application/json")
+                            .withResponseBody(new Body(
+                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                            .replace("{{host}}", wireMockServer.baseUrl())
+                                            .replace("\"expiration\": 5", "\"expiration\": " + expiration)
+                            ))));
+        }
+
+        private void stubFailingThenSuccessfulFile() {
+            stubFor(get(urlMatching("/test.jpg"))
+                    .inScenario("resume")
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willSetStateTo("failed")
+                    .willReturn(aResponse().withFault(Fault.EMPTY_RESPONSE)));
+            stubFor(get(urlMatching("/test.jpg"))
+                    .inScenario("resume")
+                    .whenScenarioStateIs("failed")
+                    .willReturn(ok().withResponseBody(new Body("image-content"))));
+        }
+    }
 
-            assertThat(Files.notExists(filename)).isTrue();
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
+    @Nested
+    class DownloadWallpaperSegmented {
+        private final DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
+                .type(WallpaperType.TRIPLE)
+                .width(2)
+                .height(3)
+                .wallpaperId(4)
+                .build();
+
+        @BeforeEach
+        void setup() throws Exception {
+            stubFor(get(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
                     downloadWallpaperRequest.getType(),
                     downloadWallpaperRequest.getWidth(),
                     downloadWallpaperRequest.getHeight(),
                     downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(1, getRequestedFor(urlMatching("/test.jpg")));
-        }
-
-        @Test
-        void downloadWallpaperCanMapUnknownErrorResponseWhenDownloadingFile() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
-
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
+            )))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
                     .willReturn(ok()
                             .withHeader("Content-Type", "application/json")
@@ -1502,194 +4141,312 @@ class DigitalBlasphemyClientTest {
                                     readFile("downloadWallpaperSuccessFullyPopulated.json")
                                             .replace("{{host}}", wireMockServer.baseUrl())
                             ))));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-1, 0})
+        void downloadWallpaperSegmentedRejectsSegments(int segments) {
+            assertThatThrownBy(() -> underTest.downloadWallpaperSegmented(
+                    Path.of("wallpaper.jpg"), downloadWallpaperRequest, segments))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Segments must be greater than 0.");
+        }
 
+        @Test
+        void downloadWallpaperSegmentedDownloadsRangesConcurrently(@TempDir Path directory) throws Exception {
+            stubRange("bytes=0-0", "bytes 0-0/13", "i");
+            stubRange("bytes=0-4", "bytes 0-4/13", "image");
+            stubRange("bytes=5-9", "bytes 5-9/13", "-cont");
+            stubRange("bytes=10-12", "bytes 10-12/13", "ent");
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 3).get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory).isDirectoryNotContaining(path -> !path.equals(filename));
+            verify(4, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperSegmentedDownloadsSingleSegment(@TempDir Path directory) throws Exception {
+            stubRange("bytes=0-0", "bytes 0-0/2", "a");
+            stubRange("bytes=0-1", "bytes 0-1/2", "ab");
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 1).get();
+
+            assertThat(filename).hasContent("ab");
+            verify(2, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperSegmentedUsesFewerSegmentsForSmallFiles(@TempDir Path directory) throws Exception {
+            stubRange("bytes=0-0", "bytes 0-0/2", "a");
+            stubRange("bytes=1-1", "bytes 1-1/2", "b");
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 5).get();
+
+            assertThat(filename).hasContent("ab");
+            verify(3, getRequestedFor(urlMatching("/test.jpg")));
+        }
+
+        @Test
+        void downloadWallpaperSegmentedFallsBackToSingleStreamWhenRangesAreNotSupported(@TempDir Path directory)
+                throws Exception {
             stubFor(get(urlMatching("/test.jpg"))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(aResponse().withStatus(405)));
+                    .willReturn(ok().withResponseBody(new Body("image-content"))));
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+            Path filename = directory.resolve("wallpaper.jpg");
 
-            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
-                    .isInstanceOf(ExecutionException.class)
-                    .hasCause(new ResponseException(0, "Unable to parse the body as JSON ErrorResponse. []"));
+            underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 3).get();
 
-            assertThat(Files.notExists(filename)).isTrue();
-            verify(1, getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory).isDirectoryNotContaining(path -> !path.equals(filename));
             verify(1, getRequestedFor(urlMatching("/test.jpg")));
         }
 
         @Test
-        void downloadWallpaperNoResponseWhenGettingDownloadWallpaperResponse() {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
-
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(aResponse().withFault(Fault.EMPTY_RESPONSE)));
+        void downloadWallpaperSegmentedRemovesTemporaryFileWhenSegmentFails(@TempDir Path directory) {
+            stubRange("bytes=0-0", "bytes 0-0/4", "a");
+            stubRange("bytes=0-1", "bytes 0-1/4", "ab");
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Range", equalTo("bytes=2-3"))
+                    .willReturn(notFound().withResponseBody(new Body("Object Not Found"))));
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+            Path filename = directory.resolve("wallpaper.jpg");
 
-            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+            assertThatThrownBy(() -> underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 2).get())
                     .isInstanceOf(ExecutionException.class)
-                    .hasCause(new EOFException("EOF reached while reading"));
+                    .hasCause(new ResponseException(404, "Not Found", List.of("Object Not Found")));
 
-            assertThat(Files.notExists(filename)).isTrue();
-            verify(getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(0, getRequestedFor(urlMatching("/test.jpg")));
+            assertThat(directory).isEmptyDirectory();
         }
 
         @Test
-        void downloadWallpaperNoResponseWhenDownloadingFile() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
-
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
+        void downloadWallpaperSegmentedFallsBackToSingleStreamWhenLengthIsUnknown(@TempDir Path directory)
+                throws Exception {
+            stubFor(get(urlMatching("/test.jpg"))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
-                                            .replace("{{host}}", wireMockServer.baseUrl())
-                            ))));
+                    .willReturn(ok().withResponseBody(new Body("image-content"))));
+            stubRange("bytes=0-0", "bytes 0-0/*", "i");
+
+            Path filename = directory.resolve("wallpaper.jpg");
+
+            underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 3).get();
+
+            assertThat(filename).hasContent("image-content");
+            assertThat(directory).isDirectoryNotContaining(path -> !path.equals(filename));
+            verify(1, getRequestedFor(urlMatching("/test.jpg")).withoutHeader("Range"));
+        }
 
+        @Test
+        void downloadWallpaperSegmentedFailsWhenSegmentIgnoresRange(@TempDir Path directory) {
+            stubRange("bytes=0-0", "bytes 0-0/4", "a");
+            stubRange("bytes=0-1", "bytes 0-1/4", "ab");
             stubFor(get(urlMatching("/test.jpg"))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(aResponse().withFault(Fault.EMPTY_RESPONSE)));
+                    .withHeader("Range", equalTo("bytes=2-3"))
+                    .willReturn(ok().withResponseBody(new Body("abcd"))));
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+            Path filename = directory.resolve("wallpaper.jpg");
 
-            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+            assertThatThrownBy(() -> underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 2).get())
                     .isInstanceOf(ExecutionException.class)
-                    .hasCause(new EOFException("EOF reached while reading"));
+                    .hasCauseInstanceOf(IOException.class);
 
-            assertThat(Files.notExists(filename)).isTrue();
-            verify(getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(getRequestedFor(urlMatching("/test.jpg")));
+            assertThat(directory).isEmptyDirectory();
         }
 
         @Test
-        void downloadWallpaperCanMapNonJsonResponseWhenGettingDownloadWallpaperResponse() {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
+        void downloadWallpaperSegmentedFailsWhenSegmentStartsAtWrongOffset(@TempDir Path directory) {
+            stubRange("bytes=0-0", "bytes 0-0/4", "a");
+            stubRange("bytes=0-1", "bytes 0-1/4", "ab");
+            stubRange("bytes=2-3", "bytes 0-1/4", "ab");
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(aResponse()
-                            .withResponseBody(
-                                    Body.ofBinaryOrText("<xml/>".getBytes(StandardCharsets.UTF_8),
-                                            new ContentTypeHeader("application/xml"))
-                            )));
+            Path filename = directory.resolve("wallpaper.jpg");
 
-            Path filename = Path.of(UUID.randomUUID().toString());
+            assertThatThrownBy(() -> underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 2).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IOException.class);
 
-            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
+            assertThat(directory).isEmptyDirectory();
+        }
+
+        @Test
+        void downloadWallpaperSegmentedFailsWithoutWaitingForOtherSegments(@TempDir Path directory) throws Exception {
+            stubRange("bytes=0-0", "bytes 0-0/4", "a");
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Range", equalTo("bytes=0-1"))
+                    .willReturn(aResponse()
+                            .withStatus(206)
+                            .withHeader("Content-Range", "bytes 0-1/4")
+                            .withResponseBody(new Body("ab"))
+                            .withFixedDelay(3000)));
+            stubFor(get(urlMatching("/test.jpg"))
+                    .withHeader("Range", equalTo("bytes=2-3"))
+                    .willReturn(notFound().withResponseBody(new Body("Object Not Found"))));
+            Path filename = directory.resolve("wallpaper.jpg");
+            long start = System.nanoTime();
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 2).get())
                     .isInstanceOf(ExecutionException.class)
-                    .hasRootCauseInstanceOf(JsonParseException.class)
-                    .rootCause().message().startsWith("Unexpected character ('<' (code 60))");
+                    .hasCause(new ResponseException(404, "Not Found", List.of("Object Not Found")));
 
-            assertThat(Files.notExists(filename)).isTrue();
-            verify(getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(0, getRequestedFor(urlMatching("/test.jpg")));
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(2));
+            assertThat(directory).isEmptyDirectory();
         }
 
         @Test
-        void downloadWallpaperFileCannotBeCreatedWhenDownloadingFile() throws Exception {
-            DownloadWallpaperRequest downloadWallpaperRequest = DownloadWallpaperRequest.builder()
-                    .type(WallpaperType.DUAL)
-                    .width(2)
-                    .height(3)
-                    .wallpaperId(4)
-                    .showWatermark(false)
-                    .build();
+        void downloadWallpaperSegmentedFailsWhenFileCannotBeCreated(@TempDir Path directory) {
+            stubRange("bytes=0-0", "bytes 0-0/4", "a");
 
-            stubFor(get(urlMatching(
-                    "/v2/core/download/wallpaper/%s/%s/%s/%s\\?.*".formatted(
-                            downloadWallpaperRequest.getType(),
-                            downloadWallpaperRequest.getWidth(),
-                            downloadWallpaperRequest.getHeight(),
-                            downloadWallpaperRequest.getWallpaperId()
-                    )))
-                    .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "application/json")
-                            .withResponseBody(new Body(
-                                    readFile("downloadWallpaperSuccessFullyPopulated.json")
-                                            .replace("{{host}}", wireMockServer.baseUrl())
-                            ))));
+            Path filename = directory.resolve("missing").resolve("wallpaper.jpg");
+
+            assertThatThrownBy(() -> underTest.downloadWallpaperSegmented(filename, downloadWallpaperRequest, 2).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(NoSuchFileException.class);
+
+            verify(1, getRequestedFor(urlMatching("/test.jpg")));
+        }
 
+        private void stubRange(String range, String contentRange, String body) {
             stubFor(get(urlMatching("/test.jpg"))
                     .withHeader("Authorization", equalTo("Bearer apiKey"))
-                    .willReturn(ok()
-                            .withHeader("Content-Type", "image/jpg")
-                            .withResponseBody(new Body("image-content"))));
+                    .withHeader("Range", equalTo(range))
+                    .willReturn(aResponse()
+                            .withStatus(206)
+                            .withHeader("Content-Range", contentRange)
+                            .withResponseBody(new Body(body))));
+        }
+    }
 
-            Path filename = Path.of("/does/not/exist/" + UUID.randomUUID());
+    private static class RecordingHttpClient extends HttpClient {
+        private final HttpClient delegate = HttpClient.newHttpClient();
+        private final List<CompletableFuture<?>> responses = new CopyOnWriteArrayList<>();
+        private final Map<CompletableFuture<?>, AtomicBoolean> cancelledBodies = new ConcurrentHashMap<>();
 
-            assertThatThrownBy(() -> underTest.downloadWallpaper(filename, downloadWallpaperRequest).get())
-                    .isInstanceOf(ExecutionException.class)
-                    .hasRootCause(new NoSuchFileException(filename.toString()));
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return delegate.cookieHandler();
+        }
 
-            assertThat(Files.notExists(filename)).isTrue();
-            verify(getRequestedFor(urlMatching("/v2/core/download/wallpaper/%s/%s/%s/%s\\?show_watermark=false.*".formatted(
-                    downloadWallpaperRequest.getType(),
-                    downloadWallpaperRequest.getWidth(),
-                    downloadWallpaperRequest.getHeight(),
-                    downloadWallpaperRequest.getWallpaperId()
-            ))));
-            verify(getRequestedFor(urlMatching("/test.jpg")));
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return delegate.connectTimeout();
+        }
+
+        @Override
+        public Redirect followRedirects() {
+            return delegate.followRedirects();
+        }
+
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return delegate.proxy();
+        }
+
+        @Override
+        public SSLContext sslContext() {
+            return delegate.sslContext();
+        }
+
+        @Override
+        public SSLParameters sslParameters() {
+            return delegate.sslParameters();
+        }
+
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return delegate.authenticator();
+        }
+
+        @Override
+        public Version version() {
+            return delegate.version();
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return delegate.executor();
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+                throws IOException, InterruptedException {
+            return delegate.send(request, responseBodyHandler);
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                                HttpResponse.BodyHandler<T> responseBodyHandler) {
+            AtomicBoolean bodyCancelled = new AtomicBoolean();
+            CompletableFuture<HttpResponse<T>> response = delegate.sendAsync(request, responseInfo ->
+                    new CancellationRecordingSubscriber<>(responseBodyHandler.apply(responseInfo), bodyCancelled));
+            cancelledBodies.put(response, bodyCancelled);
+            responses.add(response);
+            return response;
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+                HttpRequest request,
+                HttpResponse.BodyHandler<T> responseBodyHandler,
+                HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            return delegate.sendAsync(request, responseBodyHandler, pushPromiseHandler);
+        }
+
+        private boolean bodyCancelled(CompletableFuture<?> response) {
+            return cancelledBodies.get(response).get();
+        }
+
+        private static final class CancellationRecordingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+            private final HttpResponse.BodySubscriber<T> delegate;
+            private final AtomicBoolean cancelled;
+
+            private CancellationRecordingSubscriber(HttpResponse.BodySubscriber<T> delegate, AtomicBoolean cancelled) {
+                this.delegate = delegate;
+                this.cancelled = cancelled;
+            }
+
+            @Override
+            public CompletionStage<T> getBody() {
+                return delegate.getBody();
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                delegate.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        subscription.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        cancelled.set(true);
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+                delegate.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                delegate.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                delegate.onComplete();
+            }
         }
     }
 
@@ -0,0 +1,458 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.ResponseException;
+import com.benjaminsproule.digitalblasphemy.client.model.WallpaperType;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.Body;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+
+import static com.benjaminsproule.digitalblasphemy.client.util.FileUtils.readFile;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DownloadManagerTest {
+
+    private final HeldResponses heldResponses = new HeldResponses();
+
+    private WireMockServer wireMockServer;
+
+    private DigitalBlasphemyClient client;
+
+    @BeforeEach
+    void setup() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options()
+                .dynamicPort()
+                .extensions(heldResponses));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", wireMockServer.port());
+
+        client = DigitalBlasphemyClient.builder()
+                .apiKey("apiKey")
+                .baseUrl(wireMockServer.baseUrl())
+                .build();
+    }
+
+    @AfterEach
+    void teardown() {
+        heldResponses.releaseAll();
+        wireMockServer.stop();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void builderRejectsMaxConcurrentDownloads(int maxConcurrentDownloads) {
+        assertThatThrownBy(() -> DownloadManager.builder().maxConcurrentDownloads(maxConcurrentDownloads))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max concurrent downloads must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void builderRejectsMaxConcurrentDownloadsPerHost(int maxConcurrentDownloadsPerHost) {
+        assertThatThrownBy(() -> DownloadManager.builder().maxConcurrentDownloadsPerHost(maxConcurrentDownloadsPerHost))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max concurrent downloads per host must be greater than 0.");
+    }
+
+    @Test
+    void builderRequiresClient() {
+        assertThatThrownBy(() -> DownloadManager.builder().build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Client must be provided.");
+    }
+
+    @Test
+    void submitDownloadsWallpaper(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder().client(client).build();
+        stubWallpaper(1, "localhost");
+
+        underTest.submit(directory.resolve("1.jpg"), request(1), DownloadManager.Priority.INTERACTIVE).get();
+
+        assertThat(directory.resolve("1.jpg")).hasContent("image-1");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 1, 0));
+    }
+
+    @Test
+    void submitLimitsConcurrentDownloads(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder().client(client).maxConcurrentDownloads(1).build();
+        stubWallpaper(1, "localhost");
+        stubWallpaper(2, "127.0.0.1");
+        heldResponses.hold("/1.jpg");
+
+        CompletableFuture<Void> first = underTest.submit(directory.resolve("1.jpg"), request(1),
+                DownloadManager.Priority.BACKGROUND);
+        CompletableFuture<Void> second = underTest.submit(directory.resolve("2.jpg"), request(2),
+                DownloadManager.Priority.BACKGROUND);
+
+        await(() -> heldResponses.started().contains("/1.jpg"));
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(1, 1, 0, 0));
+        verify(0, getRequestedFor(urlMatching(downloadUrl(2))));
+
+        heldResponses.release("/1.jpg");
+        CompletableFuture.allOf(first, second).get();
+
+        assertThat(heldResponses.started()).containsExactly("/1.jpg", "/2.jpg");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 2, 0));
+    }
+
+    @Test
+    void submitLimitsConcurrentDownloadsPerHost(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder()
+                .client(client)
+                .maxConcurrentDownloads(4)
+                .maxConcurrentDownloadsPerHost(1)
+                .build();
+        stubWallpaper(1, "localhost");
+        stubWallpaper(2, "localhost");
+        stubWallpaper(3, "localhost");
+        stubWallpaper(4, "127.0.0.1");
+        heldResponses.hold("/1.jpg");
+        heldResponses.hold("/3.jpg");
+
+        CompletableFuture<Void> first = underTest.submit(directory.resolve("1.jpg"), request(1),
+                DownloadManager.Priority.BACKGROUND);
+        await(() -> heldResponses.started().contains("/1.jpg"));
+        List<CompletableFuture<Void>> downloads = List.of(first,
+                underTest.submit(directory.resolve("2.jpg"), request(2), DownloadManager.Priority.BACKGROUND),
+                underTest.submit(directory.resolve("3.jpg"), request(3), DownloadManager.Priority.INTERACTIVE),
+                underTest.submit(directory.resolve("4.jpg"), request(4), DownloadManager.Priority.BACKGROUND));
+
+        downloads.get(3).get();
+        awaitResolved(2);
+        awaitResolved(3);
+        assertThat(heldResponses.started()).containsExactlyInAnyOrder("/1.jpg", "/4.jpg");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(2, 1, 1, 0));
+
+        heldResponses.release("/1.jpg");
+        await(() -> heldResponses.started().contains("/3.jpg"));
+        Thread.sleep(200);
+        assertThat(heldResponses.started()).doesNotContain("/2.jpg");
+
+        heldResponses.release("/3.jpg");
+        CompletableFuture.allOf(downloads.toArray(CompletableFuture[]::new)).get();
+
+        assertThat(heldResponses.started()).endsWith("/3.jpg", "/2.jpg");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 4, 0));
+    }
+
+    @Test
+    void downloadsWaitingForAHostDoNotHoldGlobalSlots(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder()
+                .client(client)
+                .maxConcurrentDownloads(2)
+                .maxConcurrentDownloadsPerHost(1)
+                .build();
+        stubWallpaper(1, "localhost");
+        stubWallpaper(2, "localhost");
+        stubWallpaper(3, "localhost");
+        stubWallpaper(4, "127.0.0.1");
+        heldResponses.hold("/1.jpg");
+
+        CompletableFuture<Void> first = underTest.submit(directory.resolve("1.jpg"), request(1),
+                DownloadManager.Priority.BACKGROUND);
+        await(() -> heldResponses.started().contains("/1.jpg"));
+        CompletableFuture<Void> second = underTest.submit(directory.resolve("2.jpg"), request(2),
+                DownloadManager.Priority.INTERACTIVE);
+        awaitResolved(2);
+        CompletableFuture<Void> third = underTest.submit(directory.resolve("3.jpg"), request(3),
+                DownloadManager.Priority.INTERACTIVE);
+        awaitResolved(3);
+        CompletableFuture<Void> fourth = underTest.submit(directory.resolve("4.jpg"), request(4),
+                DownloadManager.Priority.BACKGROUND);
+
+        fourth.get(5, SECONDS);
+
+        assertThat(heldResponses.started()).containsExactly("/1.jpg", "/4.jpg");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(2, 1, 1, 0));
+
+        heldResponses.release("/1.jpg");
+        CompletableFuture.allOf(first, second, third).get();
+
+        assertThat(heldResponses.started()).containsExactly("/1.jpg", "/4.jpg", "/2.jpg", "/3.jpg");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 4, 0));
+    }
+
+    @Test
+    void submitRunsInteractiveDownloadsFirst(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder().client(client).maxConcurrentDownloads(1).build();
+        for (int wallpaperId = 1; wallpaperId <= 4; wallpaperId++) {
+            stubWallpaper(wallpaperId, "localhost");
+        }
+        heldResponses.hold("/1.jpg");
+
+        List<CompletableFuture<Void>> downloads = List.of(
+                underTest.submit(directory.resolve("1.jpg"), request(1), DownloadManager.Priority.BACKGROUND),
+                underTest.submit(directory.resolve("2.jpg"), request(2), DownloadManager.Priority.BACKGROUND),
+                underTest.submit(directory.resolve("3.jpg"), request(3), DownloadManager.Priority.INTERACTIVE),
+                underTest.submit(directory.resolve("4.jpg"), request(4), DownloadManager.Priority.BACKGROUND));
+        heldResponses.release("/1.jpg");
+        CompletableFuture.allOf(downloads.toArray(CompletableFuture[]::new)).get();
+
+        assertThat(heldResponses.started()).containsExactly("/1.jpg", "/3.jpg", "/2.jpg", "/4.jpg");
+    }
+
+    @Test
+    void submitDeduplicatesDownloadsOfTheSameFile(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder().client(client).build();
+        stubWallpaper(1, "localhost");
+        stubWallpaper(2, "localhost");
+        heldResponses.hold("/1.jpg");
+
+        CompletableFuture<Void> first = underTest.submit(directory.resolve("wallpaper.jpg"), request(1),
+                DownloadManager.Priority.BACKGROUND);
+        CompletableFuture<Void> second = underTest.submit(directory.resolve("other/../wallpaper.jpg"), request(2),
+                DownloadManager.Priority.INTERACTIVE);
+        heldResponses.release("/1.jpg");
+        CompletableFuture.allOf(first, second).get();
+
+        assertThat(directory.resolve("wallpaper.jpg")).hasContent("image-1");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 1, 0));
+        verify(0, getRequestedFor(urlMatching(downloadUrl(2))));
+
+        underTest.submit(directory.resolve("wallpaper.jpg"), request(2), DownloadManager.Priority.BACKGROUND).get();
+
+        assertThat(directory.resolve("wallpaper.jpg")).hasContent("image-2");
+    }
+
+    @Test
+    void submitPromotesAQueuedDuplicateToAHigherPriority(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder().client(client).maxConcurrentDownloads(1).build();
+        for (int wallpaperId = 1; wallpaperId <= 3; wallpaperId++) {
+            stubWallpaper(wallpaperId, "localhost");
+        }
+        heldResponses.hold("/1.jpg");
+
+        List<CompletableFuture<Void>> downloads = List.of(
+                underTest.submit(directory.resolve("1.jpg"), request(1), DownloadManager.Priority.BACKGROUND),
+                underTest.submit(directory.resolve("2.jpg"), request(2), DownloadManager.Priority.BACKGROUND),
+                underTest.submit(directory.resolve("3.jpg"), request(3), DownloadManager.Priority.BACKGROUND),
+                underTest.submit(directory.resolve("3.jpg"), request(3), DownloadManager.Priority.INTERACTIVE));
+        heldResponses.release("/1.jpg");
+        CompletableFuture.allOf(downloads.toArray(CompletableFuture[]::new)).get();
+
+        assertThat(heldResponses.started()).containsExactly("/1.jpg", "/3.jpg", "/2.jpg");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 3, 0));
+    }
+
+    @Test
+    void finishedDownloadsReleaseTheirHosts(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder()
+                .client(client)
+                .maxConcurrentDownloadsPerHost(1)
+                .build();
+        stubWallpaper(1, "localhost");
+        stubWallpaper(2, "localhost");
+        stubWallpaper(3, "127.0.0.1");
+        heldResponses.hold("/1.jpg");
+
+        CompletableFuture<Void> first = underTest.submit(directory.resolve("1.jpg"), request(1),
+                DownloadManager.Priority.BACKGROUND);
+        CompletableFuture<Void> second = underTest.submit(directory.resolve("2.jpg"), request(2),
+                DownloadManager.Priority.BACKGROUND);
+        CompletableFuture<Void> third = underTest.submit(directory.resolve("3.jpg"), request(3),
+                DownloadManager.Priority.BACKGROUND);
+        awaitResolved(2);
+        third.get();
+        second.cancel(true);
+
+        assertThat(underTest.activeHosts()).isEqualTo(1);
+
+        heldResponses.release("/1.jpg");
+        first.get();
+
+        await(() -> underTest.activeHosts() == 0);
+    }
+
+    @Test
+    void cancellingQueuedDownloadRemovesItFromTheQueue(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder().client(client).maxConcurrentDownloads(1).build();
+        stubWallpaper(1, "localhost");
+        stubWallpaper(2, "localhost");
+        stubWallpaper(3, "localhost");
+        heldResponses.hold("/1.jpg");
+
+        CompletableFuture<Void> first = underTest.submit(directory.resolve("1.jpg"), request(1),
+                DownloadManager.Priority.BACKGROUND);
+        CompletableFuture<Void> second = underTest.submit(directory.resolve("2.jpg"), request(2),
+                DownloadManager.Priority.BACKGROUND);
+        CompletableFuture<Void> third = underTest.submit(directory.resolve("3.jpg"), request(3),
+                DownloadManager.Priority.BACKGROUND);
+
+        second.cancel(true);
+
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(1, 1, 0, 1));
+
+        heldResponses.release("/1.jpg");
+        CompletableFuture.allOf(first, third).get();
+
+        assertThat(heldResponses.started()).containsExactly("/1.jpg", "/3.jpg");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 2, 1));
+        verify(0, getRequestedFor(urlMatching(downloadUrl(2))));
+    }
+
+    @Test
+    void cancellingDownloadWaitingForHostFreesItsTurn(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder()
+                .client(client)
+                .maxConcurrentDownloadsPerHost(1)
+                .build();
+        stubWallpaper(1, "localhost");
+        stubWallpaper(2, "localhost");
+        stubWallpaper(3, "localhost");
+        heldResponses.hold("/1.jpg");
+
+        CompletableFuture<Void> first = underTest.submit(directory.resolve("1.jpg"), request(1),
+                DownloadManager.Priority.BACKGROUND);
+        await(() -> heldResponses.started().contains("/1.jpg"));
+        CompletableFuture<Void> second = underTest.submit(directory.resolve("2.jpg"), request(2),
+                DownloadManager.Priority.BACKGROUND);
+        awaitResolved(2);
+
+        second.cancel(true);
+        CompletableFuture<Void> third = underTest.submit(directory.resolve("3.jpg"), request(3),
+                DownloadManager.Priority.BACKGROUND);
+        awaitResolved(3);
+        heldResponses.release("/1.jpg");
+        CompletableFuture.allOf(first, third).get();
+
+        assertThat(heldResponses.started()).containsExactly("/1.jpg", "/3.jpg");
+        assertThat(directory).isDirectoryNotContaining(path -> path.endsWith("2.jpg"));
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 2, 1));
+    }
+
+    @Test
+    void failedDownloadFreesItsSlot(@TempDir Path directory) throws Exception {
+        DownloadManager underTest = DownloadManager.builder()
+                .client(client)
+                .maxConcurrentDownloads(1)
+                .maxConcurrentDownloadsPerHost(1)
+                .build();
+        stubWallpaper(1, "localhost");
+        stubFor(get(urlEqualTo("/1.jpg")).willReturn(notFound()));
+        stubWallpaper(2, "localhost");
+
+        CompletableFuture<Void> first = underTest.submit(directory.resolve("1.jpg"), request(1),
+                DownloadManager.Priority.BACKGROUND);
+        CompletableFuture<Void> second = underTest.submit(directory.resolve("2.jpg"), request(2),
+                DownloadManager.Priority.BACKGROUND);
+
+        assertThatThrownBy(first::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ResponseException.class);
+        second.get();
+
+        assertThat(directory.resolve("2.jpg")).hasContent("image-2");
+        assertThat(underTest.progress()).isEqualTo(new DownloadManager.Progress(0, 0, 1, 1));
+    }
+
+    private void stubWallpaper(int wallpaperId, String host) throws Exception {
+        stubFor(get(urlMatching(downloadUrl(wallpaperId)))
+                .withHeader("Authorization", equalTo("Bearer apiKey"))
+                .willReturn(ok()
+                        .withHeader("Content-Type", "application/json")
+                        .withResponseBody(new Body(readFile("downloadWallpaperSuccessFullyPopulated.json")
+                                .replace("{{host}}", "http://" + host + ":" + wireMockServer.port())
+                                .replace("/test.jpg", "/" + wallpaperId + ".jpg")))));
+        stubFor(get(urlEqualTo("/" + wallpaperId + ".jpg"))
+                .willReturn(ok().withResponseBody(new Body("image-" + wallpaperId))));
+    }
+
+    private void awaitResolved(int wallpaperId) throws InterruptedException {
+        await(() -> !WireMock.findAll(getRequestedFor(urlMatching(downloadUrl(wallpaperId)))).isEmpty());
+        Thread.sleep(200);
+    }
+
+    private static String downloadUrl(int wallpaperId) {
+        return "/v2/core/download/wallpaper/single/1920/1080/" + wallpaperId + "\\?.*";
+    }
+
+    private static DownloadWallpaperRequest request(int wallpaperId) {
+        return DownloadWallpaperRequest.builder()
+                .type(WallpaperType.SINGLE)
+                .width(1920)
+                .height(1080)
+                .wallpaperId(wallpaperId)
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static class HeldResponses implements ResponseDefinitionTransformerV2 {
+        private final Map<String, CountDownLatch> held = new ConcurrentHashMap<>();
+        private final List<String> started = new CopyOnWriteArrayList<>();
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            String url = serveEvent.getRequest().getUrl();
+            if (url.endsWith(".jpg")) {
+                started.add(url);
+                CountDownLatch latch = held.get(url);
+                if (latch != null) {
+                    try {
+                        latch.await(10, SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            return serveEvent.getResponseDefinition();
+        }
+
+        @Override
+        public String getName() {
+            return "held-responses";
+        }
+
+        private void hold(String url) {
+            held.put(url, new CountDownLatch(1));
+        }
+
+        private void release(String url) {
+            held.remove(url).countDown();
+        }
+
+        private void releaseAll() {
+            held.values().forEach(CountDownLatch::countDown);
+        }
+
+        private List<String> started() {
+            return started;
+        }
+    }
+}
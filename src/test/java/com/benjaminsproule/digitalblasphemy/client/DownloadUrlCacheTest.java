@@ -0,0 +1,178 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.DownloadWallpaperResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.WallpaperType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DownloadUrlCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void builderRejectsMaximumSize(long maximumSize) {
+        assertThatThrownBy(() -> DownloadUrlCache.builder().maximumSize(maximumSize))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Maximum size must be greater than 0.");
+    }
+
+    @Test
+    void builderRejectsExpiryMargin() {
+        assertThatThrownBy(() -> DownloadUrlCache.builder().expiryMargin(Duration.ofMillis(-1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expiry margin must not be negative.");
+    }
+
+    @Test
+    void builderAcceptsBoundaryValues() {
+        assertThatCode(() -> DownloadUrlCache.builder().maximumSize(1).expiryMargin(Duration.ZERO).build())
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void getReturnsCachedDownloadAndRecordsStats() {
+        DownloadUrlCache underTest = DownloadUrlCache.builder().clock(clock).build();
+        DownloadWallpaperResponse.Download download = download(100);
+
+        assertThat(underTest.get(request(1))).isNull();
+        underTest.put(request(1), download);
+
+        assertThat(underTest.get(request(1))).isSameAs(download);
+        assertThat(underTest.get(request(2))).isNull();
+        assertThat(underTest.stats()).isEqualTo(new DownloadUrlCache.Stats(1, 2, 0, 1));
+    }
+
+    @Test
+    void getDistinguishesEveryRequestField() {
+        DownloadUrlCache underTest = DownloadUrlCache.builder().clock(clock).build();
+        underTest.put(request(1), download(100));
+
+        assertThat(underTest.get(request(WallpaperType.DUAL, 1920, 1080, 1, true))).isNull();
+        assertThat(underTest.get(request(WallpaperType.SINGLE, 1, 1080, 1, true))).isNull();
+        assertThat(underTest.get(request(WallpaperType.SINGLE, 1920, 1, 1, true))).isNull();
+        assertThat(underTest.get(request(WallpaperType.SINGLE, 1920, 1080, 1, false))).isNull();
+        assertThat(underTest.get(request(1))).isNotNull();
+    }
+
+    @Test
+    void getExpiresDownloadBeforeItsExpiration() {
+        DownloadUrlCache underTest = DownloadUrlCache.builder()
+                .expiryMargin(Duration.ofSeconds(10))
+                .clock(clock)
+                .build();
+        underTest.put(request(1), download(100));
+        clock.millis = 89_999;
+
+        assertThat(underTest.get(request(1))).isNotNull();
+
+        clock.millis = 90_000;
+
+        assertThat(underTest.get(request(1))).isNull();
+        assertThat(underTest.stats()).isEqualTo(new DownloadUrlCache.Stats(1, 1, 1, 0));
+    }
+
+    @Test
+    void getExpiresDownloadAtItsExpirationWithoutMargin() {
+        DownloadUrlCache underTest = DownloadUrlCache.builder().expiryMargin(Duration.ZERO).clock(clock).build();
+        underTest.put(request(1), download(100));
+        clock.millis = 99_999;
+
+        assertThat(underTest.get(request(1))).isNotNull();
+
+        clock.millis = 100_000;
+
+        assertThat(underTest.get(request(1))).isNull();
+    }
+
+    @Test
+    void putEvictsLeastRecentlyUsedDownloads() {
+        DownloadUrlCache underTest = DownloadUrlCache.builder().maximumSize(2).clock(clock).build();
+        underTest.put(request(1), download(100));
+        underTest.put(request(2), download(100));
+        underTest.get(request(1));
+
+        underTest.put(request(3), download(100));
+
+        assertThat(underTest.get(request(2))).isNull();
+        assertThat(underTest.get(request(1))).isNotNull();
+        assertThat(underTest.get(request(3))).isNotNull();
+        assertThat(underTest.stats().evictionCount()).isEqualTo(1);
+        assertThat(underTest.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidateRemovesDownload() {
+        DownloadUrlCache underTest = DownloadUrlCache.builder().clock(clock).build();
+        underTest.put(request(1), download(100));
+        underTest.put(request(2), download(100));
+
+        underTest.invalidate(request(1));
+
+        assertThat(underTest.get(request(1))).isNull();
+        assertThat(underTest.get(request(2))).isNotNull();
+
+        underTest.invalidateAll();
+
+        assertThat(underTest.get(request(2))).isNull();
+        assertThat(underTest.stats().size()).isZero();
+    }
+
+    private static DownloadWallpaperRequest request(int wallpaperId) {
+        return request(WallpaperType.SINGLE, 1920, 1080, wallpaperId, true);
+    }
+
+    private static DownloadWallpaperRequest request(WallpaperType type,
+                                                    int width,
+                                                    int height,
+                                                    int wallpaperId,
+                                                    boolean showWatermark) {
+        return DownloadWallpaperRequest.builder()
+                .type(type)
+                .width(width)
+                .height(height)
+                .wallpaperId(wallpaperId)
+                .showWatermark(showWatermark)
+                .build();
+    }
+
+    private static DownloadWallpaperResponse.Download download(long expiration) {
+        return new DownloadWallpaperResponse.Download(expiration, "https://cdn.example.com/" + expiration + ".jpg");
+    }
+
+    private static class MutableClock extends Clock {
+        private long millis;
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
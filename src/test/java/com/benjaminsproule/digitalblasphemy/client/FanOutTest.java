@@ -0,0 +1,117 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FanOutTest {
+
+    private final Map<Integer, CompletableFuture<String>> requests = new LinkedHashMap<>();
+
+    @Test
+    void executeReturnsResultsInKeyOrder() throws Exception {
+        CompletableFuture<List<String>> result = fanOut(List.of(1, 2, 3)).execute(3);
+
+        requests.get(3).complete("three");
+        requests.get(1).complete("one");
+        assertThat(result).isNotDone();
+        requests.get(2).complete("two");
+
+        assertThat(result.get()).containsExactly("one", "two", "three");
+    }
+
+    @Test
+    void executeBoundsConcurrentRequests() throws Exception {
+        CompletableFuture<List<String>> result = fanOut(List.of(1, 2, 3, 4, 5)).execute(2);
+
+        assertThat(requests).containsOnlyKeys(1, 2);
+
+        requests.get(2).complete("two");
+
+        assertThat(requests).containsOnlyKeys(1, 2, 3);
+
+        requests.get(1).complete("one");
+        requests.get(3).complete("three");
+
+        assertThat(requests).containsOnlyKeys(1, 2, 3, 4, 5);
+
+        requests.get(4).complete("four");
+        requests.get(5).complete("five");
+
+        assertThat(result.get()).containsExactly("one", "two", "three", "four", "five");
+    }
+
+    @Test
+    void executeCompletesWithoutKeys() throws Exception {
+        assertThat(fanOut(List.of()).execute(1).get()).isEmpty();
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void executeFailsOnFirstFailedRequest() {
+        IllegalStateException exception = new IllegalStateException("failed");
+        CompletableFuture<List<String>> result = fanOut(List.of(1, 2, 3, 4)).execute(2);
+
+        requests.get(1).completeExceptionally(exception);
+        requests.get(2).complete("two");
+
+        assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+        assertThat(requests).containsOnlyKeys(1, 2);
+    }
+
+    @Test
+    void executeCancelsRequestsInFlightOnFirstFailedRequest() {
+        CompletableFuture<List<String>> result = fanOut(List.of(1, 2, 3, 4)).execute(3);
+
+        requests.get(2).completeExceptionally(new IllegalStateException("failed"));
+
+        assertThat(result).isCompletedExceptionally();
+        assertThat(requests.get(1)).isCancelled();
+        assertThat(requests.get(3)).isCancelled();
+        assertThat(requests).containsOnlyKeys(1, 2, 3);
+    }
+
+    @Test
+    void executeCancelsRequestsInFlightWhenCancelled() {
+        CompletableFuture<List<String>> result = fanOut(List.of(1, 2, 3)).execute(2);
+
+        result.cancel(true);
+
+        assertThat(requests.get(1)).isCancelled();
+        assertThat(requests.get(2)).isCancelled();
+        assertThat(requests).containsOnlyKeys(1, 2);
+    }
+
+    @Test
+    void executeFailsWhenRequestThrows() {
+        IllegalStateException exception = new IllegalStateException("failed");
+        CompletableFuture<List<String>> result = new FanOut<Integer, String>(List.of(1, 2, 3), key -> {
+            if (key == 2) {
+                throw exception;
+            }
+            CompletableFuture<String> request = new CompletableFuture<>();
+            requests.put(key, request);
+            return request;
+        }, Runnable::run).execute(2);
+
+        assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+        assertThat(requests.get(1)).isCancelled();
+        assertThat(requests).containsOnlyKeys(1);
+    }
+
+    private FanOut<Integer, String> fanOut(List<Integer> keys) {
+        return new FanOut<>(new ArrayList<>(keys), key -> {
+            CompletableFuture<String> request = new CompletableFuture<>();
+            requests.put(key, request);
+            return request;
+        }, Runnable::run);
+    }
+}
@@ -0,0 +1,271 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileChannelBodySubscriberTest {
+
+    @Test
+    void writesBuffersFromPosition(@TempDir Path directory) throws Exception {
+        Path file = Files.writeString(directory.resolve("file"), "0123456789");
+        RecordingSubscription subscription = new RecordingSubscription();
+        FileChannelBodySubscriber underTest = new FileChannelBodySubscriber(() -> FileChannel.open(file, WRITE), 2);
+
+        underTest.onSubscribe(subscription);
+        underTest.onNext(List.of(buffer("ab"), buffer("cd")));
+        underTest.onNext(List.of(buffer("ef")));
+        underTest.onComplete();
+
+        assertThat(underTest.getBody().toCompletableFuture().get()).isNull();
+        assertThat(file).hasContent("01abcdef89");
+        assertThat(subscription.requested).isEqualTo(3);
+        assertThat(subscription.cancelled).isFalse();
+    }
+
+    @Test
+    void writesPartiallyWrittenBuffersUntilComplete() throws Exception {
+        StubFileChannel channel = new StubFileChannel(1, null, null);
+        FileChannelBodySubscriber underTest = new FileChannelBodySubscriber(() -> channel, 5);
+
+        underTest.onSubscribe(new RecordingSubscription());
+        underTest.onNext(List.of(buffer("abc")));
+
+        assertThat(channel.positions).containsExactly(5L, 6L, 7L);
+    }
+
+    @Test
+    void completesExceptionallyWhenChannelCannotBeOpened(@TempDir Path directory) {
+        Path file = directory.resolve("missing");
+        RecordingSubscription subscription = new RecordingSubscription();
+        FileChannelBodySubscriber underTest = new FileChannelBodySubscriber(() -> FileChannel.open(file, WRITE), 0);
+
+        underTest.onSubscribe(subscription);
+
+        assertThatThrownBy(() -> underTest.getBody().toCompletableFuture().get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(NoSuchFileException.class);
+        assertThat(subscription.requested).isEqualTo(0);
+        assertThat(subscription.cancelled).isTrue();
+    }
+
+    @Test
+    void completesExceptionallyWhenWriteFails() {
+        IOException writeException = new IOException("write");
+        StubFileChannel channel = new StubFileChannel(0, writeException, null);
+        RecordingSubscription subscription = new RecordingSubscription();
+        FileChannelBodySubscriber underTest = new FileChannelBodySubscriber(() -> channel, 0);
+
+        underTest.onSubscribe(subscription);
+        underTest.onNext(List.of(buffer("abc")));
+
+        assertThatThrownBy(() -> underTest.getBody().toCompletableFuture().get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(writeException);
+        assertThat(subscription.requested).isEqualTo(1);
+        assertThat(subscription.cancelled).isTrue();
+        assertThat(channel.isOpen()).isFalse();
+    }
+
+    @Test
+    void completesExceptionallyWithErrorAndClosesChannel() {
+        StubFileChannel channel = new StubFileChannel(0, null, null);
+        FileChannelBodySubscriber underTest = new FileChannelBodySubscriber(() -> channel, 0);
+        RuntimeException error = new RuntimeException("error");
+
+        underTest.onSubscribe(new RecordingSubscription());
+        underTest.onError(error);
+
+        assertThatThrownBy(() -> underTest.getBody().toCompletableFuture().get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(error);
+        assertThat(channel.isOpen()).isFalse();
+    }
+
+    @Test
+    void completesExceptionallyWithErrorWhenChannelWasNeverOpened() {
+        FileChannelBodySubscriber underTest = new FileChannelBodySubscriber(() -> {
+            throw new IOException("open");
+        }, 0);
+        RuntimeException error = new RuntimeException("error");
+
+        underTest.onSubscribe(new RecordingSubscription());
+        underTest.onError(error);
+
+        assertThat(error.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    void suppressesCloseFailureOnError() {
+        IOException closeException = new IOException("close");
+        StubFileChannel channel = new StubFileChannel(0, null, closeException);
+        FileChannelBodySubscriber underTest = new FileChannelBodySubscriber(() -> channel, 0);
+        RuntimeException error = new RuntimeException("error");
+
+        underTest.onSubscribe(new RecordingSubscription());
+        underTest.onError(error);
+
+        assertThatThrownBy(() -> underTest.getBody().toCompletableFuture().get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(error);
+        assertThat(error.getSuppressed()).containsExactly(closeException);
+    }
+
+    @Test
+    void completesExceptionallyWhenCloseFails() {
+        IOException closeException = new IOException("close");
+        StubFileChannel channel = new StubFileChannel(0, null, closeException);
+        FileChannelBodySubscriber underTest = new FileChannelBodySubscriber(() -> channel, 0);
+
+        underTest.onSubscribe(new RecordingSubscription());
+        underTest.onComplete();
+
+        assertThatThrownBy(() -> underTest.getBody().toCompletableFuture().get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(closeException);
+    }
+
+    private static ByteBuffer buffer(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class RecordingSubscription implements Flow.Subscription {
+        private long requested;
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class StubFileChannel extends FileChannel {
+        private final int maxBytesPerWrite;
+        private final IOException writeException;
+        private final IOException closeException;
+        private final List<Long> positions = new ArrayList<>();
+
+        private StubFileChannel(int maxBytesPerWrite, IOException writeException, IOException closeException) {
+            this.maxBytesPerWrite = maxBytesPerWrite;
+            this.writeException = writeException;
+            this.closeException = closeException;
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            if (writeException != null) {
+                throw writeException;
+            }
+            positions.add(position);
+            int written = Math.min(maxBytesPerWrite, src.remaining());
+            src.position(src.position() + written);
+            return written;
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            if (closeException != null) {
+                throw closeException;
+            }
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long size() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileChannel truncate(long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void force(boolean metaData) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FuturesTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private final CompletableFuture<String> first = new CompletableFuture<>();
+    private final CompletableFuture<Integer> second = new CompletableFuture<>();
+    private final AtomicInteger nextCalls = new AtomicInteger();
+
+    @Test
+    void cancellingCancelsSourceWhenDerivedFails() {
+        CompletableFuture<String> derived = new CompletableFuture<>();
+
+        assertThat(Futures.cancelling(derived, first)).isSameAs(derived);
+
+        derived.cancel(true);
+
+        assertThat(first).isCancelled();
+    }
+
+    @Test
+    void cancellingDoesNotCancelSourceWhenDerivedSucceeds() {
+        CompletableFuture<String> derived = Futures.cancelling(new CompletableFuture<>(), first);
+
+        derived.complete("derived");
+
+        assertThat(first).isNotDone();
+    }
+
+    @Test
+    void composeCompletesWithResultOfNextStage() throws Exception {
+        CompletableFuture<Integer> result = Futures.compose(first, this::next, DIRECT);
+
+        first.complete("first");
+
+        assertThat(nextCalls).hasValue(1);
+        assertThat(result).isNotDone();
+
+        second.complete(2);
+
+        assertThat(result.get()).isEqualTo(2);
+    }
+
+    @Test
+    void composeFailsWhenFirstStageFails() {
+        CompletableFuture<Integer> result = Futures.compose(first, this::next, DIRECT);
+        IllegalStateException exception = new IllegalStateException("failed");
+
+        first.completeExceptionally(exception);
+
+        assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+        assertThat(nextCalls).hasValue(0);
+    }
+
+    @Test
+    void composeFailsWhenNextStageFails() {
+        CompletableFuture<Integer> result = Futures.compose(first, this::next, DIRECT);
+        IllegalStateException exception = new IllegalStateException("failed");
+
+        first.complete("first");
+        second.completeExceptionally(exception);
+
+        assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+    }
+
+    @Test
+    void composeFailsWhenNextStageCannotBeCreated() {
+        IllegalStateException exception = new IllegalStateException("failed");
+        CompletableFuture<Integer> result = Futures.compose(first, value -> {
+            throw exception;
+        }, DIRECT);
+
+        first.complete("first");
+
+        assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+    }
+
+    @Test
+    void composeCancelsFirstStageWhenCancelled() {
+        CompletableFuture<Integer> result = Futures.compose(first, this::next, DIRECT);
+
+        result.cancel(true);
+
+        assertThat(first).isCancelled();
+        assertThat(nextCalls).hasValue(0);
+    }
+
+    @Test
+    void composeCancelsNextStageWhenCancelled() {
+        CompletableFuture<Integer> result = Futures.compose(first, this::next, DIRECT);
+        first.complete("first");
+
+        result.cancel(true);
+
+        assertThat(second).isCancelled();
+    }
+
+    @Test
+    void completeWrapsFailuresInCompletionException() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        IllegalStateException exception = new IllegalStateException("failed");
+
+        Futures.complete(future, null, exception);
+
+        assertThatThrownBy(future::join).isInstanceOf(CompletionException.class).hasCause(exception);
+    }
+
+    @Test
+    void completeDoesNotWrapCompletionExceptionAgain() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletionException exception = new CompletionException(new IllegalStateException("failed"));
+
+        Futures.complete(future, null, exception);
+
+        assertThatThrownBy(future::join).isSameAs(exception);
+    }
+
+    @Test
+    void completeCompletesWithValue() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        Futures.complete(future, "value", null);
+
+        assertThat(future).isCompletedWithValue("value");
+    }
+
+    private CompletableFuture<Integer> next(String value) {
+        nextCalls.incrementAndGet();
+        return second;
+    }
+}
@@ -0,0 +1,120 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingPolicyTest {
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.5, 0, 1.01})
+    void builderRejectsPercentile(double percentile) {
+        assertThatThrownBy(() -> HedgingPolicy.builder().percentile(percentile))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Percentile must be greater than 0 and at most 1.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.5, 0, 1.01})
+    void builderRejectsMaxHedgeRatio(double maxHedgeRatio) {
+        assertThatThrownBy(() -> HedgingPolicy.builder().maxHedgeRatio(maxHedgeRatio))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max hedge ratio must be greater than 0 and at most 1.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void builderRejectsInitialDelay(long initialDelay) {
+        assertThatThrownBy(() -> HedgingPolicy.builder().initialDelay(Duration.ofMillis(initialDelay)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Initial delay must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void builderRejectsSampleSize(int sampleSize) {
+        assertThatThrownBy(() -> HedgingPolicy.builder().sampleSize(sampleSize))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Sample size must be greater than 0.");
+    }
+
+    @Test
+    void builderAcceptsBoundaryValues() {
+        assertThatCode(() -> HedgingPolicy.builder()
+                .percentile(1)
+                .maxHedgeRatio(1)
+                .initialDelay(Duration.ofNanos(1))
+                .sampleSize(1)
+                .build())
+                .doesNotThrowAnyException();
+        assertThatCode(() -> HedgingPolicy.builder().percentile(0.01).maxHedgeRatio(0.01).build())
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void hedgeDelayUsesInitialDelayUntilEnoughSamples() {
+        HedgingPolicy underTest = HedgingPolicy.builder().initialDelay(Duration.ofMillis(250)).sampleSize(3).build();
+        underTest.recordLatency(10);
+        underTest.recordLatency(20);
+
+        assertThat(underTest.hedgeDelay()).isEqualTo(Duration.ofMillis(250));
+
+        underTest.recordLatency(30);
+
+        assertThat(underTest.hedgeDelay()).isEqualTo(Duration.ofNanos(30));
+    }
+
+    @Test
+    void hedgeDelayUsesPercentileOfRecentLatencies() {
+        HedgingPolicy underTest = HedgingPolicy.builder().percentile(0.9).sampleSize(20).build();
+        LongStream.rangeClosed(1, 20).map(latency -> 21 - latency).forEach(underTest::recordLatency);
+
+        assertThat(underTest.hedgeDelay()).isEqualTo(Duration.ofNanos(18));
+
+        LongStream.rangeClosed(101, 110).forEach(underTest::recordLatency);
+
+        assertThat(underTest.hedgeDelay()).isEqualTo(Duration.ofNanos(108));
+    }
+
+    @Test
+    void hedgeDelayUsesSmallestAndLargestLatencyAtExtremes() {
+        HedgingPolicy lowest = HedgingPolicy.builder().percentile(0.01).sampleSize(3).build();
+        HedgingPolicy highest = HedgingPolicy.builder().percentile(1).sampleSize(3).build();
+        LongStream.of(30, 10, 20).forEach(latency -> {
+            lowest.recordLatency(latency);
+            highest.recordLatency(latency);
+        });
+
+        assertThat(lowest.hedgeDelay()).isEqualTo(Duration.ofNanos(10));
+        assertThat(highest.hedgeDelay()).isEqualTo(Duration.ofNanos(30));
+    }
+
+    @Test
+    void tryHedgeIsCappedByMaxHedgeRatio() {
+        HedgingPolicy underTest = HedgingPolicy.builder().maxHedgeRatio(0.5).build();
+
+        assertThat(underTest.tryHedge()).isFalse();
+
+        underTest.onRequest();
+
+        assertThat(underTest.tryHedge()).isFalse();
+
+        underTest.onRequest();
+
+        assertThat(underTest.tryHedge()).isTrue();
+        assertThat(underTest.tryHedge()).isFalse();
+
+        underTest.onRequest();
+        underTest.onRequest();
+
+        assertThat(underTest.tryHedge()).isTrue();
+        assertThat(underTest.stats()).isEqualTo(new HedgingPolicy.Stats(4, 2, Duration.ofSeconds(1)));
+    }
+}
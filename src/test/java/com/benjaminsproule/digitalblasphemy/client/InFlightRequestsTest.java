@@ -0,0 +1,165 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InFlightRequestsTest {
+
+    private final InFlightRequests underTest = new InFlightRequests();
+
+    @Test
+    void executeSharesInFlightRequestForEqualKeys() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<String> first = underTest.execute("key", () -> {
+            requests.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<String> second = underTest.execute("key", () -> {
+            requests.incrementAndGet();
+            return response;
+        });
+
+        assertThat(first).isNotSameAs(second).isNotDone();
+        assertThat(underTest.size()).isEqualTo(1);
+
+        response.complete("response");
+
+        assertThat(first.get()).isEqualTo("response");
+        assertThat(second.get()).isEqualTo("response");
+        assertThat(requests).hasValue(1);
+        assertThat(underTest.size()).isZero();
+    }
+
+    @Test
+    void executeRemovesRequestBeforeCallersComplete() throws Exception {
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<Integer> sizeOnCompletion = underTest.execute("key", () -> response)
+                .thenApply(ignored -> underTest.size());
+        response.complete("response");
+
+        assertThat(sizeOnCompletion.get()).isZero();
+    }
+
+    @Test
+    void executeDoesNotShareRequestsForDifferentKeys() throws Exception {
+        CompletableFuture<String> first = underTest.execute("first", () -> CompletableFuture.completedFuture("first"));
+        CompletableFuture<String> second =
+                underTest.execute("second", () -> CompletableFuture.completedFuture("second"));
+
+        assertThat(first.get()).isEqualTo("first");
+        assertThat(second.get()).isEqualTo("second");
+    }
+
+    @Test
+    void executeSendsNewRequestOnceThePreviousOneCompletes() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+
+        underTest.execute("key", () -> CompletableFuture.completedFuture(requests.incrementAndGet())).get();
+        CompletableFuture<Integer> second =
+                underTest.execute("key", () -> CompletableFuture.completedFuture(requests.incrementAndGet()));
+
+        assertThat(second.get()).isEqualTo(2);
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotCancelTheSharedRequest() throws Exception {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = underTest.execute("key", () -> response);
+        CompletableFuture<String> second = underTest.execute("key", () -> response);
+
+        first.cancel(true);
+        response.complete("response");
+
+        assertThat(first).isCancelled();
+        assertThat(response).isNotCancelled();
+        assertThat(second.get()).isEqualTo("response");
+    }
+
+    @Test
+    void cancellingEveryCallerCancelsTheSharedRequest() throws Exception {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = underTest.execute("key", () -> response);
+        CompletableFuture<String> second = underTest.execute("key", () -> response);
+
+        first.cancel(true);
+        second.cancel(true);
+
+        assertThat(response).isCancelled();
+        assertThat(underTest.size()).isZero();
+
+        CompletableFuture<String> third = underTest.execute("key", () -> CompletableFuture.completedFuture("third"));
+
+        assertThat(third.get()).isEqualTo("third");
+    }
+
+    @Test
+    void failedCallersDoNotLeaveTheNextRequestForTheSameKey() throws Exception {
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        CompletableFuture<String> next = new CompletableFuture<>();
+        List<CompletableFuture<String>> nextCallers = new ArrayList<>();
+        underTest.execute("key", () -> failed);
+        CompletableFuture<String> second = underTest.execute("key", () -> failed);
+        second.whenComplete((result, throwable) -> {
+            nextCallers.add(underTest.execute("key", () -> next));
+            nextCallers.add(underTest.execute("key", () -> next));
+        });
+
+        failed.completeExceptionally(new IllegalStateException("failed"));
+        nextCallers.getFirst().cancel(true);
+
+        assertThat(next).isNotCancelled();
+        assertThat(underTest.size()).isEqualTo(1);
+
+        next.complete("next");
+
+        assertThat(nextCallers.get(1).get()).isEqualTo("next");
+    }
+
+    @Test
+    void timingOutEveryCallerCancelsTheSharedRequest() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> caller = underTest.execute("key", () -> response);
+
+        caller.completeExceptionally(new TimeoutException());
+
+        assertThat(response).isCancelled();
+    }
+
+    @Test
+    void executeSharesFailures() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = underTest.execute("key", () -> response);
+        CompletableFuture<String> second = underTest.execute("key", () -> response);
+        IllegalStateException exception = new IllegalStateException("failed");
+
+        response.completeExceptionally(exception);
+
+        assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+        assertThatThrownBy(second::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+        assertThat(underTest.size()).isZero();
+    }
+
+    @Test
+    void executeFailsWhenRequestCannotBeSent() {
+        IllegalStateException exception = new IllegalStateException("failed");
+
+        CompletableFuture<String> response = underTest.execute("key", () -> {
+            throw exception;
+        });
+
+        assertThatThrownBy(response::get).isInstanceOf(ExecutionException.class).hasCause(exception);
+        assertThat(underTest.size()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntBitmapTest {
+
+    @Test
+    void ofSortsAndRemovesDuplicates() {
+        IntBitmap bitmap = IntBitmap.of(5, 1, 5, 3);
+
+        assertThat(bitmap.toArray()).containsExactly(1, 3, 5);
+        assertThat(bitmap.cardinality()).isEqualTo(3);
+        assertThat(bitmap.contains(3)).isTrue();
+        assertThat(bitmap.contains(4)).isFalse();
+    }
+
+    @Test
+    void emptyBitmapHasNoValues() {
+        assertThat(IntBitmap.of().isEmpty()).isTrue();
+        assertThat(IntBitmap.of()).isSameAs(IntBitmap.empty());
+        assertThat(IntBitmap.empty().toArray()).isEmpty();
+        assertThat(IntBitmap.empty().contains(0)).isFalse();
+    }
+
+    @Test
+    void denseBitmapsUseAboutOneBitPerValue() {
+        IntBitmap dense = IntBitmap.of(IntStream.range(1000, 11000).toArray());
+        IntBitmap sparse = IntBitmap.of(IntStream.range(0, 100).map(value -> value * 1000).toArray());
+
+        assertThat(dense.sizeInBytes()).isLessThanOrEqualTo(10000 / 8 + 2 * Long.BYTES);
+        assertThat(sparse.sizeInBytes()).isEqualTo(100L * Integer.BYTES);
+        assertThat(dense.contains(999)).isFalse();
+        assertThat(dense.contains(1000)).isTrue();
+        assertThat(dense.contains(10999)).isTrue();
+        assertThat(dense.contains(11000)).isFalse();
+    }
+
+    @Test
+    void combinesBitmaps() {
+        IntBitmap first = IntBitmap.of(1, 2, 3, 4);
+        IntBitmap second = IntBitmap.of(3, 4, 5);
+
+        assertThat(first.and(second).toArray()).containsExactly(3, 4);
+        assertThat(first.or(second).toArray()).containsExactly(1, 2, 3, 4, 5);
+        assertThat(first.andNot(second).toArray()).containsExactly(1, 2);
+        assertThat(first.and(IntBitmap.empty())).isSameAs(IntBitmap.empty());
+        assertThat(first.or(IntBitmap.empty())).isSameAs(first);
+        assertThat(first.andNot(IntBitmap.empty())).isSameAs(first);
+    }
+
+    @Test
+    void supportsNegativeValues() {
+        IntBitmap bitmap = IntBitmap.of(IntStream.rangeClosed(-70, 70).toArray());
+
+        assertThat(bitmap.contains(-70)).isTrue();
+        assertThat(bitmap.contains(-71)).isFalse();
+        assertThat(bitmap.and(IntBitmap.of(-65, 0, 100)).toArray()).containsExactly(-65, 0);
+    }
+
+    @Test
+    void combinesDenseBitmapsEndingAtMaxValue() {
+        IntBitmap first = IntBitmap.of(Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+        IntBitmap second = IntBitmap.of(Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+
+        assertThat(first.and(second).toArray()).containsExactly(Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+        assertThat(first.andNot(second).toArray()).containsExactly(Integer.MAX_VALUE - 2);
+        assertThat(first.or(second).toArray())
+                .containsExactly(Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+        assertThat(first.contains(Integer.MAX_VALUE)).isTrue();
+    }
+
+    @Test
+    void equalBitmapsCompareEqualRegardlessOfRepresentation() {
+        IntBitmap dense = IntBitmap.of(IntStream.range(0, 128).toArray()).andNot(
+                IntBitmap.of(IntStream.range(1, 128).toArray()));
+
+        assertThat(dense).isEqualTo(IntBitmap.of(0));
+        assertThat(dense.hashCode()).isEqualTo(IntBitmap.of(0).hashCode());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 200, 5000})
+    void matchesSetSemanticsForRandomBitmaps(int range) {
+        Random random = new Random(range);
+        for (int round = 0; round < 50; round++) {
+            TreeSet<Integer> first = randomSet(random, range);
+            TreeSet<Integer> second = randomSet(random, range);
+            IntBitmap firstBitmap = bitmap(first);
+            IntBitmap secondBitmap = bitmap(second);
+
+            TreeSet<Integer> and = new TreeSet<>(first);
+            and.retainAll(second);
+            TreeSet<Integer> or = new TreeSet<>(first);
+            or.addAll(second);
+            TreeSet<Integer> andNot = new TreeSet<>(first);
+            andNot.removeAll(second);
+
+            assertThat(values(firstBitmap.and(secondBitmap))).isEqualTo(new ArrayList<>(and));
+            assertThat(values(firstBitmap.or(secondBitmap))).isEqualTo(new ArrayList<>(or));
+            assertThat(values(firstBitmap.andNot(secondBitmap))).isEqualTo(new ArrayList<>(andNot));
+            assertThat(firstBitmap.and(secondBitmap).cardinality()).isEqualTo(and.size());
+            assertThat(firstBitmap.or(secondBitmap).cardinality()).isEqualTo(or.size());
+            assertThat(firstBitmap.andNot(secondBitmap).cardinality()).isEqualTo(andNot.size());
+            for (int value = -1; value <= range; value++) {
+                assertThat(firstBitmap.contains(value)).isEqualTo(first.contains(value));
+            }
+        }
+    }
+
+    private static TreeSet<Integer> randomSet(Random random, int range) {
+        double density = random.nextDouble();
+        int offset = random.nextInt(range);
+        return IntStream.range(offset, range)
+                .filter(ignored -> random.nextDouble() < density)
+                .boxed()
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static IntBitmap bitmap(TreeSet<Integer> values) {
+        return IntBitmap.of(values.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static List<Integer> values(IntBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,160 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.GetAccountInformationResponse;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonBodyHandlerTest {
+
+    @Test
+    void parsesBodyAcrossBuffers() throws Exception {
+        HttpResponse.BodySubscriber<JsonBodyHandler.JsonBody<GetAccountInformationResponse>> underTest =
+                new JsonBodyHandler<GetAccountInformationResponse>(
+                        new ObjectMapper().readerFor(GetAccountInformationResponse.class)).apply(null);
+
+        underTest.onSubscribe(new NoOpSubscription());
+        underTest.onNext(List.of(
+                buffer("{\"db_core\":{\"timestamp\":1},"),
+                buffer("\"user\":{\"active\":true,\"display_name\":\"username\",\"id\":2,"),
+                buffer("\"lifetime\":true,\"plus\":true}}")
+        ));
+        underTest.onComplete();
+
+        assertThat(underTest.getBody().toCompletableFuture().get().get()).isEqualTo(new GetAccountInformationResponse(
+                new GetAccountInformationResponse.DBCore(1),
+                new GetAccountInformationResponse.User(true, "username", 2, true, true)
+        ));
+    }
+
+    @Test
+    void parsesBodyWhileItStreams() throws Exception {
+        HttpResponse.BodySubscriber<JsonBodyHandler.JsonBody<GetAccountInformationResponse>> underTest =
+                new JsonBodyHandler<GetAccountInformationResponse>(
+                        new ObjectMapper().readerFor(GetAccountInformationResponse.class)).apply(null);
+        RecordingSubscription subscription = new RecordingSubscription();
+
+        underTest.onSubscribe(subscription);
+        assertThat(subscription.requests.tryAcquire(1, SECONDS)).isTrue();
+        CompletableFuture<GetAccountInformationResponse> response =
+                CompletableFuture.supplyAsync(underTest.getBody().toCompletableFuture().get());
+        underTest.onNext(List.of(buffer("{\"db_core\":{\"timestamp\":1},\"user\":{\"active\":true,")));
+
+        assertThat(subscription.requests.tryAcquire(1, SECONDS)).isTrue();
+        assertThat(response).isNotDone();
+
+        underTest.onNext(List.of(buffer("\"display_name\":\"username\",\"id\":2,\"lifetime\":true,\"plus\":true}}")));
+        underTest.onComplete();
+
+        assertThat(response.get(1, SECONDS).user().displayName()).isEqualTo("username");
+    }
+
+    @Test
+    void failsAndCancelsAsSoonAsBodyIsNotJson() throws Exception {
+        HttpResponse.BodySubscriber<JsonBodyHandler.JsonBody<GetAccountInformationResponse>> underTest =
+                new JsonBodyHandler<GetAccountInformationResponse>(
+                        new ObjectMapper().readerFor(GetAccountInformationResponse.class)).apply(null);
+        RecordingSubscription subscription = new RecordingSubscription();
+
+        underTest.onSubscribe(subscription);
+        underTest.onNext(List.of(buffer("<html>")));
+
+        JsonBodyHandler.JsonBody<GetAccountInformationResponse> body = underTest.getBody().toCompletableFuture().get();
+        assertThatThrownBy(body::get)
+                .isInstanceOf(RuntimeException.class)
+                .hasCauseInstanceOf(JsonParseException.class);
+        assertThat(subscription.cancelled).isTrue();
+    }
+
+    @Test
+    void failsWhenBodyIsTruncated() throws Exception {
+        HttpResponse.BodySubscriber<JsonBodyHandler.JsonBody<GetAccountInformationResponse>> underTest =
+                new JsonBodyHandler<GetAccountInformationResponse>(
+                        new ObjectMapper().readerFor(GetAccountInformationResponse.class)).apply(null);
+
+        underTest.onSubscribe(new NoOpSubscription());
+        underTest.onNext(List.of(buffer("{\"db_core\":{\"timestamp\":1")));
+        underTest.onComplete();
+
+        JsonBodyHandler.JsonBody<GetAccountInformationResponse> body = underTest.getBody().toCompletableFuture().get();
+        assertThatThrownBy(body::get)
+                .isInstanceOf(RuntimeException.class)
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void abortCancelsSubscriptionAndFailsRead() throws Exception {
+        HttpResponse.BodySubscriber<JsonBodyHandler.JsonBody<GetAccountInformationResponse>> underTest =
+                new JsonBodyHandler<GetAccountInformationResponse>(
+                        new ObjectMapper().readerFor(GetAccountInformationResponse.class)).apply(null);
+        RecordingSubscription subscription = new RecordingSubscription();
+
+        underTest.onSubscribe(subscription);
+        underTest.onNext(List.of(buffer("{\"db_core\":")));
+        JsonBodyHandler.JsonBody<GetAccountInformationResponse> body = underTest.getBody().toCompletableFuture().get();
+        body.abort();
+
+        assertThat(subscription.cancelled).isTrue();
+        assertThatThrownBy(body::get)
+                .isInstanceOf(RuntimeException.class)
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void throwsWhenBodyIsNotJson() throws Exception {
+        HttpResponse.BodySubscriber<JsonBodyHandler.JsonBody<GetAccountInformationResponse>> underTest =
+                new JsonBodyHandler<GetAccountInformationResponse>(
+                        new ObjectMapper().readerFor(GetAccountInformationResponse.class)).apply(null);
+
+        underTest.onSubscribe(new NoOpSubscription());
+        underTest.onNext(List.of(buffer("<xml/>")));
+        underTest.onComplete();
+
+        JsonBodyHandler.JsonBody<GetAccountInformationResponse> body = underTest.getBody().toCompletableFuture().get();
+        assertThatThrownBy(body::get)
+                .isInstanceOf(RuntimeException.class)
+                .hasCauseInstanceOf(JsonParseException.class);
+    }
+
+    private static ByteBuffer buffer(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class RecordingSubscription implements Flow.Subscription {
+        private final Semaphore requests = new Semaphore(0);
+        private volatile boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requests.release();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class NoOpSubscription implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Endpoints;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersOrderBy;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.Operator;
+import com.benjaminsproule.digitalblasphemy.client.model.Order;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalCatalogueTest {
+
+    private static final long JANUARY_1ST_2024 = 1704067200L;
+    private static final long DAY = 86400L;
+    private static final Endpoints ENDPOINTS = new Endpoints("https://api.example.com/v2/core",
+            "https://image.example.com", "https://thumb.example.com", "https://example.com");
+
+    @TempDir
+    Path directory;
+
+    private CatalogueStore store;
+
+    private LocalCatalogue underTest;
+
+    @BeforeEach
+    void setup() throws Exception {
+        store = CatalogueStore.builder().directory(directory).build();
+        store.putAll(List.of(
+                wallpaper(1, "Vulcan", JANUARY_1ST_2024, "4.5", List.of(1, 2), resolution(1920, 1080)),
+                wallpaper(2, "arcadia", JANUARY_1ST_2024 + 40 * DAY, "3", List.of(2),
+                        resolution(1920, 1080), resolution(3840, 2160)),
+                wallpaper(3, "Valley", JANUARY_1ST_2024 + 400 * DAY, null, List.of(1, 3), resolution(5120, 1440)),
+                wallpaper(4, "Zenith", JANUARY_1ST_2024 + 41 * DAY, "5", List.of(), resolution(1280, 720))
+        ));
+        underTest = LocalCatalogue.builder()
+                .store(store)
+                .endpoints(ENDPOINTS)
+                .galleries(wallpaper -> List.of(wallpaper.id() % 2))
+                .clock(Clock.fixed(Instant.ofEpochSecond(12345), ZoneOffset.UTC))
+                .build();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        store.close();
+    }
+
+    @Test
+    void builderRequiresStore() {
+        assertThatThrownBy(() -> LocalCatalogue.builder().build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Store must be provided.");
+    }
+
+    @Test
+    void builderRequiresEndpoints() {
+        assertThatThrownBy(() -> LocalCatalogue.builder().store(store).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Endpoints must be provided.");
+    }
+
+    @Test
+    void getWallpapersReturnsPagesOrderedByDate() {
+        GetWallpapersResponse response = underTest.getWallpapers(GetWallpapersRequest.builder().limit(3).build());
+
+        assertThat(response.wallpapers()).containsExactly(1, 2, 4);
+        assertThat(response.dbCore().wallpapers().keySet()).containsExactly("1", "2", "4");
+        assertThat(response.dbCore().totalPages()).isEqualTo(2);
+        assertThat(response.dbCore().timestamp()).isEqualTo(12345);
+        assertThat(response.dbCore().endpoints()).isEqualTo(ENDPOINTS);
+        assertThat(DigitalBlasphemyClient.wallpapers(response).map(Wallpaper::name))
+                .containsExactly("Vulcan", "arcadia", "Zenith");
+
+        GetWallpapersResponse secondPage = underTest.getWallpapers(GetWallpapersRequest.builder().limit(3).page(2)
+                .build());
+
+        assertThat(secondPage.wallpapers()).containsExactly(3);
+        assertThat(underTest.getWallpapers(GetWallpapersRequest.builder().limit(3).page(3).build()).wallpapers())
+                .isEmpty();
+    }
+
+    @Test
+    void getWallpapersOrdersByNameDescending() {
+        GetWallpapersResponse response = underTest.getWallpapers(GetWallpapersRequest.builder()
+                .orderBy(GetWallpapersOrderBy.NAME)
+                .order(Order.DESCENDING)
+                .build());
+
+        assertThat(response.wallpapers()).containsExactly(4, 1, 3, 2);
+    }
+
+    @Test
+    void getWallpapersFiltersByDate() {
+        assertThat(ids(GetWallpapersRequest.builder()
+                .filterDateYear(2024)
+                .filterDateMonth(2)
+                .filterDateDay(10)
+                .filterDateOperator(Operator.GREATER_THAN_OR_EQUAL)))
+                .containsExactly(2, 4, 3);
+        assertThat(ids(GetWallpapersRequest.builder()
+                .filterDateYear(2024)
+                .filterDateMonth(2)
+                .filterDateOperator(Operator.EQUAL)))
+                .containsExactly(2, 4);
+        assertThat(ids(GetWallpapersRequest.builder()
+                .filterDateYear(2025)
+                .filterDateOperator(Operator.LESS_THAN)))
+                .containsExactly(1, 2, 4);
+    }
+
+    @Test
+    void getWallpapersFiltersByRating() {
+        assertThat(ids(GetWallpapersRequest.builder()
+                .filterRating(4)
+                .filterRatingOperator(Operator.GREATER_THAN)))
+                .containsExactly(1, 4);
+        assertThat(ids(GetWallpapersRequest.builder()
+                .filterRating(3)
+                .filterRatingOperator(Operator.LESS_THAN_OR_EQUAL)))
+                .containsExactly(2);
+    }
+
+    @Test
+    void getWallpapersFiltersAndTrimsResolutions() throws Exception {
+        GetWallpapersResponse response = underTest.getWallpapers(GetWallpapersRequest.builder()
+                .filterResWidth(3840)
+                .filterResOperatorWidth(Operator.GREATER_THAN_OR_EQUAL)
+                .filterResHeight(1440)
+                .filterResOperatorHeight(Operator.GREATER_THAN_OR_EQUAL)
+                .build());
+
+        assertThat(response.wallpapers()).containsExactly(2, 3);
+        assertThat(response.dbCore().wallpapers().get("2").resolutions().single())
+                .extracting(Wallpaper.Resolutions.Resolution::label)
+                .containsExactly("3840x2160");
+        assertThat(store.getAll().get(1).resolutions().single()).hasSize(2);
+    }
+
+    @Test
+    void getWallpapersFiltersByResolutionOperators() {
+        assertThat(ids(GetWallpapersRequest.builder()
+                .filterResWidth(1920)
+                .filterResOperatorWidth(Operator.GREATER_THAN)
+                .filterResHeight(1080)
+                .filterResOperatorHeight(Operator.GREATER_THAN)
+                .order(Order.DESCENDING)))
+                .containsExactly(3, 2);
+        assertThat(ids(GetWallpapersRequest.builder()
+                .filterResWidth(1920)
+                .filterResOperatorWidth(Operator.LESS_THAN)))
+                .containsExactly(4);
+    }
+
+    @Test
+    void getWallpapersFiltersByEveryTag() {
+        assertThat(ids(GetWallpapersRequest.builder().filterTag(List.of(1)))).containsExactly(1, 3);
+        assertThat(ids(GetWallpapersRequest.builder().filterTag(List.of(1, 2)))).containsExactly(1);
+    }
+
+    @Test
+    void getWallpapersFiltersByAnyGallery() {
+        assertThat(ids(GetWallpapersRequest.builder().filterGallery(List.of(0)))).containsExactly(2, 4);
+        assertThat(ids(GetWallpapersRequest.builder().filterGallery(List.of(0, 1)))).containsExactly(1, 2, 4, 3);
+    }
+
+    @Test
+    void getWallpapersRestrictsToGivenWallpaperIds() {
+        IntBitmap withoutTagTwo = underTest.tagIndex().all().andNot(underTest.tagIndex().tag(2));
+
+        GetWallpapersResponse response = underTest.getWallpapers(GetWallpapersRequest.builder()
+                .filterGallery(List.of(1))
+                .build(), withoutTagTwo);
+
+        assertThat(response.wallpapers()).containsExactly(3);
+        assertThat(underTest.getWallpapers(GetWallpapersRequest.builder().build(), IntBitmap.empty()).wallpapers())
+                .isEmpty();
+    }
+
+    @Test
+    void indexCoversTagsAndGalleries() {
+        TagIndex index = underTest.tagIndex();
+
+        assertThat(index.all().toArray()).containsExactly(1, 2, 3, 4);
+        assertThat(index.tag(1).toArray()).containsExactly(1, 3);
+        assertThat(index.gallery(0).toArray()).containsExactly(2, 4);
+    }
+
+    @Test
+    void resolutionIndexCoversStoredResolutions() {
+        ResolutionIndex index = underTest.resolutionIndex();
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.atLeast(3840, 1440).toArray()).containsExactly(2, 3);
+        assertThat(index.best(2, 2560, 1440)).extracting(ResolutionIndex.Match::width).isEqualTo(3840);
+    }
+
+    @Test
+    void getWallpapersRequiresGalleryMappingToFilterByGallery() throws Exception {
+        LocalCatalogue withoutGalleries = LocalCatalogue.builder().store(store).endpoints(ENDPOINTS).build();
+
+        assertThatThrownBy(() -> withoutGalleries.getWallpapers(GetWallpapersRequest.builder()
+                .filterGallery(List.of(1))
+                .build()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Gallery filters need a gallery mapping.");
+    }
+
+    @Test
+    void getWallpapersSearchesNamesIgnoringCase() {
+        assertThat(ids(GetWallpapersRequest.builder().s("V"))).containsExactly(1, 3);
+        assertThat(ids(GetWallpapersRequest.builder().s("ARC"))).containsExactly(2);
+    }
+
+    @Test
+    void getWallpapersOmitsSectionsThatWereNotRequested() {
+        Wallpaper hidden = underTest.getWallpapers(GetWallpapersRequest.builder()
+                .showResolutions(false)
+                .build()).dbCore().wallpapers().get("1");
+        Wallpaper shown = underTest.getWallpapers(GetWallpapersRequest.builder()
+                .showComments(true)
+                .showPickleJar(true)
+                .build()).dbCore().wallpapers().get("1");
+
+        assertThat(hidden.resolutions()).isNull();
+        assertThat(hidden.comments()).isNull();
+        assertThat(hidden.pickle_jar()).isNull();
+        assertThat(shown.resolutions()).isNotNull();
+        assertThat(shown.comments()).isNotNull();
+        assertThat(shown.pickle_jar()).isNotNull();
+    }
+
+    @Test
+    void getWallpapersEchoesTheQuery() {
+        GetWallpapersResponse.DBCore.Request.Query query = underTest.getWallpapers(GetWallpapersRequest.builder()
+                .filterDateYear(2024)
+                .filterRating(4)
+                .limit(5)
+                .page(2)
+                .s("search")
+                .build()).dbCore().request().query();
+
+        assertThat(query.filterDateYear()).isEqualTo(2024);
+        assertThat(query.filterDateMonth()).isNull();
+        assertThat(query.filterRating()).isEqualTo(4);
+        assertThat(query.limit()).isEqualTo(5);
+        assertThat(query.page()).isEqualTo(2);
+        assertThat(query.s()).isEqualTo("search");
+        assertThat(query.orderBy()).isEqualTo(GetWallpapersOrderBy.DATE);
+    }
+
+    @Test
+    void refreshLoadsNewlyStoredWallpapers() throws Exception {
+        store.put(wallpaper(5, "New", JANUARY_1ST_2024 + 500 * DAY, "1", List.of(), resolution(800, 600)));
+
+        assertThat(underTest.size()).isEqualTo(4);
+
+        underTest.refresh();
+
+        assertThat(underTest.size()).isEqualTo(5);
+        assertThat(ids(GetWallpapersRequest.builder())).endsWith(5);
+    }
+
+    private List<Integer> ids(GetWallpapersRequest.Builder getWallpapersRequest) {
+        return underTest.getWallpapers(getWallpapersRequest.limit(50).build()).wallpapers();
+    }
+
+    private static Wallpaper.Resolutions.Resolution resolution(int width, int height) {
+        return new Wallpaper.Resolutions.Resolution(width + "x" + height, String.valueOf(width),
+                String.valueOf(height), "/single/%dx%d/image.jpg".formatted(width, height));
+    }
+
+    private static Wallpaper wallpaper(int wallpaperId, String name, long timestamp, String rating, List<Integer> tags,
+                                       Wallpaper.Resolutions.Resolution... resolutions) {
+        Map<String, Wallpaper.Tag> tagMap = tags.stream()
+                .collect(Collectors.toMap(String::valueOf, tag -> new Wallpaper.Tag(tag, "Tag " + tag)));
+        return new Wallpaper(wallpaperId, null,
+                new Wallpaper.Comments(List.of(
+                        new Wallpaper.Comments.Comment("1", "author", "Author", "Nice", "5", timestamp))),
+                null, null, name,
+                new Wallpaper.Paths("/wallpaper/" + wallpaperId, "/thumbnail/" + wallpaperId, "/sec/" + wallpaperId),
+                new Wallpaper.PickleJar("parent", List.of()), rating,
+                new Wallpaper.Resolutions(List.of(resolutions), null, null, null),
+                null, tagMap, timestamp);
+    }
+}
@@ -0,0 +1,246 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong ticker = new AtomicLong(-SECOND * 60);
+    private final MutableClock clock = new MutableClock();
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-1, 0})
+    void builderRejectsPermitsPerSecond(double permitsPerSecond) {
+        assertThatThrownBy(() -> RateLimiter.builder().permitsPerSecond(permitsPerSecond))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Permits per second must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void builderRejectsBurst(int burst) {
+        assertThatThrownBy(() -> RateLimiter.builder().burst(burst))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Burst must be greater than 0.");
+    }
+
+    @Test
+    void builderAcceptsSmallestValues() {
+        assertThatCode(() -> RateLimiter.builder().permitsPerSecond(Double.MIN_VALUE).burst(1).build())
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void builderRejectsBuildWithoutPermitsPerSecond() {
+        assertThatThrownBy(() -> RateLimiter.builder().burst(1).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Permits per second must be provided.");
+    }
+
+    @Test
+    void reserveSpacesRequestsAtTheConfiguredRate() {
+        RateLimiter underTest = rateLimiter(2, 1);
+
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 2);
+        assertThat(underTest.reserve()).isEqualTo(SECOND);
+
+        advance(SECOND * 2);
+
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void reserveAllowsBurstAfterIdlePeriod() {
+        RateLimiter underTest = rateLimiter(2, 3);
+
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 2);
+
+        advance(SECOND * 2);
+
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void reserveUsesPartiallyStoredPermits() {
+        RateLimiter underTest = rateLimiter(2, 3);
+        underTest.reserve();
+        underTest.reserve();
+        underTest.reserve();
+        underTest.reserve();
+
+        advance(SECOND + SECOND / 4);
+
+        assertThat(underTest.reserve()).isZero();
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 4);
+    }
+
+    @Test
+    void reserveIgnoresWallClockChanges() {
+        RateLimiter underTest = rateLimiter(2, 1);
+        underTest.reserve();
+
+        clock.instant = Instant.EPOCH.minus(Duration.ofHours(1));
+
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 2);
+
+        clock.instant = Instant.EPOCH.plus(Duration.ofHours(1));
+
+        assertThat(underTest.reserve()).isEqualTo(SECOND);
+    }
+
+    @Test
+    void acquireCompletesImmediatelyWhenPermitIsAvailable() {
+        RateLimiter underTest = rateLimiter(1, 1);
+
+        assertThat(underTest.acquire(Runnable::run)).isCompleted();
+    }
+
+    @Test
+    void acquireCompletesOncePermitIsAvailable() {
+        RateLimiter underTest = rateLimiter(20, 1);
+        underTest.acquire(ForkJoinPool.commonPool());
+        long start = System.nanoTime();
+
+        CompletableFuture<Void> permit = underTest.acquire(ForkJoinPool.commonPool());
+
+        assertThat(permit).isNotDone();
+        assertThat(permit).succeedsWithin(Duration.ofSeconds(5));
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void onResponseHalvesRateAndWaitsForOneIntervalWhenThrottled() {
+        RateLimiter underTest = rateLimiter(8, 4);
+
+        underTest.onResponse(429, Optional.empty());
+
+        assertThat(underTest.getPermitsPerSecond()).isEqualTo(4);
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 4);
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void onResponseDoesNotReduceRateBelowMinimum() {
+        RateLimiter underTest = rateLimiter(8, 1);
+
+        for (int i = 0; i < 10; i++) {
+            underTest.onResponse(429, Optional.empty());
+        }
+
+        assertThat(underTest.getPermitsPerSecond()).isEqualTo(0.25);
+    }
+
+    @Test
+    void onResponseRecoversRateAfterSuccessfulResponses() {
+        RateLimiter underTest = rateLimiter(8, 1);
+        underTest.onResponse(429, Optional.empty());
+
+        underTest.onResponse(200, Optional.empty());
+
+        assertThat(underTest.getPermitsPerSecond()).isEqualTo(4.5);
+
+        for (int i = 0; i < 10; i++) {
+            underTest.onResponse(200, Optional.empty());
+        }
+
+        assertThat(underTest.getPermitsPerSecond()).isEqualTo(8);
+    }
+
+    @Test
+    void onResponseWaitsForRetryAfterSeconds() {
+        RateLimiter underTest = rateLimiter(8, 1);
+
+        underTest.onResponse(429, Optional.of(" 3 "));
+
+        assertThat(underTest.reserve()).isEqualTo(SECOND * 3);
+    }
+
+    @Test
+    void onResponseWaitsForRetryAfterDate() {
+        clock.instant = Instant.parse("2015-10-21T07:28:00Z");
+        RateLimiter underTest = rateLimiter(8, 1);
+
+        underTest.onResponse(429, Optional.of("Wed, 21 Oct 2015 07:28:05 GMT"));
+
+        assertThat(underTest.reserve()).isEqualTo(SECOND * 5);
+    }
+
+    @Test
+    void onResponseDoesNotShortenExistingWait() {
+        RateLimiter underTest = rateLimiter(1, 1);
+        underTest.reserve();
+        underTest.reserve();
+        underTest.reserve();
+
+        underTest.onResponse(429, Optional.of("0"));
+
+        assertThat(underTest.reserve()).isEqualTo(SECOND * 3);
+    }
+
+    @Test
+    void onResponseIgnoresInvalidRetryAfter() {
+        RateLimiter underTest = rateLimiter(8, 1);
+
+        underTest.onResponse(429, Optional.of("soon"));
+
+        assertThat(underTest.reserve()).isEqualTo(SECOND / 4);
+    }
+
+    private RateLimiter rateLimiter(double permitsPerSecond, int burst) {
+        return RateLimiter.builder()
+                .permitsPerSecond(permitsPerSecond)
+                .burst(burst)
+                .ticker(ticker::get)
+                .clock(clock)
+                .build();
+    }
+
+    private void advance(long nanos) {
+        ticker.addAndGet(nanos);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.EPOCH;
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import com.benjaminsproule.digitalblasphemy.client.model.WallpaperType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResolutionIndexTest {
+
+    private ResolutionIndex underTest;
+
+    @BeforeEach
+    void setup() {
+        underTest = ResolutionIndex.of(List.of(
+                wallpaper(1,
+                        List.of(resolution(1280, 720), resolution(1920, 1080), resolution(3840, 2160),
+                                resolution(1920, 1200), resolution(2560, 1080)),
+                        List.of(resolution(3840, 1080), resolution(5120, 1440)),
+                        List.of(resolution(5760, 1080)),
+                        List.of(resolution(1080, 1920))),
+                wallpaper(2, List.of(resolution(1920, 1080)), null, null, null),
+                wallpaper(3, List.of(resolution(2560, 1600), new Wallpaper.Resolutions.Resolution(
+                        "unknown", "wide", "tall", "/single/unknown/3.jpg")), null, null, null),
+                new Wallpaper(4, null, null, null, null, "No resolutions", null, null, null, null, null, null, null)
+        ));
+    }
+
+    @Test
+    void indexesParseableResolutions() {
+        assertThat(underTest.size()).isEqualTo(11);
+        assertThat(ResolutionIndex.empty().size()).isZero();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1920, 1080, SINGLE, 1920, 1080",
+            "2560, 1440, SINGLE, 3840, 2160",
+            "1280, 720, SINGLE, 1280, 720",
+            "7680, 4320, SINGLE, 3840, 2160",
+            "5120, 1440, DUAL, 5120, 1440",
+            "3840, 1080, DUAL, 3840, 1080",
+            "5760, 1080, TRIPLE, 5760, 1080",
+            "1080, 2340, MOBILE, 1080, 1920",
+            "1680, 1050, SINGLE, 1920, 1200",
+            "3440, 1440, SINGLE, 2560, 1080"
+    })
+    void bestPicksTheSmallestCoveringResolutionWithTheClosestAspectRatio(int width, int height,
+                                                                          WallpaperType type,
+                                                                          int expectedWidth, int expectedHeight) {
+        ResolutionIndex.Match match = underTest.best(1, width, height);
+
+        assertThat(match).isNotNull();
+        assertThat(match.wallpaperId()).isEqualTo(1);
+        assertThat(match.type()).isEqualTo(type);
+        assertThat(match.width()).isEqualTo(expectedWidth);
+        assertThat(match.height()).isEqualTo(expectedHeight);
+        assertThat(match.resolution().label()).isEqualTo(expectedWidth + "x" + expectedHeight);
+    }
+
+    @Test
+    void bestReturnsNullForUnknownWallpapers() {
+        assertThat(underTest.best(4, 1920, 1080)).isNull();
+        assertThat(underTest.best(99, 1920, 1080)).isNull();
+    }
+
+    @Test
+    void bestFallsBackToAnotherAspectRatio() {
+        assertThat(underTest.best(3, 1920, 1080))
+                .extracting(ResolutionIndex.Match::width, ResolutionIndex.Match::height)
+                .containsExactly(2560, 1600);
+    }
+
+    @Test
+    void atLeastReturnsWallpapersWithACoveringResolution() {
+        assertThat(underTest.atLeast(1920, 1080).toArray()).containsExactly(1, 2, 3);
+        assertThat(underTest.atLeast(2560, 1200).toArray()).containsExactly(1, 3);
+        assertThat(underTest.atLeast(3840, 2160).toArray()).containsExactly(1);
+        assertThat(underTest.atLeast(7680, 4320).isEmpty()).isTrue();
+    }
+
+    @Test
+    void typesLimitTheIndexedResolutions() {
+        ResolutionIndex singles = ResolutionIndex.of(List.of(wallpaper(1, List.of(resolution(1920, 1080)),
+                List.of(resolution(5120, 1440)), null, null)), EnumSet.of(WallpaperType.SINGLE));
+
+        assertThat(singles.size()).isEqualTo(1);
+        assertThat(singles.best(1, 5120, 1440)).extracting(ResolutionIndex.Match::type)
+                .isEqualTo(WallpaperType.SINGLE);
+        assertThat(singles.atLeast(5120, 1440).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsEmptyDisplays() {
+        assertThatThrownBy(() -> underTest.best(1, 0, 1080))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Width must be greater than 0.");
+        assertThatThrownBy(() -> underTest.atLeast(1920, -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Height must be greater than 0.");
+    }
+
+    @Test
+    void atLeastMatchesALinearScan() {
+        Random random = new Random(7);
+        List<Wallpaper> wallpapers = new ArrayList<>();
+        for (int wallpaperId = 1; wallpaperId <= 500; wallpaperId++) {
+            List<Wallpaper.Resolutions.Resolution> resolutions = new ArrayList<>();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                resolutions.add(resolution(160 * (1 + random.nextInt(40)), 90 * (1 + random.nextInt(40))));
+            }
+            wallpapers.add(wallpaper(wallpaperId, resolutions, null, null, null));
+        }
+        ResolutionIndex index = ResolutionIndex.of(wallpapers);
+
+        for (int round = 0; round < 100; round++) {
+            int width = 1 + random.nextInt(6400);
+            int height = 1 + random.nextInt(3600);
+            int[] expected = wallpapers.stream()
+                    .filter(wallpaper -> wallpaper.resolutions().single().stream()
+                            .anyMatch(resolution -> Integer.parseInt(resolution.width()) >= width
+                                    && Integer.parseInt(resolution.height()) >= height))
+                    .mapToInt(Wallpaper::id)
+                    .toArray();
+
+            assertThat(index.atLeast(width, height).toArray()).containsExactly(expected);
+        }
+    }
+
+    private static Wallpaper.Resolutions.Resolution resolution(int width, int height) {
+        return new Wallpaper.Resolutions.Resolution(width + "x" + height, String.valueOf(width),
+                String.valueOf(height), "/single/%dx%d/image.jpg".formatted(width, height));
+    }
+
+    private static Wallpaper wallpaper(int wallpaperId,
+                                       List<Wallpaper.Resolutions.Resolution> single,
+                                       List<Wallpaper.Resolutions.Resolution> dual,
+                                       List<Wallpaper.Resolutions.Resolution> triple,
+                                       List<Wallpaper.Resolutions.Resolution> mobile) {
+        return new Wallpaper(wallpaperId, null, null, null, null, "Wallpaper " + wallpaperId, null, null, null,
+                new Wallpaper.Resolutions(single, dual, triple, mobile), null, null, null);
+    }
+}
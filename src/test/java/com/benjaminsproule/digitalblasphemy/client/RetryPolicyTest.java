@@ -0,0 +1,183 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.ResponseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.EOFException;
+import java.net.ConnectException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryPolicyTest {
+
+    private static final ResponseException SERVER_ERROR = new ResponseException(502, "Bad Gateway");
+
+    private final Random random = new Random() {
+        @Override
+        public double nextDouble() {
+            return 0.5;
+        }
+    };
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void builderRejectsMaxAttempts(int maxAttempts) {
+        assertThatThrownBy(() -> RetryPolicy.builder().maxAttempts(maxAttempts))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max attempts must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void builderRejectsInitialBackoff(long initialBackoff) {
+        assertThatThrownBy(() -> RetryPolicy.builder().initialBackoff(Duration.ofMillis(initialBackoff)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Initial backoff must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void builderRejectsMaxBackoff(long maxBackoff) {
+        assertThatThrownBy(() -> RetryPolicy.builder().maxBackoff(Duration.ofMillis(maxBackoff)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max backoff must be greater than 0.");
+    }
+
+    @Test
+    void builderRejectsNegativeBudgetRatio() {
+        assertThatThrownBy(() -> RetryPolicy.builder().budgetRatio(-0.1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Budget ratio must not be negative.");
+    }
+
+    @Test
+    void builderRejectsNegativeBudgetCapacity() {
+        assertThatThrownBy(() -> RetryPolicy.builder().budgetCapacity(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Budget capacity must not be negative.");
+    }
+
+    @Test
+    void builderRejectsInitialBackoffGreaterThanMaxBackoff() {
+        assertThatThrownBy(() -> RetryPolicy.builder()
+                .initialBackoff(Duration.ofSeconds(2))
+                .maxBackoff(Duration.ofSeconds(1))
+                .build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Initial backoff must not be greater than max backoff.");
+    }
+
+    @Test
+    void builderAcceptsSmallestValues() {
+        assertThatCode(() -> RetryPolicy.builder()
+                .maxAttempts(1)
+                .initialBackoff(Duration.ofNanos(1))
+                .maxBackoff(Duration.ofNanos(1))
+                .budgetRatio(0)
+                .budgetCapacity(0)
+                .build())
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void retryDelayBacksOffExponentiallyWithJitter() {
+        RetryPolicy underTest = retryPolicy().maxAttempts(5).build();
+
+        assertThat(underTest.retryDelay(1, SERVER_ERROR)).isEqualTo(Duration.ofMillis(50));
+        assertThat(underTest.retryDelay(2, SERVER_ERROR)).isEqualTo(Duration.ofMillis(100));
+        assertThat(underTest.retryDelay(3, SERVER_ERROR)).isEqualTo(Duration.ofMillis(200));
+        assertThat(underTest.retryDelay(4, SERVER_ERROR)).isEqualTo(Duration.ofMillis(250));
+    }
+
+    @Test
+    void retryDelayStopsAtMaxAttempts() {
+        RetryPolicy underTest = retryPolicy().maxAttempts(2).build();
+
+        assertThat(underTest.retryDelay(1, SERVER_ERROR)).isNotNull();
+        assertThat(underTest.retryDelay(2, SERVER_ERROR)).isNull();
+        assertThat(underTest.stats()).isEqualTo(new RetryPolicy.Stats(0, 1, 0));
+    }
+
+    @Test
+    void retryDelayDoesNotRetryNonRetryableFailures() {
+        RetryPolicy underTest = retryPolicy().build();
+
+        assertThat(underTest.retryDelay(1, new ResponseException(404, "Not Found"))).isNull();
+        assertThat(underTest.stats()).isEqualTo(new RetryPolicy.Stats(0, 0, 0));
+    }
+
+    @Test
+    void retryDelayStopsWhenBudgetIsExhausted() {
+        RetryPolicy underTest = retryPolicy().budgetCapacity(1).budgetRatio(0.5).build();
+
+        assertThat(underTest.retryDelay(1, SERVER_ERROR)).isNotNull();
+        assertThat(underTest.retryDelay(1, SERVER_ERROR)).isNull();
+
+        underTest.onRequest();
+
+        assertThat(underTest.retryDelay(1, SERVER_ERROR)).isNull();
+
+        underTest.onRequest();
+
+        assertThat(underTest.retryDelay(1, SERVER_ERROR)).isNotNull();
+        assertThat(underTest.stats()).isEqualTo(new RetryPolicy.Stats(2, 2, 2));
+    }
+
+    @Test
+    void onRequestDoesNotFillBudgetBeyondCapacity() {
+        RetryPolicy underTest = retryPolicy().budgetCapacity(1).budgetRatio(1).build();
+
+        underTest.onRequest();
+        underTest.onRequest();
+
+        assertThat(underTest.retryDelay(1, SERVER_ERROR)).isNotNull();
+        assertThat(underTest.retryDelay(1, SERVER_ERROR)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {429, 500, 502, 503})
+    void isRetryableForThrottledAndServerErrors(int statusCode) {
+        assertThat(RetryPolicy.isRetryable(new ResponseException(statusCode, "error"))).isTrue();
+        assertThat(RetryPolicy.isRetryable(new CompletionException(new ResponseException(statusCode, "error"))))
+                .isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 400, 401, 404, 499})
+    void isRetryableIsFalseForClientErrors(int statusCode) {
+        assertThat(RetryPolicy.isRetryable(new ResponseException(statusCode, "error"))).isFalse();
+    }
+
+    @Test
+    void isRetryableUsesStatusCodeOverErrorCode() {
+        assertThat(RetryPolicy.isRetryable(new ResponseException(502, 0, "Unable to parse", null))).isTrue();
+    }
+
+    @Test
+    void isRetryableForConnectionFailures() {
+        assertThat(RetryPolicy.isRetryable(new ConnectException())).isTrue();
+        assertThat(RetryPolicy.isRetryable(new CompletionException(new EOFException()))).isTrue();
+    }
+
+    @Test
+    void isRetryableIsFalseForOtherFailures() {
+        assertThat(RetryPolicy.isRetryable(new NoSuchFileException("file"))).isFalse();
+        assertThat(RetryPolicy.isRetryable(new IllegalStateException())).isFalse();
+        assertThat(RetryPolicy.isRetryable(new CompletionException(new IllegalStateException()))).isFalse();
+    }
+
+    private RetryPolicy.Builder retryPolicy() {
+        return RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofMillis(500))
+                .random(random);
+    }
+}
@@ -0,0 +1,95 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagIndexTest {
+
+    private TagIndex underTest;
+
+    @BeforeEach
+    void setup() {
+        underTest = TagIndex.of(List.of(
+                wallpaper(3, 1, 3),
+                wallpaper(1, 1, 2),
+                wallpaper(2, 2),
+                wallpaper(4)
+        ), wallpaper -> List.of(wallpaper.id() % 2, 10));
+    }
+
+    @Test
+    void indexesEveryWallpaper() {
+        assertThat(underTest.all().toArray()).containsExactly(1, 2, 3, 4);
+        assertThat(underTest.tagIds()).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(underTest.galleryIds()).containsExactlyInAnyOrder(0, 1, 10);
+    }
+
+    @Test
+    void returnsPostingsPerTagAndGallery() {
+        assertThat(underTest.tag(1).toArray()).containsExactly(1, 3);
+        assertThat(underTest.tag(2).toArray()).containsExactly(1, 2);
+        assertThat(underTest.gallery(0).toArray()).containsExactly(2, 4);
+        assertThat(underTest.gallery(10).toArray()).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void unknownIdsHaveNoWallpapers() {
+        assertThat(underTest.tag(99).isEmpty()).isTrue();
+        assertThat(underTest.gallery(99).isEmpty()).isTrue();
+        assertThat(underTest.allTags(List.of(1, 99)).isEmpty()).isTrue();
+        assertThat(underTest.anyTag(List.of(1, 99)).toArray()).containsExactly(1, 3);
+    }
+
+    @Test
+    void combinesTags() {
+        assertThat(underTest.allTags(List.of(1, 2)).toArray()).containsExactly(1);
+        assertThat(underTest.anyTag(List.of(2, 3)).toArray()).containsExactly(1, 2, 3);
+        assertThat(underTest.all().andNot(underTest.anyTag(List.of(1))).toArray()).containsExactly(2, 4);
+        assertThat(underTest.allTags(List.of())).isEqualTo(underTest.all());
+        assertThat(underTest.anyTag(List.of()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void combinesGalleries() {
+        assertThat(underTest.anyGallery(List.of(0, 1)).toArray()).containsExactly(1, 2, 3, 4);
+        assertThat(underTest.allGalleries(List.of(1, 10)).toArray()).containsExactly(1, 3);
+    }
+
+    @Test
+    void galleriesAreEmptyWithoutMapping() {
+        TagIndex withoutGalleries = TagIndex.of(List.of(wallpaper(1, 1)));
+
+        assertThat(withoutGalleries.galleryIds()).isEmpty();
+        assertThat(withoutGalleries.tag(1).toArray()).containsExactly(1);
+    }
+
+    @Test
+    void largeCatalogueFitsInAFewMegabytes() {
+        List<Wallpaper> wallpapers = IntStream.rangeClosed(1, 10000)
+                .mapToObj(wallpaperId -> wallpaper(wallpaperId,
+                        IntStream.range(0, 10).map(tag -> (wallpaperId * 7 + tag * 31) % 300).toArray()))
+                .toList();
+
+        TagIndex index = TagIndex.of(wallpapers);
+
+        assertThat(index.tagIds()).hasSize(300);
+        assertThat(index.sizeInBytes()).isLessThan(4L * 1024 * 1024);
+        assertThat(index.all().cardinality()).isEqualTo(10000);
+    }
+
+    private static Wallpaper wallpaper(int wallpaperId, int... tags) {
+        Map<String, Wallpaper.Tag> tagMap = IntStream.of(tags).boxed()
+                .collect(Collectors.toMap(String::valueOf, tag -> new Wallpaper.Tag(tag, "Tag " + tag),
+                        (first, second) -> first));
+        return new Wallpaper(wallpaperId, null, null, null, null, "Wallpaper " + wallpaperId,
+                null, null, null, null, null, tagMap, null);
+    }
+}
@@ -0,0 +1,278 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpaperRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.Operator;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WallpaperCacheTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void builderRejectsMaximumSize(long maximumSize) {
+        assertThatThrownBy(() -> WallpaperCache.builder().maximumSize(maximumSize))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Maximum size must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void builderRejectsMaximumWeight(long maximumWeight) {
+        assertThatThrownBy(() -> WallpaperCache.builder().maximumWeight(maximumWeight))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Maximum weight must be greater than 0.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void builderRejectsExpireAfterWrite(long expireAfterWrite) {
+        assertThatThrownBy(() -> WallpaperCache.builder().expireAfterWrite(Duration.ofMillis(expireAfterWrite)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expire after write must be greater than 0.");
+    }
+
+    @Test
+    void builderRejectsBuildWhenNoBoundIsProvided() {
+        assertThatThrownBy(() -> WallpaperCache.builder().expireAfterWrite(Duration.ofMinutes(1)).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Maximum size or maximum weight must be provided.");
+    }
+
+    @Test
+    void getReturnsCachedWallpaperAndRecordsStats() throws Exception {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(10).build();
+        Wallpaper wallpaper = wallpaper(1);
+
+        assertThat(underTest.get(request(1))).isNull();
+        underTest.put(request(1), wallpaper);
+
+        assertThat(underTest.get(request(1))).isSameAs(wallpaper);
+        assertThat(underTest.get(request(2))).isNull();
+        assertThat(underTest.stats()).isEqualTo(new WallpaperCache.Stats(1, 2, 0, 1, weigh(wallpaper)));
+    }
+
+    @Test
+    void getTreatsUnsentResolutionFiltersAsEqual() {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(10).build();
+        Wallpaper wallpaper = wallpaper(1);
+
+        underTest.put(GetWallpaperRequest.builder().wallpaperId(1).filterResHeight(-1).filterResWidth(-2).build(),
+                wallpaper);
+
+        assertThat(underTest.get(request(1))).isSameAs(wallpaper);
+    }
+
+    @Test
+    void getDistinguishesRequestsThatChangeTheResponse() {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(20).build();
+        underTest.put(request(1), wallpaper(1));
+
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1).filterResHeight(1).build())).isNull();
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1).filterResWidth(1).build())).isNull();
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1)
+                .filterResOperator(Operator.EQUAL).build())).isNull();
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1)
+                .filterResOperatorHeight(Operator.EQUAL).build())).isNull();
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1)
+                .filterResOperatorWidth(Operator.EQUAL).build())).isNull();
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1).showComments(true).build())).isNull();
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1).showPickleJar(true).build())).isNull();
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1).showResolutions(false).build()))
+                .isNull();
+    }
+
+    @Test
+    void putEvictsLeastRecentlyUsedWallpaperWhenMaximumSizeIsExceeded() throws Exception {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(2).build();
+        underTest.put(request(1), wallpaper(1));
+        underTest.put(request(2), wallpaper(2));
+        underTest.get(request(1));
+
+        underTest.put(request(3), wallpaper(3));
+
+        assertThat(underTest.get(request(1))).isNotNull();
+        assertThat(underTest.get(request(2))).isNull();
+        assertThat(underTest.get(request(3))).isNotNull();
+        assertThat(underTest.stats().evictionCount()).isEqualTo(1);
+        assertThat(underTest.stats().size()).isEqualTo(2);
+        assertThat(underTest.stats().weight()).isEqualTo(weigh(wallpaper(1)) + weigh(wallpaper(3)));
+    }
+
+    @Test
+    void putEvictsLeastRecentlyUsedWallpapersWhenMaximumWeightIsExceeded() throws Exception {
+        long weight = weigh(wallpaper(1));
+        WallpaperCache underTest = WallpaperCache.builder().maximumWeight(weight * 2).build();
+        underTest.put(request(1), wallpaper(1));
+        underTest.put(request(2), wallpaper(2));
+
+        assertThat(underTest.stats()).isEqualTo(new WallpaperCache.Stats(0, 0, 0, 2, weight * 2));
+
+        underTest.put(request(3), wallpaper(3));
+
+        assertThat(underTest.stats()).isEqualTo(new WallpaperCache.Stats(0, 0, 1, 2, weight * 2));
+        assertThat(underTest.get(request(1))).isNull();
+    }
+
+    @Test
+    void putReplacesExistingWallpaper() throws Exception {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(10).build();
+        Wallpaper replacement = new Wallpaper(1, null, null, "content", null, "name",
+                new Wallpaper.Paths("a", "t", "w"), null, null, null, null, null, null);
+        underTest.put(request(1), wallpaper(1));
+
+        underTest.put(request(1), replacement);
+
+        assertThat(underTest.get(request(1))).isSameAs(replacement);
+        assertThat(underTest.stats().size()).isEqualTo(1);
+        assertThat(underTest.stats().weight()).isEqualTo(weigh(replacement));
+    }
+
+    @Test
+    void putRejectsWallpaperThatCannotBeWeighed() {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(10).build();
+        Map<String, Wallpaper.Tag> tags = new HashMap<>();
+        tags.put(null, new Wallpaper.Tag(1, "tag"));
+        Wallpaper wallpaper = new Wallpaper(1, null, null, null, null, "name", new Wallpaper.Paths("a", "t", "w"),
+                null, null, null, null, tags, null);
+
+        assertThatThrownBy(() -> underTest.put(request(1), wallpaper))
+                .isInstanceOf(RuntimeException.class)
+                .hasCauseInstanceOf(JsonMappingException.class);
+    }
+
+    @Test
+    void getExpiresWallpaperAfterWrite() {
+        MutableClock clock = new MutableClock();
+        WallpaperCache underTest = WallpaperCache.builder()
+                .maximumSize(10)
+                .expireAfterWrite(Duration.ofMillis(100))
+                .clock(clock)
+                .build();
+        Wallpaper wallpaper = wallpaper(1);
+        underTest.put(request(1), wallpaper);
+
+        clock.millis = 99;
+        assertThat(underTest.get(request(1))).isSameAs(wallpaper);
+
+        clock.millis = 100;
+        assertThat(underTest.get(request(1))).isNull();
+        assertThat(underTest.stats()).isEqualTo(new WallpaperCache.Stats(1, 1, 1, 0, 0));
+    }
+
+    @Test
+    void getDoesNotExpireWallpaperWithoutExpireAfterWrite() {
+        MutableClock clock = new MutableClock();
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(10).clock(clock).build();
+        Wallpaper wallpaper = wallpaper(1);
+        underTest.put(request(1), wallpaper);
+
+        clock.millis = Long.MAX_VALUE - 1;
+
+        assertThat(underTest.get(request(1))).isSameAs(wallpaper);
+    }
+
+    @Test
+    void invalidateAllRemovesAllWallpapers() {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(10).build();
+        underTest.put(request(1), wallpaper(1));
+        underTest.put(request(2), wallpaper(2));
+
+        underTest.invalidateAll();
+
+        assertThat(underTest.stats()).isEqualTo(new WallpaperCache.Stats(0, 0, 0, 0, 0));
+        assertThat(underTest.get(request(1))).isNull();
+    }
+
+    @Test
+    void putAllCachesWallpapersWithRequestedShowFlags() {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(10).build();
+        Wallpaper first = wallpaper(1);
+        Wallpaper second = wallpaper(2);
+
+        underTest.putAll(
+                GetWallpapersRequest.builder().showComments(true).showPickleJar(true).showResolutions(false).build(),
+                response(first, second));
+
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(1)
+                .showComments(true).showPickleJar(true).showResolutions(false).build())).isSameAs(first);
+        assertThat(underTest.get(GetWallpaperRequest.builder().wallpaperId(2)
+                .showComments(true).showPickleJar(true).showResolutions(false).build())).isSameAs(second);
+        assertThat(underTest.get(request(1))).isNull();
+    }
+
+    @Test
+    void putAllIgnoresWallpapersFilteredByResolution() {
+        WallpaperCache underTest = WallpaperCache.builder().maximumSize(10).build();
+
+        underTest.putAll(GetWallpapersRequest.builder().filterResHeight(1).build(), response(wallpaper(1)));
+        underTest.putAll(GetWallpapersRequest.builder().filterResWidth(1).build(), response(wallpaper(2)));
+
+        assertThat(underTest.stats().size()).isZero();
+    }
+
+    private static GetWallpaperRequest request(int wallpaperId) {
+        return GetWallpaperRequest.builder().wallpaperId(wallpaperId).build();
+    }
+
+    private static Wallpaper wallpaper(int id) {
+        return new Wallpaper(id, null, null, null, null, "name", new Wallpaper.Paths("a", "t", "w"),
+                null, null, null, null, null, null);
+    }
+
+    private static GetWallpapersResponse response(Wallpaper... wallpapers) {
+        Map<String, Wallpaper> wallpapersById = new HashMap<>();
+        for (Wallpaper wallpaper : wallpapers) {
+            wallpapersById.put(String.valueOf(wallpaper.id()), wallpaper);
+        }
+        return new GetWallpapersResponse(
+                new GetWallpapersResponse.DBCore(1, null, null, 1, wallpapersById),
+                wallpapersById.values().stream().map(Wallpaper::id).toList()
+        );
+    }
+
+    private static long weigh(Wallpaper wallpaper) throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsBytes(wallpaper).length;
+    }
+
+    private static class MutableClock extends Clock {
+        private long millis;
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
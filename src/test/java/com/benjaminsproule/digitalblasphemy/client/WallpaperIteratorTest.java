@@ -0,0 +1,93 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WallpaperIteratorTest {
+
+    private final WallpaperIterator underTest = new WallpaperIterator();
+    private final RecordingSubscription subscription = new RecordingSubscription();
+
+    @BeforeEach
+    void setUp() {
+        underTest.onSubscribe(subscription);
+    }
+
+    @Test
+    void iteratesPublishedWallpapers() {
+        Wallpaper first = wallpaper(1);
+        Wallpaper second = wallpaper(2);
+        underTest.onNext(first);
+        underTest.onNext(second);
+        underTest.onComplete();
+
+        assertThat(underTest.hasNext()).isTrue();
+        assertThat(underTest.hasNext()).isTrue();
+        assertThat(subscription.requested).isEqualTo(1);
+        assertThat(underTest.next()).isSameAs(first);
+        assertThat(underTest.next()).isSameAs(second);
+        assertThat(subscription.requested).isEqualTo(2);
+        assertThat(underTest.hasNext()).isFalse();
+        assertThat(underTest.hasNext()).isFalse();
+        assertThat(subscription.requested).isEqualTo(3);
+        assertThatThrownBy(underTest::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void throwsPublishedError() {
+        IllegalStateException exception = new IllegalStateException("failed");
+        underTest.onError(exception);
+
+        assertThatThrownBy(underTest::hasNext)
+                .isInstanceOf(CompletionException.class)
+                .hasCause(exception);
+        assertThatThrownBy(underTest::next)
+                .isInstanceOf(CompletionException.class)
+                .hasCause(exception);
+    }
+
+    @Test
+    void throwsWhenInterruptedWhileWaiting() {
+        Thread.currentThread().interrupt();
+
+        assertThatThrownBy(underTest::hasNext)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(InterruptedException.class);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void closeCancelsSubscription() {
+        underTest.close();
+
+        assertThat(subscription.cancelled).isTrue();
+    }
+
+    private static Wallpaper wallpaper(int id) {
+        return new Wallpaper(id, null, null, null, null, "name", new Wallpaper.Paths("a", "t", "w"),
+                null, null, null, null, null, null);
+    }
+
+    private static class RecordingSubscription implements Flow.Subscription {
+        private long requested;
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.benjaminsproule.digitalblasphemy.client;
+
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersRequest;
+import com.benjaminsproule.digitalblasphemy.client.model.GetWallpapersResponse;
+import com.benjaminsproule.digitalblasphemy.client.model.Wallpaper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WallpaperPublisherTest {
+
+    private final Map<Integer, CompletableFuture<GetWallpapersResponse>> pages = new LinkedHashMap<>();
+    private final List<GetWallpapersRequest> requests = new ArrayList<>();
+
+    @Test
+    void publishesWallpapersFromEveryPageInOrder() {
+        completePages(3);
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().limit(2).build(), 1);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(subscriber.completed).isTrue();
+        assertThat(requests).extracting(GetWallpapersRequest::getPage).containsExactly(1, 2, 3);
+        assertThat(requests).extracting(GetWallpapersRequest::getLimit).containsOnly(2);
+    }
+
+    @Test
+    void publishesWallpapersFromRequestedPage() {
+        completePages(3);
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().page(2).build(), 1);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(3, 4, 5, 6);
+        assertThat(subscriber.completed).isTrue();
+        assertThat(requests).extracting(GetWallpapersRequest::getPage).containsExactly(2, 3);
+    }
+
+    @Test
+    void completesWhenThereAreNoWallpapers() {
+        pages.put(1, CompletableFuture.completedFuture(page(0, 0)));
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 1);
+
+        subscriber.subscription.request(1);
+
+        assertThat(subscriber.wallpapers).isEmpty();
+        assertThat(subscriber.completed).isTrue();
+    }
+
+    @Test
+    void skipsWallpapersMissingFromThePage() {
+        GetWallpapersResponse page = page(1, 1);
+        pages.put(1, CompletableFuture.completedFuture(new GetWallpapersResponse(page.dbCore(), List.of(1, 2, 3))));
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 1);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1, 2);
+        assertThat(subscriber.completed).isTrue();
+    }
+
+    @Test
+    void doesNotFetchPagesUntilWallpapersAreRequested() {
+        completePages(3);
+
+        subscribe(GetWallpapersRequest.builder().build(), 2);
+
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void publishesOnlyRequestedWallpapers() {
+        completePages(3);
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 1);
+
+        subscriber.subscription.request(3);
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1, 2, 3);
+        assertThat(subscriber.completed).isFalse();
+
+        subscriber.subscription.request(1);
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void prefetchesPagesWhileWallpapersAreConsumed() {
+        IntStream.rangeClosed(1, 5).forEach(page -> pages.put(page, new CompletableFuture<>()));
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 2);
+
+        subscriber.subscription.request(1);
+
+        assertThat(requests).extracting(GetWallpapersRequest::getPage).containsExactly(1);
+
+        pages.get(1).complete(page(1, 5));
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1);
+        assertThat(requests).extracting(GetWallpapersRequest::getPage).containsExactly(1, 2, 3);
+
+        pages.get(2).complete(page(2, 5));
+        pages.get(3).complete(page(3, 5));
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1);
+        assertThat(requests).extracting(GetWallpapersRequest::getPage).containsExactly(1, 2, 3);
+
+        subscriber.subscription.request(2);
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1, 2, 3);
+        assertThat(requests).extracting(GetWallpapersRequest::getPage).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void capsRequestedWallpapersAtMaximum() {
+        pages.put(1, new CompletableFuture<>());
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 1);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        pages.get(1).complete(page(1, 1));
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1, 2);
+        assertThat(subscriber.completed).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 0})
+    void failsWhenRequestIsNotPositive(long n) {
+        completePages(1);
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 1);
+
+        subscriber.subscription.request(n);
+        subscriber.subscription.request(1);
+
+        assertThat(subscriber.error)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Requested wallpapers must be greater than 0.");
+        assertThat(subscriber.wallpapers).isEmpty();
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    void failsWhenPageCannotBeFetched() {
+        IllegalStateException exception = new IllegalStateException("failed");
+        pages.put(1, CompletableFuture.completedFuture(page(1, 2)));
+        pages.put(2, CompletableFuture.failedFuture(exception));
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 1);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1, 2);
+        assertThat(subscriber.error).isSameAs(exception);
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    void stopsPublishingWhenCancelled() {
+        IntStream.rangeClosed(1, 2).forEach(page -> pages.put(page, new CompletableFuture<>()));
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 1);
+
+        subscriber.subscription.request(1);
+        pages.get(1).complete(page(1, 2));
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(Long.MAX_VALUE);
+        pages.get(2).complete(page(2, 2));
+
+        assertThat(subscriber.wallpaperIds()).containsExactly(1);
+        assertThat(subscriber.completed).isFalse();
+        assertThat(requests).extracting(GetWallpapersRequest::getPage).containsExactly(1, 2);
+    }
+
+    @Test
+    void cancelsPagesInFlightWhenCancelled() {
+        IntStream.rangeClosed(1, 3).forEach(page -> pages.put(page, new CompletableFuture<>()));
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 2);
+
+        subscriber.subscription.request(1);
+        pages.get(1).complete(page(1, 3));
+
+        assertThat(requests).extracting(GetWallpapersRequest::getPage).containsExactly(1, 2, 3);
+
+        subscriber.subscription.cancel();
+
+        assertThat(pages.get(2)).isCancelled();
+        assertThat(pages.get(3)).isCancelled();
+        assertThat(subscriber.error).isNull();
+    }
+
+    @Test
+    void failsWhenPageIsCancelled() {
+        pages.put(1, new CompletableFuture<>());
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 1);
+
+        subscriber.subscription.request(1);
+        pages.get(1).cancel(true);
+
+        assertThat(subscriber.error).isInstanceOf(CancellationException.class);
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    void cancelsRemainingPagesWhenPageFails() {
+        IllegalStateException exception = new IllegalStateException("failed");
+        IntStream.rangeClosed(1, 3).forEach(page -> pages.put(page, new CompletableFuture<>()));
+        RecordingSubscriber subscriber = subscribe(GetWallpapersRequest.builder().build(), 2);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        pages.get(1).complete(page(1, 3));
+
+        pages.get(2).completeExceptionally(exception);
+
+        assertThat(subscriber.error).isSameAs(exception);
+        assertThat(pages.get(3)).isCancelled();
+    }
+
+    private RecordingSubscriber subscribe(GetWallpapersRequest getWallpapersRequest, int prefetchPages) {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new WallpaperPublisher(request -> {
+            requests.add(request);
+            return pages.get(request.getPage());
+        }, getWallpapersRequest, prefetchPages).subscribe(subscriber);
+        return subscriber;
+    }
+
+    private void completePages(int totalPages) {
+        IntStream.rangeClosed(1, totalPages)
+                .forEach(page -> pages.put(page, CompletableFuture.completedFuture(page(page, totalPages))));
+    }
+
+    private static GetWallpapersResponse page(int page, int totalPages) {
+        Map<String, Wallpaper> wallpapers = new LinkedHashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        if (page > 0) {
+            for (int id = page * 2 - 1; id <= page * 2; id++) {
+                wallpapers.put(String.valueOf(id), new Wallpaper(id, null, null, null, null, "name",
+                        new Wallpaper.Paths("a", "t", "w"), null, null, null, null, null, null));
+                ids.add(id);
+            }
+        }
+        return new GetWallpapersResponse(new GetWallpapersResponse.DBCore(1, null, null, totalPages, wallpapers), ids);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Wallpaper> {
+        private final List<Wallpaper> wallpapers = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Wallpaper wallpaper) {
+            wallpapers.add(wallpaper);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        private List<Integer> wallpaperIds() {
+            return wallpapers.stream().map(Wallpaper::id).toList();
+        }
+    }
+}
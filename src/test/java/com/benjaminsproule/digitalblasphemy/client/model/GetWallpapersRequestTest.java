@@ -193,4 +193,41 @@ class GetWallpapersRequestTest {
         assertThat(request.isShowResolutions()).isEqualTo(false);
     }
 
+    @Test
+    void getWallpapersRequestToBuilderCopiesRequest() {
+        GetWallpapersRequest original = GetWallpapersRequest.builder()
+                .filterDateDay(2)
+                .filterDateMonth(2)
+                .filterDateYear(2000)
+                .filterDateOperator(Operator.EQUAL)
+                .filterGallery(List.of(1, 2))
+                .filterRating(2.5f)
+                .filterRatingOperator(Operator.EQUAL)
+                .filterResHeight(1080)
+                .filterResOperator(Operator.EQUAL)
+                .filterResOperatorHeight(Operator.EQUAL)
+                .filterResOperatorWidth(Operator.EQUAL)
+                .filterResWidth(1920)
+                .filterTag(List.of(1, 2))
+                .limit(20)
+                .order(Order.DESCENDING)
+                .orderBy(GetWallpapersOrderBy.NAME)
+                .page(5)
+                .s("search")
+                .showComments(true)
+                .showPickleJar(true)
+                .showResolutions(false)
+                .build();
+
+        GetWallpapersRequest request = original.toBuilder().page(6).build();
+
+        assertThat(request).isNotSameAs(original);
+        assertThat(original.getPage()).isEqualTo(5);
+        assertThat(request.getPage()).isEqualTo(6);
+        assertThat(request)
+                .usingRecursiveComparison()
+                .ignoringFields("page")
+                .isEqualTo(original);
+    }
+
 }
@@ -52,6 +52,31 @@ class ResponseExceptionTest {
         }
     }
 
+    @Nested
+    class StatusCodeConstructor {
+        @Test
+        void testGetMessageFromResponseError() {
+            ResponseException responseException = new ResponseException(502, new ResponseError(1, "description", List.of("Error1")));
+            assertThat(responseException.getMessage()).isEqualTo("Code: 1, Description: description, Errors: [Error1]");
+            assertThat(responseException.getStatusCode()).isEqualTo(502);
+            assertThat(responseException.getCode()).isEqualTo(1);
+        }
+
+        @Test
+        void testGetMessageFromSeparateArguments() {
+            ResponseException responseException = new ResponseException(502, 0, "description", null);
+            assertThat(responseException.getMessage()).isEqualTo("Code: 0, Description: description, Errors: []");
+            assertThat(responseException.getStatusCode()).isEqualTo(502);
+            assertThat(responseException.getCode()).isZero();
+        }
+    }
+
+    @Test
+    void testGetStatusCodeDefaultsToCode() {
+        assertThat(new ResponseException(1, "description").getStatusCode()).isEqualTo(1);
+        assertThat(new ResponseException(new ResponseError(1, "description", null)).getStatusCode()).isEqualTo(1);
+    }
+
     @Test
     void testGetCode() {
         ResponseException responseException = new ResponseException(1, "description", List.of("Error1", "Error2"));